@@ -1,6 +1,7 @@
 package ulb;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,11 +38,20 @@ public final class Config {
     /**main dir of the app*/
     public static final String DATA_DIRECTORY_PATH = String.valueOf(Paths.get(System.getProperty("user.home"), ".deezify_g8"));
 
-    /** Dossier contenant les musiques MP3 analysées. */
+    /** Dossier contenant les musiques analysées (racine par défaut de la bibliothèque). */
     public static final String MUSIC_DIRECTORY = "musiques/";
 
     public static final String SAMPLE_MUSIC_DIRECTORY = "musiques/";
 
+    /**
+     * Dossiers racines de la bibliothèque, parcourus récursivement et surveillés.
+     * Un chemin relatif est pris dans le dossier de données ; les morceaux d'exemple sont copiés dans {@link #MUSIC_DIRECTORY}.
+     */
+    public static final List<String> LIBRARY_ROOTS = List.of(MUSIC_DIRECTORY);
+
+    /** Extensions des fichiers audio indexés, parmi les formats dont jaudiotagger lit les tags. */
+    public static final List<String> AUDIO_FILE_EXTENSIONS = List.of("mp3", "flac", "ogg", "m4a", "wav");
+
     public static final List<String> SAMPLE_MUSICS = List.of(
             "B_U_R_N_-_bessonnitsa.mp3",
             "Formidable.mp3" // Add other file names as needed
@@ -50,12 +60,18 @@ public final class Config {
     /** Image par défaut utilisée pour les morceaux sans couverture. */
     public static final String DEFAULT_COVER_IMAGE = "/default_cover_image/default_cover_image.jpg";
 
-    /** Dossier où sont stockées les images de couverture extraites des MP3. */
+    /** Dossier où sont stockées les images de couverture extraites des fichiers audio. */
     public static final String COVER_IMAGES_DIRECTORY = "cover_images/";
 
     /** Chemin de la base de données SQLite (ou un fichier SQL si besoin). */
     public static final String DATABASE_PATH = "deezify.db";
 
+    /** Instantané binaire de la bibliothèque et des playlists, écrit à la fermeture et relu au démarrage. */
+    public static final String LIBRARY_SNAPSHOT_PATH = "library.snapshot";
+
+    /** Démarre depuis l'instantané de la bibliothèque quand il correspond à la base ; scan et chargement se font alors en arrière-plan. */
+    public static final boolean LIBRARY_SNAPSHOT_ENABLED = true;
+
     /** Dossier contenant les fichiers texte des paroles générées (format .txt). */
     public static final String LYRICS_TRACKS_DIRECTORY = "/lyrics_tracks/";
 
@@ -86,6 +102,131 @@ public final class Config {
     // ➤ Fichier SQL pour les requêtes communes (DbManager : id lookup, etc.)
     public static final String COMMON_QUERIES_SQL_FILE = SQL_FILES_DIRECTORY + "common_queries.sql";
 
+    // ➤ Fichier SQL des migrations du schéma (appliquées selon PRAGMA user_version)
+    public static final String MIGRATIONS_SQL_FILE = SQL_FILES_DIRECTORY + "migrations.sql";
+
+    /** Prépare toutes les requêtes du catalogue SQL contre le schéma au démarrage (échec immédiat si l'une est invalide). */
+    public static final boolean VALIDATE_SQL_CATALOG = true;
+
+    // =========================================================================
+    // ⚙️ SECTION : PARAMÈTRES DE LA BASE DE DONNÉES
+    // =========================================================================
+
+    /** Nombre maximal de requêtes préparées gardées ouvertes par gestionnaire DAO. */
+    public static final int STATEMENT_CACHE_SIZE = 64;
+
+    /** Nombre de morceaux insérés par transaction lors du scan du dossier de musiques. */
+    public static final int IMPORT_BATCH_SIZE = 500;
+
+    /** Nombre de threads qui extraient en parallèle les métadonnées et pochettes pendant le scan. */
+    public static final int SCAN_WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+
+    /** Nombre maximal de morceaux extraits en attente d'insertion : au-delà, les extracteurs attendent l'écriture. */
+    public static final int SCAN_QUEUE_CAPACITY = 2 * IMPORT_BATCH_SIZE;
+
+    /**
+     * Calcule aussi l'empreinte SHA-256 du contenu des fichiers scannés : un fichier dont seule la date
+     * de modification a changé n'est alors pas relu. Désactivé par défaut, la lecture complète des
+     * fichiers coûtant plus cher que la relecture des tags.
+     */
+    public static final boolean SCAN_CONTENT_HASH = false;
+
+    /** Surveille le dossier de musiques pendant l'exécution : les fichiers ajoutés, modifiés ou supprimés sont synchronisés sans redémarrage. */
+    public static final boolean LIBRARY_WATCH_ENABLED = true;
+
+    /** Délai de calme (ms) après le dernier événement du dossier avant de synchroniser les fichiers concernés. */
+    public static final long LIBRARY_WATCH_DEBOUNCE_MILLIS = 1500;
+
+    /**
+     * Profils de stockage SQLite appliqués (via PRAGMA) à l'ouverture de chaque connexion.
+     * ➤ SAFE : journal de rollback et synchronisation complète (comportement par défaut de SQLite).
+     * ➤ BALANCED : journal WAL, les lectures ne sont plus bloquées par les écritures, fsync réduit aux checkpoints.
+     * ➤ FAST : WAL sans synchronisation, pour les imports massifs (risque de perte des dernières transactions en cas de coupure).
+     */
+    public enum StorageProfile {
+        SAFE("DELETE", "FULL", -2000, 0, "DEFAULT", 5000),
+        BALANCED("WAL", "NORMAL", -20000, 268435456L, "MEMORY", 5000),
+        FAST("WAL", "OFF", -64000, 1073741824L, "MEMORY", 5000);
+
+        private final String journalMode; // journal_mode
+        private final String synchronous; // synchronous
+        private final int cacheSize;      // cache_size (négatif : en Kio)
+        private final long mmapSize;      // mmap_size en octets
+        private final String tempStore;   // temp_store
+        private final int busyTimeout;    // busy_timeout en millisecondes
+
+        StorageProfile(String journalMode, String synchronous, int cacheSize, long mmapSize, String tempStore, int busyTimeout) {
+            this.journalMode = journalMode;
+            this.synchronous = synchronous;
+            this.cacheSize = cacheSize;
+            this.mmapSize = mmapSize;
+            this.tempStore = tempStore;
+            this.busyTimeout = busyTimeout;
+        }
+
+        /**
+         * @return Les instructions PRAGMA à exécuter sur une connexion pour appliquer ce profil.
+         */
+        public List<String> getPragmas() {
+            return List.of(
+                "PRAGMA journal_mode = " + journalMode,
+                "PRAGMA synchronous = " + synchronous,
+                "PRAGMA cache_size = " + cacheSize,
+                "PRAGMA mmap_size = " + mmapSize,
+                "PRAGMA temp_store = " + tempStore,
+                "PRAGMA busy_timeout = " + busyTimeout
+            );
+        }
+
+        public String getJournalMode() {
+            return journalMode;
+        }
+    }
+
+    /** Fenêtre (ms) pendant laquelle les modifications de morceaux sont regroupées avant d'être enregistrées. */
+    public static final long TRACK_SYNC_WINDOW_MILLIS = 500;
+
+    /** Nombre de lignes demandées au pilote JDBC à chaque lecture lors du parcours complet de la bibliothèque. */
+    public static final int TRACK_FETCH_SIZE = 1000;
+
+    /** Nombre de morceaux chargés par page dans la bibliothèque et les résultats de recherche. */
+    public static final int TRACK_PAGE_SIZE = 50;
+
+    /** Nombre maximal de résultats renvoyés par la recherche plein texte, classés par pertinence. */
+    public static final int FULL_TEXT_SEARCH_LIMIT = 500;
+
+    /**
+     * Mesure de la latence des requêtes SQL par tag (QueryMetrics), résumée dans le journal à la fermeture.
+     * Désactivable au lancement avec -Dulb.queryMetrics=false.
+     */
+    public static final boolean QUERY_METRICS_ENABLED = Boolean.parseBoolean(System.getProperty("ulb.queryMetrics", "true"));
+
+    /**
+     * Durée (ms) au-delà de laquelle une requête de recherche ou de mise à jour est journalisée avec son plan d'exécution.
+     * Une valeur nulle ou négative désactive le journal (-Dulb.slowQueryMillis=0) : les requêtes ne sont alors plus instrumentées.
+     */
+    public static final long SLOW_QUERY_THRESHOLD_MILLIS = Long.getLong("ulb.slowQueryMillis", 200);
+
+    /** Écart entre les positions de deux morceaux consécutifs d'une playlist : autant de déplacements possibles avant renumérotation. */
+    public static final long PLAYLIST_POSITION_GAP = 1024;
+
+    /** Si vrai, seuls les noms des playlists sont lus au démarrage ; leurs morceaux sont lus à la première ouverture. */
+    public static final boolean LAZY_PLAYLIST_LOADING = true;
+
+    /** Nombre de connexions en lecture seule ouvertes pour les recherches (lectures parallèles en mode WAL). */
+    public static final int READER_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    // Profil de stockage courant, modifiable (tests, benchmarks) avant l'ouverture de la base
+    private static StorageProfile storageProfile = StorageProfile.BALANCED;
+
+    public static void setStorageProfile(StorageProfile profile) {
+        storageProfile = profile;
+    }
+
+    public static StorageProfile getStorageProfile() {
+        return storageProfile;
+    }
+
     public static final List<String> NEEDED_DIRECTORIES = Arrays.asList(MUSIC_DIRECTORY, COVER_IMAGES_DIRECTORY, LYRICS_TRACKS_DIRECTORY, KARAOKE_TRACKS_DIRECTORY);
     /**
      * Constructeur privé pour empêcher toute instanciation.
@@ -98,6 +239,18 @@ public final class Config {
         return String.valueOf(Paths.get(getDataDirectoryPath(), partial));
     }
 
+    /**
+     * @return Les dossiers racines de la bibliothèque en chemins absolus ({@link #LIBRARY_ROOTS}).
+     */
+    public static List<Path> getLibraryRoots() {
+        List<Path> roots = new ArrayList<>();
+        for (String root : LIBRARY_ROOTS) {
+            Path path = Paths.get(root);
+            roots.add(path.isAbsolute() ? path : Paths.get(getFullPathFromRelative(root)));
+        }
+        return roots;
+    }
+
     public static class CouldNotSetUpDataFolder extends Exception{
         public CouldNotSetUpDataFolder(String message) {
             super(message);
@@ -9,18 +9,25 @@ import ulb.controller.AudioPlayerController;
 import ulb.controller.PlaylistController;
 import ulb.i18n.LanguageManager;
 import ulb.model.ChangeTracker;
+import ulb.model.DatabaseSeeder;
+import ulb.model.LibraryScanner;
 import ulb.model.Playlist;
 import ulb.model.PlaylistManager;
 import ulb.model.Queue;
 import ulb.model.Track;
 import ulb.model.TrackLibrary;
+import ulb.dao.DbManagerSearch;
 import ulb.services.AppServices;
+import ulb.services.AsyncDao;
+import ulb.services.LibrarySnapshot;
 import ulb.view.MainViewController;
 import ulb.view.utils.AlertManager;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,13 +49,19 @@ public class GuiMain extends Application {
         LanguageManager languageManager = LanguageManager.getInstance();
         try{
             AppServices.init();
-            AppServices.getDbSeeder().seedDatabase();
 
-            // === 🔄 Initialisation de la bibliothèque de pistes
-            initializeLibrary();
+            // === ⚡ Démarrage depuis l'instantané : scan et chargement réel en arrière-plan
+            if (!initializeFromSnapshot()) {
+                AppServices.getDbSeeder().seedDatabase();
 
-            // === 🔄 Chargement des playlists depuis la BDD
-            initializePlaylists();
+                // === 🔄 Initialisation de la bibliothèque de pistes
+                initializeLibrary();
+
+                // === 🔄 Chargement des playlists depuis la BDD
+                initializePlaylists();
+
+                AppServices.startLibraryWatcher(library);
+            }
 
             // === 🔄 Création de la vue principale avec i18n
             loadMainView();
@@ -81,30 +94,125 @@ public class GuiMain extends Application {
         ChangeTracker changeTracker = new ChangeTracker();
         library = new TrackLibrary();
         library.addObserver(changeTracker);
-        library.setTracks(AppServices.getDbSearch().getAllTracks());
-        AppServices.getDbUpdate().setChanges(changeTracker);
-        AppServices.getDbUpdate().setTrackLibrary(library);
+        library.loadTracks(AppServices.getDbSearch()::forEachTrack); // lecture au fil du curseur, sans liste intermédiaire
+        AppServices.getDbSearch().setTrackLibrary(library); // recherches et playlists renvoient les morceaux de la bibliothèque
+        AppServices.startTrackSync(changeTracker, library);
     }
 
     /**
-     * Charge les playlists depuis la base de données.
+     * Restaure la bibliothèque et les playlists depuis l'instantané binaire écrit à la dernière fermeture,
+     * si le compteur de modifications de la base n'a pas changé depuis. Le scan du dossier de musiques
+     * est alors lancé en arrière-plan, puis la bibliothèque est réconciliée avec la base s'il l'a modifiée.
+     * @return true si l'instantané a été utilisé, false s'il est absent ou périmé.
      */
-    private void initializePlaylists() {
-        PlaylistManager playlistManager = PlaylistManager.getInstance();
-        Map<String, List<Track>> playlistsWithTracks = AppServices.getDbSearch().getAllPlaylistsWithTracks();
-        logger.info("playlist = " + playlistsWithTracks);
+    private boolean initializeFromSnapshot() {
+        if (!Config.LIBRARY_SNAPSHOT_ENABLED) return false;
+        DbManagerSearch dbSearch = AppServices.getDbSearch();
+        long changeCounter = dbSearch.getChangeCounter();
+        Optional<LibrarySnapshot> snapshot = LibrarySnapshot.read(AppServices.getLibrarySnapshotPath());
+        if (snapshot.isEmpty() || changeCounter < 0 || snapshot.get().getChangeCounter() != changeCounter) {
+            logger.info("Instantané de la bibliothèque absent ou périmé : chargement depuis la base.");
+            return false;
+        }
 
-        for (Map.Entry<String, List<Track>> entry : playlistsWithTracks.entrySet()) {
-            String playlistTitle = entry.getKey();
-            List<Track> playlistTracks = entry.getValue();
-            logger.info("[DEBUG] Chargement playlist: " + playlistTitle + " - " + playlistTracks.size() + " tracks");
+        ChangeTracker changeTracker = new ChangeTracker();
+        library = new TrackLibrary();
+        library.addObserver(changeTracker);
+        library.setTracks(snapshot.get().getTracks());
+        dbSearch.setTrackLibrary(library);
+        AppServices.startTrackSync(changeTracker, library);
 
+        PlaylistManager playlistManager = PlaylistManager.getInstance();
+        for (LibrarySnapshot.PlaylistEntry entry : snapshot.get().getPlaylists()) {
+            String playlistTitle = entry.getTitle();
+            if (entry.getTrackIds() == null) {
+                playlistManager.addPlaylist(new Playlist(playlistTitle, () -> dbSearch.getTracksForPlaylist(playlistTitle)));
+                continue;
+            }
             Playlist playlist = new Playlist(playlistTitle);
-            for (Track track : playlistTracks) {
-                playlist.addTrack(track);
+            for (Integer trackId : entry.getTrackIds()) {
+                Track track = library.get(trackId);
+                if (track != null) {
+                    playlist.addTrack(track);
+                }
             }
             playlistManager.addPlaylist(playlist);
         }
+        logger.info("⚡ Bibliothèque restaurée depuis l'instantané (" + snapshot.get().getTracks().size() + " morceaux).");
+
+        AsyncDao<DatabaseSeeder> asyncSeeder = new AsyncDao<>(AppServices.getDbSeeder());
+        AtomicReference<LibraryScanner.ScanResult> scanResult = new AtomicReference<>();
+        AsyncDao.onFxThread(asyncSeeder.call(seeder -> {
+            scanResult.set(seeder.seedDatabase());
+            return dbSearch.getChangeCounter() == changeCounter ? null : dbSearch.getAllTracks();
+        }), tracks -> {
+            if (tracks != null) {
+                library.reconcile(tracks);
+                if (scanResult.get() != null) {
+                    library.refreshTracks(scanResult.get().getUpdatedTracks());
+                }
+                pruneRestoredPlaylists();
+                logger.info("Bibliothèque réconciliée avec la base après le scan (" + tracks.size() + " morceaux).");
+            }
+            AppServices.startLibraryWatcher(library);
+        }, error -> AlertManager.showErrorWithException("Erreur de chargement",
+            "Impossible de synchroniser la bibliothèque avec le dossier de musiques", error));
+        return true;
+    }
+
+    /**
+     * Retire des playlists restaurées depuis l'instantané les morceaux que le scan a supprimés de la bibliothèque.
+     */
+    private void pruneRestoredPlaylists() {
+        for (Playlist playlist : PlaylistManager.getInstance().getPlaylists()) {
+            if (playlist.hasPendingContent()) continue; // sera lue en base à l'ouverture
+            for (Track track : playlist.getTracks()) { // copie : retirer pendant le parcours est sûr
+                if (library.get(track.getTrackId()) != track) {
+                    playlist.removeTrack(track);
+                }
+            }
+        }
+    }
+
+    /**
+     * Charge les playlists depuis la base de données.
+     * La lecture s'exécute en arrière-plan ; les playlists sont ajoutées au PlaylistManager
+     * sur le thread JavaFX, qui notifie les vues déjà affichées.
+     * Avec {@link Config#LAZY_PLAYLIST_LOADING}, seuls les noms sont lus : les morceaux
+     * d'une playlist sont lus à sa première ouverture.
+     */
+    private void initializePlaylists() {
+        PlaylistManager playlistManager = PlaylistManager.getInstance();
+        DbManagerSearch dbSearch = AppServices.getDbSearch();
+        AsyncDao<DbManagerSearch> asyncSearch = new AsyncDao<>(dbSearch);
+
+        if (Config.LAZY_PLAYLIST_LOADING) {
+            AsyncDao.onFxThread(asyncSearch.call(DbManagerSearch::getAllPlaylistTitles), playlistTitles -> {
+                logger.info("Playlists (chargement différé) = " + playlistTitles);
+                for (String playlistTitle : playlistTitles) {
+                    playlistManager.addPlaylist(new Playlist(playlistTitle, () -> dbSearch.getTracksForPlaylist(playlistTitle)));
+                }
+            }, error -> AlertManager.showErrorWithException("Erreur de chargement",
+                "Impossible de charger les playlists", error));
+            return;
+        }
+
+        AsyncDao.onFxThread(asyncSearch.call(DbManagerSearch::getAllPlaylistsWithTracks), playlistsWithTracks -> {
+            logger.info("playlist = " + playlistsWithTracks.keySet());
+
+            for (Map.Entry<String, List<Track>> entry : playlistsWithTracks.entrySet()) {
+                String playlistTitle = entry.getKey();
+                List<Track> playlistTracks = entry.getValue();
+                logger.info("[DEBUG] Chargement playlist: " + playlistTitle + " - " + playlistTracks.size() + " tracks");
+
+                Playlist playlist = new Playlist(playlistTitle);
+                for (Track track : playlistTracks) {
+                    playlist.addTrack(track);
+                }
+                playlistManager.addPlaylist(playlist);
+            }
+        }, error -> AlertManager.showErrorWithException("Erreur de chargement",
+            "Impossible de charger les playlists", error));
     }
 
     /**
@@ -18,6 +18,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class LoggerConfig {
     
     private static boolean isConfigured = false;
+    private static FileHandler fileHandler; // journal log/app.log, null tant que setup() n'a pas réussi
     private static AtomicBoolean fatalErrorOccurred = new AtomicBoolean(false);
     
     /**
@@ -55,7 +56,7 @@ public class LoggerConfig {
             }
             
             // Configurer le gestionnaire de fichiers pour écraser le fichier au lieu d'ajouter
-            FileHandler fileHandler = new FileHandler("log/app.log", false); // Changer 'true' en 'false'
+            fileHandler = new FileHandler("log/app.log", false); // Changer 'true' en 'false'
             fileHandler.setFormatter(new SimpleFormatter());
             fileHandler.setLevel(Level.ALL);
             
@@ -107,6 +108,15 @@ public class LoggerConfig {
         return Logger.getLogger(clazz.getName());
     }
     
+    /**
+     * Retourne le gestionnaire du fichier log/app.log, pour les journaux qui ne doivent pas aller en console.
+     *
+     * @return Le gestionnaire de fichier, ou null si la journalisation n'est pas configurée
+     */
+    public static Handler getFileHandler() {
+        return fileHandler;
+    }
+
     /**
      * Définit un gestionnaire d'erreurs critiques personnalisé.
      * 
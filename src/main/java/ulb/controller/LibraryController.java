@@ -1,20 +1,34 @@
 package ulb.controller;
 
 
+import ulb.Config;
+import ulb.dao.DbManagerSearch;
 import ulb.model.Track;
 import ulb.model.TrackLibrary;
+import ulb.services.AppServices;
+import ulb.services.AsyncDao;
 import ulb.view.LibraryViewController;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The {@code LibraryController} controls the view of the library of the user. It listens to user actions from the
  * The controller retrieves the list of tracks from the {@link MainModel} and updates the view
  * accordingly.
+ * Tracks are read from the database one page at a time, sorted by title, as the user scrolls.
+ * Tracks added to or removed from the library afterwards (e.g. by the music folder watcher) are
+ * reflected in the view as they are notified.
  */
-public class LibraryController extends PageController {
+public class LibraryController extends PageController implements TrackLibrary.TrackLibraryObserver {
 
     /** The view controller associated with this controller. */
     private LibraryViewController viewController;
     private TrackLibrary tracksLibrary;
+    /** Pages of the library, read in the background. */
+    private final TrackPager pager;
+    /** True while a page is being read, so that scroll events do not request it twice. */
+    private boolean loadingPage = false;
 
     /**
      * Constructs a new {@code LibraryController} and start observing the provided
@@ -27,7 +41,53 @@ public class LibraryController extends PageController {
         viewController = controller;
         viewController.setController(this);
         this.tracksLibrary = library;
-        this.viewController.setTracks(tracksLibrary.getTracks());
+        DbManagerSearch dbSearch = AppServices.getDbSearch();
+        this.pager = new TrackPager(dbSearch::getTracksPage, Config.TRACK_PAGE_SIZE);
+        this.viewController.setTracks(List.of());
+        this.tracksLibrary.addObserver(this);
+        loadNextPage();
+    }
+
+    /**
+     * Shows a track added to the library if its place is within the pages already read;
+     * otherwise it will come with its page.
+     */
+    @Override
+    public void onAddTrack(Track t) {
+        if (pager.hasPaged(t)) {
+            viewController.insertTrack(t);
+        }
+    }
+
+    @Override
+    public void onRemoveTrack(Track t) {
+        viewController.removeTrack(t);
+    }
+
+    /**
+     * Reads the next page of the library in the background and appends it to the view.
+     * Called by the view when the user scrolls near the end of the list.
+     */
+    public void loadNextPage() {
+        if (loadingPage || !pager.hasMore()) return;
+        loadingPage = true;
+        AsyncDao.onFxThread(AsyncDao.supply(pager::nextPage), page -> {
+            loadingPage = false;
+            viewController.addTracks(toLibraryTracks(page));
+        }, error -> loadingPage = false);
+    }
+
+    /**
+     * Replaces the tracks read from the database by the instances held in the library,
+     * so that edits made from the view are observed by the library.
+     */
+    private List<Track> toLibraryTracks(List<Track> page) {
+        List<Track> tracks = new ArrayList<>(page.size());
+        for (Track track : page) {
+            Track libraryTrack = tracksLibrary.get(track.getTrackId());
+            tracks.add(libraryTrack != null ? libraryTrack : track);
+        }
+        return tracks;
     }
 
     public TrackController getTrackFrontController(Track t){
@@ -162,6 +162,7 @@ public class MainController {
         primaryStage.setTitle("Music Player");
         primaryStage.setScene(scene);
         primaryStage.setOnCloseRequest(event -> {
+            AppServices.close(); // enregistre les modifications en attente et ferme la base
             Platform.exit();
             System.exit(0);
         });
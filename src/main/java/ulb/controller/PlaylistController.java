@@ -8,6 +8,7 @@ import ulb.model.Playlist;
 import ulb.model.PlaylistManager; 
 import ulb.model.PlaylistObserver;
 import ulb.model.Track;
+import ulb.services.AsyncDao;
 import ulb.view.PlaylistViewController;
 import ulb.view.utils.AlertManager;
 import java.util.logging.Logger;
@@ -24,6 +25,8 @@ public class PlaylistController extends PageController implements PlaylistViewCo
     private final PlaylistViewController playlistView;
     /** Gestionnaire d'insertion/édition en base de données (final, injecté) */
     private final DbManagerInsert dbManagerInsert;
+    /** Façade asynchrone sur le gestionnaire d'insertion : les écritures ne bloquent pas le thread JavaFX */
+    private final AsyncDao<DbManagerInsert> asyncInsert;
     /** Contrôleur du lecteur audio (final, injecté) */
     private final AudioPlayerController playerController;
     /** Gestionnaire des playlists (injecté) */
@@ -64,6 +67,7 @@ public class PlaylistController extends PageController implements PlaylistViewCo
 
         this.playlistView = viewController;
         this.dbManagerInsert = dbManagerInsert;
+        this.asyncInsert = new AsyncDao<>(dbManagerInsert);
         this.playerController = playerController;
         this.playlistManager = playlistManager;
         this.playlistView.setObserver(this);
@@ -120,10 +124,30 @@ public class PlaylistController extends PageController implements PlaylistViewCo
         this.playlist = playlist;
         if (this.playlist != null) {
             this.playlist.addObserver(this);
+            if (this.playlist.hasPendingContent()) {
+                loadPendingContent(this.playlist);
+            }
         }
         playlistView.setPlayList(this.playlist);
     }
 
+    /**
+     * Lit en arrière-plan les morceaux d'une playlist chargée en différé,
+     * puis les ajoute et rafraîchit la vue si la playlist est toujours affichée.
+     * @param pending Playlist dont les morceaux n'ont pas encore été lus
+     */
+    private void loadPendingContent(Playlist pending) {
+        AsyncDao.onFxThread(AsyncDao.supply(pending.takePendingContent()), tracks -> {
+            for (Track track : tracks) {
+                pending.addTrack(track);
+            }
+            if (pending == this.playlist) {
+                playlistView.setPlayList(pending);
+            }
+        }, error -> AlertManager.showErrorWithException("Erreur de chargement",
+            "Impossible de charger les morceaux de la playlist '" + pending.getTitle() + "'", error));
+    }
+
     /**
      * Retourne la playlist courante.
      * @return Playlist sélectionnée
@@ -257,16 +281,18 @@ public class PlaylistController extends PageController implements PlaylistViewCo
         if (playlist != null && track != null) {
             if (!playlist.getTracks().contains(track)) {
                 playlist.addTrack(track); // Add to in-memory list first
-                // Then attempt to save to DB
-                if (!dbManagerInsert.addTrackToPlaylist(this.playlist.getTitle(), track.getTitle())) {
-                    logger.log(Level.SEVERE, "Échec de l\'ajout du morceau '" + track.getTitle() + "' à la playlist '" + this.playlist.getTitle() + "' en DB.");
-                    AlertManager.showError("Erreur Base de Données", "Impossible d\'ajouter le morceau '" + track.getTitle() + "' à la playlist '" + this.playlist.getTitle() + "' en base de données.");
-                    // Optionally, revert in-memory add:
-                    // playlist.removeTrack(track);
-                    // Or throw new RuntimeException(...)
-                } else {
-                    logger.log(Level.INFO, "Morceau '" + track.getTitle() + "' ajouté à la playlist '" + this.playlist.getTitle() + "' et sauvegardé.");
-                }
+                // Then save to DB in the background, the result is reported on the JavaFX thread
+                String playlistTitle = this.playlist.getTitle();
+                AsyncDao.onFxThread(asyncInsert.call(db -> db.addTrackToPlaylist(playlistTitle, track.getTitle())), saved -> {
+                    if (!saved) {
+                        logger.log(Level.SEVERE, "Échec de l\'ajout du morceau '" + track.getTitle() + "' à la playlist '" + playlistTitle + "' en DB.");
+                        AlertManager.showError("Erreur Base de Données", "Impossible d\'ajouter le morceau '" + track.getTitle() + "' à la playlist '" + playlistTitle + "' en base de données.");
+                        // Optionally, revert in-memory add:
+                        // playlist.removeTrack(track);
+                    } else {
+                        logger.log(Level.INFO, "Morceau '" + track.getTitle() + "' ajouté à la playlist '" + playlistTitle + "' et sauvegardé.");
+                    }
+                });
             } else {
                 logger.log(Level.INFO, "Le morceau '" + track.getTitle() + "' est déjà dans la playlist '" + this.playlist.getTitle() + "'.");
             }
@@ -377,9 +403,32 @@ public class PlaylistController extends PageController implements PlaylistViewCo
         logger.info("View Observer: Reordering track from index " + fromIndex + " to " + toIndex);
         if (playlist != null) {
             playlist.reorderTrack(fromIndex, toIndex);
-            playlistView.setPlayList(playlist);
+            playlistView.moveTrackRow(fromIndex, toIndex);
+            saveTrackPosition(toIndex);
         } else {
             logger.log(Level.SEVERE, "Cannot reorder tracks: Playlist is null.");
         }
     }
+
+    /**
+     * Enregistre en arrière-plan la position du morceau placé à l'index donné.
+     * Seule sa ligne est réécrite en base, à partir de ses nouveaux voisins.
+     * @param index Index du morceau déplacé dans la playlist courante
+     */
+    private void saveTrackPosition(int index) {
+        List<Track> tracks = playlist.getTracks();
+        if (index < 0 || index >= tracks.size()) {
+            return;
+        }
+        String playlistTitle = playlist.getTitle();
+        String trackTitle = tracks.get(index).getTitle();
+        String previousTitle = index > 0 ? tracks.get(index - 1).getTitle() : null;
+        String nextTitle = index < tracks.size() - 1 ? tracks.get(index + 1).getTitle() : null;
+        AsyncDao.onFxThread(asyncInsert.call(db -> db.moveTrackInPlaylist(playlistTitle, trackTitle, previousTitle, nextTitle)), saved -> {
+            if (!saved) {
+                logger.log(Level.SEVERE, "Échec de l'enregistrement de la position du morceau '" + trackTitle + "' dans la playlist '" + playlistTitle + "'.");
+                AlertManager.showError("Erreur Base de Données", "Impossible d'enregistrer le nouvel ordre de la playlist '" + playlistTitle + "'.");
+            }
+        });
+    }
 }
\ No newline at end of file
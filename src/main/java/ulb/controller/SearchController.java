@@ -1,16 +1,22 @@
 package ulb.controller;
 
-import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import ulb.Config;
 import ulb.dao.DbManagerSearch;
 import ulb.services.AppServices;
+import ulb.services.AsyncDao;
 import ulb.view.SearchViewController;
-import ulb.model.*;
 
 public class SearchController extends PageController implements SearchViewController.SearchObserver {
+    private static final Logger logger = Logger.getLogger(SearchController.class.getName());
     private DbManagerSearch searchManager;
     private SearchViewController searchViewController;
+    // Numéro de la dernière recherche lancée : les résultats d'une recherche dépassée sont ignorés
+    private final AtomicLong latestSearch = new AtomicLong();
+    // Pages de résultats de la recherche affichée, null tant qu'aucune recherche n'a abouti
+    private TrackPager resultPager;
+    private boolean loadingPage = false;
 
     public SearchController(SearchViewController viewController, MainController mainController) {
         super(mainController);
@@ -21,37 +27,49 @@ public class SearchController extends PageController implements SearchViewContro
     }
 
     // Méthode de recherche qui met à jour les résultats
+    // La recherche s'exécute en arrière-plan, seule la première page est lue puis affichée sur le thread JavaFX
+    // Les morceaux modifiés sont enregistrés en continu par le WriteBehindSyncer : aucune synchronisation ici
     public void onSearch(String query, SearchType type) {
-        System.out.println("search controller onSearch");
+        long searchId = latestSearch.incrementAndGet();
+        TrackPager pager = createPager(query, type);
 
-        // sync db with changes
-        // should be the responsibility of db code to decide when is a sync necessary
-        AppServices.getDbUpdate().syncTracks();
+        AsyncDao.onFxThread(AsyncDao.supply(pager::nextPage), results -> {
+            if (searchId != latestSearch.get()) return; // une recherche plus récente est en cours
+            logger.fine(() -> "🔍 " + results.size() + " résultats pour '" + query + "' (première page)");
+            resultPager = pager;
+            loadingPage = false;
+            searchViewController.setResult(results);
+        });
+    }
 
-        List<Track> results;
-        Map<SearchType, Function<String, List<Track>>> searchMap = Map.of(
-            SearchType.TITLE, searchManager::searchTracksByTitle,
-            SearchType.ALBUM, searchManager::searchTracksByAlbum,
-            SearchType.ARTIST, searchManager::searchTracksByArtist
-        );
+    // Page de résultats suivante, demandée par la vue au défilement
+    @Override
+    public void onLoadMore() {
+        TrackPager pager = resultPager;
+        if (pager == null || loadingPage || !pager.hasMore()) return;
+        loadingPage = true;
+        AsyncDao.onFxThread(AsyncDao.supply(pager::nextPage), results -> {
+            if (pager != resultPager) return; // une nouvelle recherche a remplacé ces résultats
+            loadingPage = false;
+            searchViewController.appendResult(results);
+        }, error -> loadingPage = false);
+    }
 
+    private TrackPager createPager(String query, SearchType type) {
+        int pageSize = Config.TRACK_PAGE_SIZE;
         switch(type){
-            case TITLE:
             case ALBUM:
+                return new TrackPager((after, limit) -> searchManager.searchTracksByAlbumPage(query, after, limit), pageSize);
             case ARTIST:
-                results = searchMap.get(type).apply(query);
-                break;
+                return new TrackPager((after, limit) -> searchManager.searchTracksByArtistPage(query, after, limit), pageSize);
             case ALL:
-                results = searchManager.searchTracksByTitle(query);
-                results.addAll(searchManager.searchTracksByAlbum(query));
-                results.addAll(searchManager.searchTracksByArtist(query));
-                break;
+                // une seule requête plein texte, classée par pertinence, sur titre, artiste, album et genre
+                // le classement n'offre pas de clé de pagination : les résultats (bornés) sont découpés en mémoire
+                return TrackPager.ofList(() -> searchManager.searchTracksFullText(query), pageSize);
+            case TITLE:
             case PLAYLIST:
             default:
-                results = searchManager.searchTracksByTitle(query);
-
+                return new TrackPager((after, limit) -> searchManager.searchTracksByTitlePage(query, after, limit), pageSize);
         }
-        System.out.println("found " + results.size() + " results");
-        searchViewController.setResult(results);
     }
 }
@@ -0,0 +1,97 @@
+package ulb.controller;
+
+import ulb.model.Track;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Parcourt une liste de morceaux page par page, à la demande de la vue.
+ * La source reçoit le dernier morceau de la page précédente (pagination par clé),
+ * ce qui permet d'afficher la première page immédiatement, quelle que soit la taille de la bibliothèque.
+ */
+public class TrackPager {
+
+    /**
+     * Source d'une page de morceaux.
+     */
+    @FunctionalInterface
+    public interface PageSource {
+        /**
+         * @param after Dernier morceau de la page précédente, ou null pour la première page.
+         * @param limit Nombre maximal de morceaux à renvoyer.
+         * @return Les morceaux suivants ; moins de limit signifie que la source est épuisée.
+         */
+        List<Track> fetch(Track after, int limit);
+    }
+
+    private final PageSource source;
+    private final int pageSize;
+    private Track last = null;         // dernier morceau renvoyé
+    private boolean exhausted = false; // plus aucune page à lire
+
+    public TrackPager(PageSource source, int pageSize) {
+        this.source = source;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Crée un pager sur une liste déjà calculée (par exemple des résultats classés par pertinence),
+     * lue une seule fois à la première page puis découpée en mémoire.
+     * @param results Fournisseur de la liste complète.
+     * @param pageSize Nombre de morceaux par page.
+     */
+    public static TrackPager ofList(Supplier<List<Track>> results, int pageSize) {
+        return new TrackPager(new PageSource() {
+            private List<Track> tracks; // résultats lus à la première page
+            private int offset = 0;
+
+            @Override
+            public List<Track> fetch(Track after, int limit) {
+                if (tracks == null) {
+                    tracks = results.get();
+                }
+                int from = Math.min(offset, tracks.size());
+                int to = Math.min(from + limit, tracks.size());
+                offset = to;
+                return tracks.subList(from, to);
+            }
+        }, pageSize);
+    }
+
+    /**
+     * Lit la page suivante.
+     * @return Les morceaux de la page, ou une liste vide si toutes les pages ont été lues.
+     */
+    public synchronized List<Track> nextPage() {
+        if (exhausted) return List.of();
+        List<Track> page = source.fetch(last, pageSize);
+        if (page.size() < pageSize) {
+            exhausted = true;
+        }
+        if (!page.isEmpty()) {
+            last = page.get(page.size() - 1);
+        }
+        return page;
+    }
+
+    /**
+     * Indique si un morceau fait partie des pages déjà lues, selon l'ordre de la source (titre puis ID) :
+     * un morceau ajouté après coup doit alors être affiché directement, la pagination ne le relira pas.
+     * @param track Morceau ajouté à la bibliothèque.
+     * @return true si toutes les pages ont été lues ou si le morceau précède le dernier morceau lu.
+     */
+    public synchronized boolean hasPaged(Track track) {
+        if (exhausted) return true;
+        if (last == null) return false;
+        int order = track.getTitle().compareTo(last.getTitle());
+        return order < 0 || (order == 0 && track.getTrackId() <= last.getTrackId());
+    }
+
+    /**
+     * @return true s'il reste peut-être des pages à lire.
+     */
+    public synchronized boolean hasMore() {
+        return !exhausted;
+    }
+}
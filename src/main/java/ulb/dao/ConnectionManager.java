@@ -0,0 +1,153 @@
+package ulb.dao;
+
+import ulb.model.TrackLibrary;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Répartit l'accès à la base entre plusieurs lecteurs et un unique écrivain.
+ * <p>
+ * ➤ Les lectures empruntent un gestionnaire de recherche parmi un pool de connexions
+ *   en lecture seule : en mode WAL, elles s'exécutent en parallèle sans attendre l'écrivain.
+ * ➤ Les écritures sont sérialisées sur un thread dédié, propriétaire de la connexion principale :
+ *   SQLite n'accepte qu'un écrivain à la fois, autant ne jamais se le disputer.
+ * </p>
+ */
+public class ConnectionManager {
+    private static final Logger logger = Logger.getLogger(ConnectionManager.class.getName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final BlockingQueue<DbManagerSearch> readers; // gestionnaires de recherche disponibles
+    private final List<DbManagerSearch> allReaders;        // tous les lecteurs, pour la fermeture
+    private final ExecutorService writer;
+    private volatile Thread writerThread;
+
+    /**
+     * @param readerConnections Connexions en lecture seule formant le pool de lecteurs (au moins une).
+     * @param idCache Dictionnaire d'IDs partagé avec les gestionnaires d'écriture.
+     */
+    public ConnectionManager(List<Connection> readerConnections, IdCache idCache) {
+        if (readerConnections.isEmpty()) {
+            throw new IllegalArgumentException("Le pool de lecteurs doit contenir au moins une connexion.");
+        }
+        this.allReaders = readerConnections.stream()
+            .map(conn -> new DbManagerSearch(conn, idCache))
+            .toList();
+        this.readers = new ArrayBlockingQueue<>(allReaders.size(), false, allReaders);
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "db-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
+        logger.info("✅ Pool de " + allReaders.size() + " lecteur(s) et écrivain unique prêts.");
+    }
+
+    /**
+     * Exécute une lecture sur un gestionnaire emprunté au pool, en attendant qu'un lecteur se libère.
+     * @param query Lecture à exécuter.
+     * @return Le résultat de la lecture.
+     */
+    public <T> T read(Function<DbManagerSearch, T> query) {
+        DbManagerSearch reader;
+        try {
+            reader = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lecture interrompue en attente d'une connexion", e);
+        }
+        try {
+            return query.apply(reader);
+        } finally {
+            readers.offer(reader);
+        }
+    }
+
+    /**
+     * Soumet une écriture au thread écrivain sans attendre son résultat.
+     * @param task Écriture à exécuter.
+     * @return Le futur portant le résultat de l'écriture.
+     */
+    public <T> Future<T> submitWrite(Callable<T> task) {
+        return writer.submit(task);
+    }
+
+    /**
+     * Exécute une écriture sur le thread écrivain et attend son résultat.
+     * Appelée depuis le thread écrivain lui-même (écriture imbriquée), la tâche s'exécute directement.
+     * @param task Écriture à exécuter.
+     * @return Le résultat de l'écriture.
+     */
+    public <T> T write(Callable<T> task) {
+        try {
+            if (Thread.currentThread() == writerThread) {
+                return task.call();
+            }
+            return writer.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Écriture interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException("Échec de l'écriture", e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Échec de l'écriture", e);
+        }
+    }
+
+    /**
+     * Branche la bibliothèque sur tous les lecteurs, qui renvoient alors ses instances de morceaux.
+     * @param trackLibrary Bibliothèque chargée.
+     */
+    public void setTrackLibrary(TrackLibrary trackLibrary) {
+        for (DbManagerSearch reader : allReaders) {
+            reader.setTrackLibrary(trackLibrary);
+        }
+    }
+
+    /**
+     * @return Le nombre de connexions du pool de lecteurs.
+     */
+    public int getReaderCount() {
+        return allReaders.size();
+    }
+
+    /**
+     * Termine les écritures en attente puis ferme les connexions de lecture.
+     * La connexion de l'écrivain reste la propriété du DbInitializer.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("⚠️ Des écritures n'ont pas pu se terminer avant la fermeture.");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (DbManagerSearch reader : allReaders) {
+            try {
+                reader.closeConnection();
+            } catch (Exception e) {
+                logger.warning("Erreur lors de la fermeture d'un lecteur : " + e.getMessage());
+            }
+        }
+        logger.info("🔒 Pool de connexions fermé.");
+    }
+}
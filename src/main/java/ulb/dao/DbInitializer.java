@@ -20,12 +20,13 @@ import java.util.logging.Logger;
 public class DbInitializer {
 
     private final String DbPath = String.valueOf(Config.getFullPathFromRelative(Config.DATABASE_PATH));
-    private final SQLLoader createSqlLoader = new SQLLoader(Config.CREATE_TABLES_SQL_FILE); // Chargeur SQL pour les requêtes de creation des tables 
+    private final SQLCatalog sqlCatalog = SQLCatalog.getInstance(); // Catalogue SQL partagé (création des tables, migrations, requêtes DAO)
     private final Connection conn;
     public static final Logger logger = Logger.getLogger(DbInitializer.class.getName());
 
     /**
-     * Initialise la base de données et crée les tables si elles n'existent pas.
+     * Initialise la base de données, crée les tables si elles n'existent pas,
+     * applique les migrations du schéma en attente puis valide les requêtes du catalogue SQL.
      */
     public DbInitializer() throws DatabaseInitializationException {
         try {
@@ -44,18 +45,58 @@ public class DbInitializer {
                 throw new SQLException("Connexion JDBC retournée null.");
             }
             logger.info("✅ Connexion établie avec la base de données.");
+            applyStorageProfile(conn, Config.getStorageProfile());
             if (!tablesExist()) {
                 createTables();
                 logger.info("✅ Tables et triggers créés avec succès !");
             } else {
                 logger.info("ℹ️ Les tables existent déjà, aucune création nécessaire.");
             }
+            if (!searchIndexExists()) {
+                createSearchIndex();
+                logger.info("✅ Index de recherche plein texte créé.");
+            }
+            new SchemaMigrator(conn).migrate();
+            if (Config.VALIDATE_SQL_CATALOG) {
+                sqlCatalog.validate(conn); // une requête incompatible avec le schéma arrête le démarrage
+            }
         } catch (SQLException e) {
             logger.severe("❌ Erreur d'initialisation de la base de données : " + e.getMessage());
             throw new DatabaseInitializationException("Échec de connexion à la base de données", e);
         }
     }
 
+    /**
+     * Ouvre une connexion supplémentaire en lecture seule sur la même base.
+     * En mode WAL, chaque lecture y voit un instantané cohérent sans être bloquée par l'écrivain.
+     * @return Une nouvelle connexion configurée avec le profil de stockage courant.
+     * @throws SQLException si la connexion ne peut pas être ouverte.
+     */
+    public Connection openReadOnlyConnection() throws SQLException {
+        Connection reader = DriverManager.getConnection("jdbc:sqlite:" + DbPath);
+        applyStorageProfile(reader, Config.getStorageProfile());
+        try (Statement stmt = reader.createStatement()) {
+            stmt.execute("PRAGMA query_only = ON");
+        }
+        return reader;
+    }
+
+    /**
+     * Applique un profil de stockage (journal WAL, synchronisation, cache, mmap...) à une connexion.
+     * Les PRAGMA sont propres à chaque connexion, sauf journal_mode=WAL qui est persistant.
+     * @param connection Connexion à configurer.
+     * @param profile Profil de stockage à appliquer.
+     * @throws SQLException si un PRAGMA est refusé.
+     */
+    public static void applyStorageProfile(Connection connection, Config.StorageProfile profile) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            for (String pragma : profile.getPragmas()) {
+                stmt.execute(pragma);
+            }
+        }
+        logger.info("⚙️ Profil de stockage appliqué : " + profile);
+    }
+
     /**
      * Vérifie si la base de données existe physiquement sur le disque.
      * @return true si le fichier existe, sinon false.
@@ -70,7 +111,7 @@ public class DbInitializer {
      * @return true si une table est trouvée, sinon false.
      */
     private boolean tablesExist() {
-        String sql = createSqlLoader.getQuery("tablesExist");
+        String sql = sqlCatalog.getQuery("tablesExist");
 
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -86,7 +127,7 @@ public class DbInitializer {
      * @throws SQLException si une erreur se produit lors de l'exécution SQL.
      */
     private void createTables() throws SQLException {
-        String sql = createSqlLoader.getQuery("createAllTablesAndTriggers");
+        String sql = sqlCatalog.getQuery("createAllTablesAndTriggers");
 
         try (Statement stmt = conn.createStatement()) {
             stmt.executeUpdate(sql);
@@ -96,6 +137,37 @@ public class DbInitializer {
         }
     }
 
+    /**
+     * Vérifie si l'index plein texte des morceaux existe.
+     * @return true si la table virtuelle TrackSearch est présente, sinon false.
+     */
+    private boolean searchIndexExists() {
+        String sql = sqlCatalog.getQuery("searchIndexExists");
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next();
+        } catch (SQLException e) {
+            logger.info("❌ Erreur lors de la vérification de l'index de recherche : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Crée l'index plein texte FTS5, ses triggers de maintenance, et y indexe les morceaux existants.
+     * @throws SQLException si une erreur se produit lors de l'exécution SQL.
+     */
+    private void createSearchIndex() throws SQLException {
+        String sql = sqlCatalog.getQuery("createSearchIndex");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        } catch (SQLException e) {
+            logger.severe("❌ Erreur lors de la création de l'index de recherche : " + e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Fournit la connexion à la base de données.
      * @return objet Connection actif.
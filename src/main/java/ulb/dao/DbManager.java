@@ -19,23 +19,40 @@ import java.util.logging.Logger;
  */
 public abstract class DbManager {
     protected Connection connection; // Connexion active à la base de données
-    protected final SQLLoader commonSqlLoader = new SQLLoader(Config.COMMON_QUERIES_SQL_FILE); // Chargeur SQL pour les requêtes génériques (lookup d'ID, vérification d'existence, etc.)
+    protected static final SQLCatalog sqlCatalog = SQLCatalog.getInstance(); // Requêtes SQL de tous les gestionnaires, chargées une fois pour le processus
     private static final Logger logger = Logger.getLogger(DbManager.class.getName());
-    protected TrackLibrary trackLibrary;// tmp, should be moved
+    protected volatile TrackLibrary trackLibrary;// tmp, should be moved
     protected ChangeTracker changes; // same
+    protected final StatementCache statementCache; // Requêtes préparées réutilisées, indexées par tag SQLLoader
+    protected final IdCache idCache; // Dictionnaire nom -> clé primaire partagé entre les gestionnaires
 
     /**
      * Constructeur qui initialise la connexion à la base de données.
-     * @param dbInitializer Instance de DbInitializer pour récupérer la connexion.
+     * @param connection Connexion active à la base de données.
      */
     public DbManager(Connection connection) {
+        this(connection, null);
+    }
+
+    /**
+     * Constructeur partageant un dictionnaire d'IDs avec les autres gestionnaires de la connexion.
+     * @param connection Connexion active à la base de données.
+     * @param idCache Dictionnaire nom -> ID partagé, ou null pour en créer un propre à ce gestionnaire.
+     */
+    public DbManager(Connection connection, IdCache idCache) {
         this.connection = connection;
+        this.statementCache = new StatementCache(connection, Config.STATEMENT_CACHE_SIZE);
+        this.idCache = idCache != null ? idCache : new IdCache();
     }
 
     public void setChanges(ChangeTracker changes) {
         this.changes = changes;
     }
 
+    /**
+     * Branche la bibliothèque : ses morceaux servent de référence (identity map) aux lectures du gestionnaire.
+     * @param trackLibrary Bibliothèque chargée.
+     */
     public void setTrackLibrary(TrackLibrary trackLibrary) {
         this.trackLibrary = trackLibrary;
     }
@@ -46,7 +63,7 @@ public abstract class DbManager {
      * @return L'ID du morceau si trouvé, sinon -1.
      */
     public int getTrackId(String title) {
-        return getId(commonSqlLoader.getQuery("getTrackIdByTitle"), title);
+        return getCachedId(IdCache.Entity.TRACK, title);
     }
 
     /**
@@ -55,7 +72,7 @@ public abstract class DbManager {
      * @return L'ID de l'artiste si trouvé, sinon -1.
      */
     public int getArtistId(String artistName) {
-        return getId(commonSqlLoader.getQuery("getArtistIdByName"), artistName);
+        return getCachedId(IdCache.Entity.ARTIST, artistName);
     }
 
     /**
@@ -64,7 +81,7 @@ public abstract class DbManager {
      * @return L'ID de l'album si trouvé, sinon -1.
      */
     public int getAlbumId(String albumTitle) {
-        return getId(commonSqlLoader.getQuery("getAlbumIdByTitle"), albumTitle);
+        return getCachedId(IdCache.Entity.ALBUM, albumTitle);
     }
 
     /**
@@ -73,7 +90,7 @@ public abstract class DbManager {
      * @return L'ID de l'utilisateur si trouvé, sinon -1.
      */
     public int getUserId(String username) {
-        return getId(commonSqlLoader.getQuery("getUserIdByUsername"), username);
+        return getCachedId(IdCache.Entity.USER, username);
     }
 
     /**
@@ -82,7 +99,7 @@ public abstract class DbManager {
      * @return L'ID de la playlist si trouvé, sinon -1.
      */
     public int getPlaylistId(String playlistTitle) {
-        return getId(commonSqlLoader.getQuery("getPlaylistIdByName"), playlistTitle);
+        return getCachedId(IdCache.Entity.PLAYLIST, playlistTitle);
     }
 
     /**
@@ -91,18 +108,19 @@ public abstract class DbManager {
      * @return L'ID du tag si trouvé, sinon -1.
      */
     public int getTagId(String tagName) {
-        return getId(commonSqlLoader.getQuery("getTagIdByName"), tagName);
+        return getCachedId(IdCache.Entity.TAG, tagName);
     }
 
     /**
      * Méthode générique pour récupérer une clé primaire dans une table donnée.
      * Renvoie -1 si l'élément n'existe pas dans la table.
-     * @param query La requête SQL pour récupérer l'ID.
+     * @param tag Le tag de la requête SQL (dans common_queries.sql) pour récupérer l'ID.
      * @param parameter La valeur à rechercher.
      * @return L'ID trouvé ou -1 si l'élément n'existe pas.
      */
-    public int getId(String query, String parameter) {
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+    public int getId(String tag, String parameter) {
+        try {
+            PreparedStatement stmt = prepare(tag);
             stmt.setString(1, parameter);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -110,17 +128,98 @@ public abstract class DbManager {
                 }
             }
         } catch (SQLException e) {
-            logger.warning("⚠️ Échec lors de l'exécution de la requête '" + query + "' avec paramètre : " + parameter + " | " + e.getMessage());
+            statementCache.evict(tag);
+            logger.warning("⚠️ Échec lors de l'exécution de la requête '" + tag + "' avec paramètre : " + parameter + " | " + e.getMessage());
+
+        }
+        return -1;
+    }
 
+    /**
+     * Lit le compteur de modifications de la base, incrémenté par trigger à chaque écriture
+     * d'un morceau, d'une playlist ou d'une table liée (migration 5).
+     * @return La valeur du compteur, ou -1 si elle n'a pas pu être lue.
+     */
+    public long getChangeCounter() {
+        try (ResultSet rs = prepare("getChangeCounter").executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            statementCache.evict("getChangeCounter");
+            logger.warning("⚠️ Échec de la lecture du compteur de modifications : " + e.getMessage());
         }
         return -1;
     }
 
+    /**
+     * Récupère l'ID d'une entité depuis le dictionnaire en mémoire, ou depuis la base
+     * s'il y est inconnu ; un ID trouvé en base est alors mémorisé.
+     * @param entity Le type d'entité recherché.
+     * @param name Le nom (ou titre) de l'entité.
+     * @return L'ID trouvé ou -1 si l'élément n'existe pas.
+     */
+    protected int getCachedId(IdCache.Entity entity, String name) {
+        Integer cached = idCache.get(entity, name);
+        if (cached != null) {
+            return cached;
+        }
+        int id = getId(entity.getLookupTag(), name);
+        idCache.put(entity, name, id);
+        return id;
+    }
+
+    /**
+     * Précharge le dictionnaire d'IDs avec toutes les entités présentes en base.
+     * Appelé une fois au démarrage, pour que l'import d'un dossier ne retourne pas
+     * en base pour les artistes, albums et tags déjà connus.
+     */
+    public void warmUpIdCache() {
+        for (IdCache.Entity entity : IdCache.Entity.values()) {
+            try (ResultSet rs = prepare(entity.getWarmUpTag()).executeQuery()) {
+                while (rs.next()) {
+                    idCache.put(entity, rs.getString(1), rs.getInt(2));
+                }
+            } catch (SQLException e) {
+                statementCache.evict(entity.getWarmUpTag());
+                logger.warning("⚠️ Échec du préchargement des IDs (" + entity + ") : " + e.getMessage());
+            }
+        }
+        logger.info("Dictionnaire d'IDs préchargé : " + idCache.size(IdCache.Entity.TRACK) + " morceau(x), "
+            + idCache.size(IdCache.Entity.ARTIST) + " artiste(s), " + idCache.size(IdCache.Entity.ALBUM) + " album(s).");
+    }
+
+    /**
+     * @return Le dictionnaire nom -> ID utilisé par ce gestionnaire.
+     */
+    public IdCache getIdCache() {
+        return idCache;
+    }
+
+    /**
+     * Retourne la requête préparée correspondant au tag, depuis le cache de la connexion.
+     * La requête ne doit pas être fermée par l'appelant : seul son ResultSet doit l'être.
+     * @param tag Le tag de la requête dans le catalogue SQL.
+     * @return La requête préparée, paramètres effacés.
+     * @throws SQLException si la préparation de la requête échoue.
+     */
+    protected PreparedStatement prepare(String tag) throws SQLException {
+        return statementCache.prepare(tag, sqlCatalog.getQuery(tag));
+    }
+
+    /**
+     * @return Le cache de requêtes préparées de ce gestionnaire (compteurs hit/miss).
+     */
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
     /**
      * Ferme la connexion à la base de données.
      */
     public void closeConnection() throws DbManagerException {
         try {
+            statementCache.close();
             if (connection != null) {
                 connection.close();
                 logger.info("Connexion fermée.");
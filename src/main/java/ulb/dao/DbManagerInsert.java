@@ -1,18 +1,55 @@
 package ulb.dao;
 import ulb.model.*;
 import ulb.Config;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
 import java.sql.Connection; 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Classe spécialisée dans l'insertion de données dans la base de données.
  * Hérite de `DbManager` pour profiter des méthodes utilitaires de gestion des clés primaires.
  */
 public class DbManagerInsert extends DbManager {
-    private final SQLLoader insertSqlLoader = new SQLLoader(Config.INSERT_QUERIES_SQL_FILE);// Chargeur SQL pour les requêtes d'insertion dans la base de données
+    private static final Logger logger = Logger.getLogger(DbManagerInsert.class.getName());
+
+    /**
+     * Résultat d'une insertion groupée : les morceaux insérés et, pour chaque
+     * morceau refusé, la raison de l'échec.
+     */
+    public static class BatchResult {
+        private final List<Track> inserted = new ArrayList<>();
+        private final Map<Track, String> failures = new LinkedHashMap<>();
+        private boolean rolledBack;
+
+        public List<Track> getInserted() {
+            return inserted;
+        }
+
+        public Map<Track, String> getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return true si tout le lot a été annulé par une erreur SQL : ses morceaux pourront être réessayés.
+         */
+        public boolean isRolledBack() {
+            return rolledBack;
+        }
+    }
 
     /**
      * Constructeur qui initialise la connexion via `DbInitializer`.
@@ -21,15 +58,20 @@ public class DbManagerInsert extends DbManager {
         super(connection);
     }
 
+    /**
+     * Constructeur partageant le dictionnaire d'IDs des autres gestionnaires de la connexion.
+     */
+    public DbManagerInsert(Connection connection, IdCache idCache) {
+        super(connection, idCache);
+    }
+
     /**
      * Insère un nouvel utilisateur dans la base de données s'il n'existe pas déjà.
      * @param username Nom unique de l'utilisateur.
      * @return `true` si l'insertion a réussi, sinon `false`.
      */
     public boolean insertUser(String username) {
-        if (getUserId(username) != -1) return false;
-        String query = insertSqlLoader.getQuery("insertUser");
-        return executeInsert(query, username);
+        return insertEntity(IdCache.Entity.USER, username, "insertUserReturningId", username);
     }
 
     /**
@@ -38,9 +80,7 @@ public class DbManagerInsert extends DbManager {
      * @return `true` si l'insertion a réussi, sinon `false`.
      */
     public boolean insertArtist(String artistName) {
-        if (getArtistId(artistName) != -1) return false;
-        String query = insertSqlLoader.getQuery("insertArtist");
-        return executeInsert(query, artistName);
+        return insertEntity(IdCache.Entity.ARTIST, artistName, "insertArtistReturningId", artistName);
     }
 
     /**
@@ -50,11 +90,9 @@ public class DbManagerInsert extends DbManager {
      * @return `true` si l'insertion a réussi, sinon `false`.
      */
     public boolean insertAlbum(String albumTitle, String artistName) {
-        if (getAlbumId(albumTitle) != -1) return false;
         int artistId = getArtistId(artistName);
         if (artistId == -1) return false;
-        String query = insertSqlLoader.getQuery("insertAlbum");
-        return executeInsert(query, albumTitle, artistId);
+        return insertEntity(IdCache.Entity.ALBUM, albumTitle, "insertAlbumReturningId", albumTitle, artistId);
     }
 
     /**
@@ -63,44 +101,282 @@ public class DbManagerInsert extends DbManager {
      * @return `true` si l'insertion a réussi, sinon `false`.
      */
     public boolean insertTag(String tagName) {
-        if (getTagId(tagName) != -1) return false;
-        String query = insertSqlLoader.getQuery("insertTag");
-        return executeInsert(query, tagName);
+        return insertEntity(IdCache.Entity.TAG, tagName, "insertTagReturningId", tagName);
     }
 
     /**
      * Insère un nouveau morceau dans la base de données s'il n'existe pas déjà.
-     * Vérifie et crée l'artiste, l'album et le genre musical si nécessaire.
+     * <p>
+     * L'artiste, l'album et le genre musical sont résolus par le dictionnaire d'IDs, ou créés
+     * (et leur clé lue) en une seule instruction `ON CONFLICT DO NOTHING RETURNING`.
+     * Le morceau lui-même est inséré de la même façon : un doublon (titre ou fichier),
+     * même créé à l'instant par un autre écrivain, est ignoré sans vérification préalable.
+     * </p>
      * @param track Objet `Track` contenant les informations du morceau.
      * @return `true` si l'insertion a réussi, sinon `false`.
      */
     public boolean insertTrack(Track track) {
-        if (getTrackId(track.getTitle()) != -1) return false;
+        if (idCache.get(IdCache.Entity.TRACK, track.getTitle()) != null) return false; // déjà connu, aucune requête
+
+        int artistId = resolveId(IdCache.Entity.ARTIST, track.getArtist(), "insertArtistReturningId", track.getArtist());
+        if (artistId == -1) return false;
+        int albumId = resolveId(IdCache.Entity.ALBUM, track.getAlbum(), "insertAlbumReturningId", track.getAlbum(), artistId);
+        if (albumId == -1) return false;
+        if (!insertCover(track.getCoverPath())) return false;
+
+        int trackId = insertReturningId("insertTrackReturningId", track.getTitle(), artistId, albumId, track.getYear(),
+            track.getDuration(), track.getFilePath(), track.getCoverPath(), CoverStore.hashOf(track.getCoverPath()),
+            track.getLyricsPath(), track.getKaraokePath());
+        if (trackId == -1) return false; // déjà présent ou refusé par la base
+        idCache.put(IdCache.Entity.TRACK, track.getTitle(), trackId);
+
+        if (track.getGenre() != null) {
+            int tagId = resolveId(IdCache.Entity.TAG, track.getGenre(), "insertTagReturningId", track.getGenre());
+            if (tagId != -1) {
+                executeInsert("insertTrackTag", trackId, tagId);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Insère un lot de morceaux dans une seule transaction.
+     * Les artistes, albums et genres manquants sont créés en lot au préalable, puis les
+     * morceaux et leurs tags sont insérés avec `addBatch`/`executeBatch`.
+     * Un morceau invalide (déjà présent, doublon dans le lot, métadonnées manquantes ou
+     * refusé par la base) est signalé dans le résultat sans annuler le reste du lot.
+     * Les morceaux insérés reçoivent leur ID.
+     * @param tracks Morceaux à insérer.
+     * @return Le détail des morceaux insérés et des échecs.
+     */
+    public BatchResult insertTracks(Collection<Track> tracks) {
+        BatchResult result = new BatchResult();
+        List<Track> candidates = selectNewTracks(tracks, result);
+        if (candidates.isEmpty()) return result;
+
+        boolean autoCommitStatus = false;
+        try {
+            autoCommitStatus = connection.getAutoCommit();
+            connection.setAutoCommit(false); // Start transaction
+
+            Map<String, Integer> artistIds = resolveArtists(candidates);
+            Map<String, Integer> albumIds = resolveAlbums(candidates, artistIds);
+            Map<String, Integer> tagIds = resolveTags(candidates);
+            executeBatch("insertCover", coverRows(candidates));
 
-        int artistId = getArtistId(track.getArtist());
-        if (artistId == -1) {
-            insertArtist(track.getArtist());
-            artistId = getArtistId(track.getArtist());
+            int lastTrackId = getMaxId("getMaxTrackId");
+            insertTrackRows(candidates, artistIds, albumIds, result);
+            Map<String, Integer> trackIds = cacheIdsSince(IdCache.Entity.TRACK, "getTrackIdsSince", lastTrackId);
+
+            List<Object[]> trackTags = new ArrayList<>();
+            for (Track track : candidates) {
+                Integer trackId = trackIds.get(track.getTitle());
+                if (trackId == null) continue; // refusé par la base, déjà signalé
+                track.setTrackId(trackId);
+                result.getInserted().add(track);
+                Integer tagId = tagIds.get(track.getGenre());
+                if (tagId != null) {
+                    trackTags.add(new Object[]{trackId, tagId});
+                }
+            }
+            executeBatch("insertTrackTag", trackTags);
+
+            connection.commit(); // Commit transaction
+            logger.info("✅ Import groupé : " + result.getInserted().size() + " morceau(x) inséré(s), "
+                + result.getFailures().size() + " échec(s).");
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Erreur SQL lors de l'import groupé des morceaux", e);
+            try {
+                connection.rollback(); // Rollback on error
+            } catch (SQLException ex) {
+                logger.log(Level.SEVERE, "Erreur lors du rollback de l'import groupé", ex);
+            }
+            idCache.clear(); // des IDs annulés ont pu être mémorisés
+            for (Track track : candidates) {
+                result.getFailures().putIfAbsent(track, e.getMessage());
+            }
+            result.getInserted().clear();
+            result.rolledBack = true;
+        } finally {
+            try {
+                if (autoCommitStatus) { // Only set back if it was true
+                    connection.setAutoCommit(true); // Restore auto-commit status
+                }
+            } catch (SQLException ex) {
+                logger.log(Level.SEVERE, "Erreur lors de la restauration de l'auto-commit", ex);
+            }
         }
-        int albumId = getAlbumId(track.getAlbum());
-        if (albumId == -1) {
-            insertAlbum(track.getAlbum(), track.getArtist());
-            albumId = getAlbumId(track.getAlbum());
+        return result;
+    }
+
+    /**
+     * Écarte du lot les morceaux déjà présents en base, les doublons internes au lot
+     * et ceux dont les métadonnées obligatoires manquent.
+     */
+    private List<Track> selectNewTracks(Collection<Track> tracks, BatchResult result) {
+        List<Track> candidates = new ArrayList<>();
+        Set<String> titles = new HashSet<>();
+        Set<String> filePaths = new HashSet<>();
+        for (Track track : tracks) {
+            if (track.getTitle() == null || track.getArtist() == null || track.getAlbum() == null || track.getFilePath() == null) {
+                result.getFailures().put(track, "Métadonnées obligatoires manquantes");
+            } else if (!titles.add(track.getTitle()) || !filePaths.add(track.getFilePath())) {
+                result.getFailures().put(track, "Doublon dans le lot importé");
+            } else if (getTrackId(track.getTitle()) != -1) {
+                result.getFailures().put(track, "Morceau déjà présent en base");
+            } else {
+                candidates.add(track);
+            }
         }
-        int tagId = getTagId(track.getGenre());
-        if (tagId == -1) {
-            insertTag(track.getGenre());
-            tagId = getTagId(track.getGenre());
+        return candidates;
+    }
+
+    /**
+     * Crée en lot les artistes manquants et renvoie l'ID de chaque artiste du lot.
+     */
+    private Map<String, Integer> resolveArtists(List<Track> tracks) throws SQLException {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        List<Object[]> missing = new ArrayList<>();
+        for (Track track : tracks) {
+            if (ids.containsKey(track.getArtist())) continue;
+            int id = getArtistId(track.getArtist());
+            ids.put(track.getArtist(), id);
+            if (id == -1) missing.add(new Object[]{track.getArtist()});
         }
-        String query = insertSqlLoader.getQuery("insertTrack");
-        boolean trackInserted = executeInsert(query, track.getTitle(), artistId, albumId, track.getYear(), track.getDuration(), track.getFilePath(), track.getCoverPath(), track.getLyricsPath(), track.getKaraokePath());
-        
-        if (trackInserted) {
-            int trackId = getTrackId(track.getTitle());
-            String tagQuery = insertSqlLoader.getQuery("insertTrackTag");
-            executeInsert(tagQuery, trackId, tagId);
+        int lastId = getMaxId("getMaxArtistId");
+        executeBatch("insertArtist", missing);
+        ids.putAll(cacheIdsSince(IdCache.Entity.ARTIST, "getArtistIdsSince", lastId));
+        return ids;
+    }
+
+    /**
+     * Crée en lot les albums manquants (rattachés à l'artiste du premier morceau qui les cite)
+     * et renvoie l'ID de chaque album du lot.
+     */
+    private Map<String, Integer> resolveAlbums(List<Track> tracks, Map<String, Integer> artistIds) throws SQLException {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        List<Object[]> missing = new ArrayList<>();
+        for (Track track : tracks) {
+            if (ids.containsKey(track.getAlbum())) continue;
+            int id = getAlbumId(track.getAlbum());
+            ids.put(track.getAlbum(), id);
+            if (id == -1) missing.add(new Object[]{track.getAlbum(), artistIds.get(track.getArtist())});
         }
-        return trackInserted;
+        int lastId = getMaxId("getMaxAlbumId");
+        executeBatch("insertAlbum", missing);
+        ids.putAll(cacheIdsSince(IdCache.Entity.ALBUM, "getAlbumIdsSince", lastId));
+        return ids;
+    }
+
+    /**
+     * Crée en lot les genres manquants et renvoie l'ID de chaque genre du lot.
+     */
+    private Map<String, Integer> resolveTags(List<Track> tracks) throws SQLException {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        List<Object[]> missing = new ArrayList<>();
+        for (Track track : tracks) {
+            if (track.getGenre() == null || ids.containsKey(track.getGenre())) continue;
+            int id = getTagId(track.getGenre());
+            ids.put(track.getGenre(), id);
+            if (id == -1) missing.add(new Object[]{track.getGenre()});
+        }
+        int lastId = getMaxId("getMaxTagId");
+        executeBatch("insertTag", missing);
+        ids.putAll(cacheIdsSince(IdCache.Entity.TAG, "getTagIdsSince", lastId));
+        return ids;
+    }
+
+    /**
+     * @return Une ligne Cover par image du stockage adressé par contenu : les morceaux d'un album n'en donnent qu'une.
+     */
+    private static List<Object[]> coverRows(List<Track> tracks) {
+        Map<String, String> covers = new LinkedHashMap<>();
+        for (Track track : tracks) {
+            String hash = CoverStore.hashOf(track.getCoverPath());
+            if (hash != null) {
+                covers.putIfAbsent(hash, track.getCoverPath());
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(covers.size());
+        covers.forEach((hash, path) -> rows.add(new Object[]{hash, path}));
+        return rows;
+    }
+
+    /**
+     * Insère les lignes Track en un seul lot. Si la base refuse une ligne, le lot est
+     * annulé jusqu'au point de sauvegarde et rejoué ligne par ligne pour isoler les
+     * morceaux fautifs sans perdre les autres.
+     */
+    private void insertTrackRows(List<Track> tracks, Map<String, Integer> artistIds, Map<String, Integer> albumIds,
+                                 BatchResult result) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        for (Track track : tracks) {
+            rows.add(new Object[]{track.getTitle(), artistIds.get(track.getArtist()), albumIds.get(track.getAlbum()),
+                track.getYear(), track.getDuration(), track.getFilePath(), track.getCoverPath(),
+                CoverStore.hashOf(track.getCoverPath()), track.getLyricsPath(), track.getKaraokePath()});
+        }
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            executeBatch("insertTrack", rows);
+            connection.releaseSavepoint(savepoint);
+            return;
+        } catch (SQLException e) {
+            logger.warning("⚠️ Lot de morceaux refusé, insertion ligne par ligne : " + e.getMessage());
+            connection.rollback(savepoint);
+            statementCache.evict("insertTrack");
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                PreparedStatement stmt = prepare("insertTrack");
+                bindParameters(stmt, rows.get(i));
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                statementCache.evict("insertTrack");
+                result.getFailures().put(tracks.get(i), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Exécute une requête d'insertion en lot (`addBatch`/`executeBatch`).
+     * @param tag Tag de la requête SQL (dans insert_queries.sql).
+     * @param rows Paramètres de chaque ligne à insérer.
+     */
+    private void executeBatch(String tag, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        PreparedStatement stmt = prepare(tag);
+        for (Object[] row : rows) {
+            bindParameters(stmt, row);
+            stmt.addBatch();
+        }
+        stmt.executeBatch();
+    }
+
+    /**
+     * @return La plus grande clé primaire actuelle de la table interrogée par la requête.
+     */
+    private int getMaxId(String tag) throws SQLException {
+        try (ResultSet rs = prepare(tag).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Lit en une requête les IDs créés depuis `lastId` (les clés AUTOINCREMENT sont croissantes)
+     * et les mémorise dans le dictionnaire d'IDs.
+     * @return Les noms créés associés à leur nouvel ID.
+     */
+    private Map<String, Integer> cacheIdsSince(IdCache.Entity entity, String tag, int lastId) throws SQLException {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        PreparedStatement stmt = prepare(tag);
+        stmt.setInt(1, lastId);
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ids.put(rs.getString(1), rs.getInt(2));
+                idCache.put(entity, rs.getString(1), rs.getInt(2));
+            }
+        }
+        return ids;
     }
 
     /**
@@ -110,11 +386,7 @@ public class DbManagerInsert extends DbManager {
      * @return `true` si l'insertion a réussi, sinon `false`.
      */
     public boolean insertPlaylist(String playlistTitle, String username) {
-        if (getPlaylistId(playlistTitle) != -1) {
-            return false;}
-
-        String query = insertSqlLoader.getQuery("insertPlaylist");
-        return executeInsert(query, playlistTitle, -1);
+        return insertEntity(IdCache.Entity.PLAYLIST, playlistTitle, "insertPlaylistReturningId", playlistTitle, -1);
     }
 
     /**
@@ -127,31 +399,106 @@ public class DbManagerInsert extends DbManager {
         int playlistId = getPlaylistId(playlistTitle);
         int trackId = getTrackId(trackTitle);
         if (playlistId == -1 || trackId == -1) return false;
-        
-        // Vérifie si le morceau existe déjà dans la playlist
+        // Un morceau déjà présent dans la playlist est ignoré par la requête (ON CONFLICT DO NOTHING)
+        return executeInsert("insertTrackIntoPlaylist", playlistId, trackId, Config.PLAYLIST_POSITION_GAP, playlistId);
+    }
+
+    /**
+     * Déplace un morceau d'une playlist entre ses nouveaux voisins en ne réécrivant que sa ligne.
+     * <p>
+     * Les positions sont des ordinaux espacés de {@link Config#PLAYLIST_POSITION_GAP} : le morceau
+     * déplacé prend une position intermédiaire entre celles de ses voisins. Si aucun entier libre ne
+     * reste entre eux, la playlist est d'abord renumérotée ; si le déplacement consomme le dernier
+     * écart disponible, une renumérotation est programmée via {@link #scheduleRenumbering(int)}.
+     * </p>
+     * @param playlistTitle Titre de la playlist.
+     * @param trackTitle Titre du morceau déplacé.
+     * @param previousTrackTitle Titre du morceau qui le précède désormais, null en tête de playlist.
+     * @param nextTrackTitle Titre du morceau qui le suit désormais, null en fin de playlist.
+     * @return `true` si la nouvelle position a été enregistrée, sinon `false`.
+     */
+    public boolean moveTrackInPlaylist(String playlistTitle, String trackTitle, String previousTrackTitle, String nextTrackTitle) {
+        int playlistId = getPlaylistId(playlistTitle);
+        int trackId = getTrackId(trackTitle);
+        int previousId = previousTrackTitle == null ? -1 : getTrackId(previousTrackTitle);
+        int nextId = nextTrackTitle == null ? -1 : getTrackId(nextTrackTitle);
+        if (playlistId == -1 || trackId == -1
+                || (previousTrackTitle != null && previousId == -1) || (nextTrackTitle != null && nextId == -1)) {
+            return false;
+        }
+
         try {
-            String checkQuery = "SELECT 1 FROM PlaylistTrack WHERE playlist_id = ? AND track_id = ?";
-            java.sql.PreparedStatement stmt = connection.prepareStatement(checkQuery);
-            stmt.setInt(1, playlistId);
-            stmt.setInt(2, trackId);
-            java.sql.ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                // Le morceau existe déjà dans la playlist, ne pas insérer
-                rs.close();
-                stmt.close();
+            Long previous = previousId == -1 ? null : getPlaylistTrackPosition(playlistId, previousId);
+            Long next = nextId == -1 ? null : getPlaylistTrackPosition(playlistId, nextId);
+            Long position = positionBetween(previous, next);
+            if (position == null) { // plus d'entier libre entre les voisins
+                if (!renumberPlaylistPositions(playlistId)) return false;
+                previous = previousId == -1 ? null : getPlaylistTrackPosition(playlistId, previousId);
+                next = nextId == -1 ? null : getPlaylistTrackPosition(playlistId, nextId);
+                position = positionBetween(previous, next);
+            }
+            if (position == null || !executeInsert("updatePlaylistTrackPosition", position, playlistId, trackId)) {
                 return false;
             }
-            rs.close();
-            stmt.close();
+            if ((previous != null && position - previous == 1) || (next != null && next - position == 1)) {
+                scheduleRenumbering(playlistId);
+            }
+            return true;
         } catch (SQLException e) {
-            Logger logger = Logger.getLogger(DbManagerInsert.class.getName());
-            logger.warning("Erreur lors de la vérification de doublon dans la playlist : " + e.getMessage());
-            // On continue et on essaie d'insérer quand même
+            statementCache.evict("getPlaylistTrackPosition");
+            logger.severe("Erreur lors du déplacement du morceau dans la playlist : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lit la position d'un morceau dans une playlist.
+     * @throws SQLException si le morceau n'appartient pas à la playlist ou si la lecture échoue.
+     */
+    private long getPlaylistTrackPosition(int playlistId, int trackId) throws SQLException {
+        PreparedStatement stmt = prepare("getPlaylistTrackPosition");
+        stmt.setInt(1, playlistId);
+        stmt.setInt(2, trackId);
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Morceau " + trackId + " absent de la playlist " + playlistId);
+            }
+            return rs.getLong(1);
         }
-        
-        String query = insertSqlLoader.getQuery("insertTrackIntoPlaylist");
-        return executeInsert(query, playlistId, trackId);
+    }
+
+    /**
+     * Calcule une position strictement comprise entre deux voisins (null : pas de voisin de ce côté).
+     * @return La position, ou null si les voisins sont consécutifs.
+     */
+    private static Long positionBetween(Long previous, Long next) {
+        if (previous == null && next == null) return Config.PLAYLIST_POSITION_GAP;
+        if (previous == null) return next - Config.PLAYLIST_POSITION_GAP;
+        if (next == null) return previous + Config.PLAYLIST_POSITION_GAP;
+        if (next - previous < 2) return null;
+        return previous + (next - previous) / 2;
+    }
+
+    /**
+     * Renumérote les positions d'une playlist dont les écarts sont épuisés.
+     * Exécutée immédiatement ; le gestionnaire sérialisé la reporte en arrière-plan sur l'écrivain.
+     * @param playlistId L'ID de la playlist.
+     */
+    protected void scheduleRenumbering(int playlistId) {
+        renumberPlaylistPositions(playlistId);
+    }
+
+    /**
+     * Rétablit des positions espacées de {@link Config#PLAYLIST_POSITION_GAP}, sans changer l'ordre.
+     * @param playlistId L'ID de la playlist.
+     * @return `true` si la renumérotation a réussi, sinon `false`.
+     */
+    protected boolean renumberPlaylistPositions(int playlistId) {
+        boolean renumbered = executeInsert("renumberPlaylistPositions", Config.PLAYLIST_POSITION_GAP, playlistId, playlistId);
+        if (renumbered) {
+            logger.info("🔢 Positions de la playlist " + playlistId + " renumérotées.");
+        }
+        return renumbered;
     }
 
     /**
@@ -164,8 +511,7 @@ public class DbManagerInsert extends DbManager {
         int playlistId = getPlaylistId(playlistTitle);
         int trackId = getTrackId(trackTitle);
         if (playlistId == -1 || trackId == -1) return false;
-        String query = insertSqlLoader.getQuery("removeTrackFromPlaylist");
-        return executeInsert(query, playlistId, trackId);
+        return executeInsert("removeTrackFromPlaylist", playlistId, trackId);
     }
     
     /**
@@ -176,30 +522,244 @@ public class DbManagerInsert extends DbManager {
     public boolean removeAllTracksFromPlaylist(String playlistTitle) {
         int playlistId = getPlaylistId(playlistTitle);
         if (playlistId == -1) return false;
-        String query = insertSqlLoader.getQuery("removeAllTracksFromPlaylist");
-        return executeInsert(query, playlistId);
+        return executeInsert("removeAllTracksFromPlaylist", playlistId);
+    }
+
+    /**
+     * Lit l'index des fichiers déjà scannés.
+     * @return Les empreintes des fichiers, par chemin absolu (vide en cas d'erreur : tout sera rescanné).
+     */
+    public Map<String, FileFingerprint> getFileFingerprints() {
+        Map<String, FileFingerprint> fingerprints = new HashMap<>();
+        try (ResultSet rs = prepare("getFileFingerprints").executeQuery()) {
+            while (rs.next()) {
+                String filePath = rs.getString("file_path");
+                fingerprints.put(filePath, new FileFingerprint(filePath, rs.getLong("size"),
+                    rs.getLong("modified_at"), rs.getString("content_hash"), rs.getBoolean("has_track")));
+            }
+        } catch (SQLException e) {
+            statementCache.evict("getFileFingerprints");
+            logger.severe("Erreur lors de la lecture de l'index des fichiers : " + e.getMessage());
+            fingerprints.clear();
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Enregistre ou remplace les empreintes de fichiers scannés, en une seule transaction.
+     * @param fingerprints Empreintes à enregistrer.
+     * @return `true` si l'enregistrement a réussi, sinon `false`.
+     */
+    public boolean saveFileFingerprints(Collection<FileFingerprint> fingerprints) {
+        if (fingerprints.isEmpty()) return true;
+        List<Object[]> rows = new ArrayList<>(fingerprints.size());
+        for (FileFingerprint fingerprint : fingerprints) {
+            rows.add(new Object[]{fingerprint.getFilePath(), fingerprint.getSize(),
+                fingerprint.getModifiedMillis(), fingerprint.getContentHash()});
+        }
+        boolean autoCommitStatus = false;
+        try {
+            autoCommitStatus = connection.getAutoCommit();
+            connection.setAutoCommit(false); // Start transaction
+            executeBatch("upsertFileFingerprint", rows);
+            connection.commit(); // Commit transaction
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Erreur SQL lors de l'enregistrement de l'index des fichiers", e);
+            try {
+                connection.rollback(); // Rollback on error
+            } catch (SQLException ex) {
+                logger.log(Level.SEVERE, "Erreur lors du rollback de l'index des fichiers", ex);
+            }
+            return false;
+        } finally {
+            restoreAutoCommit(autoCommitStatus);
+        }
+    }
+
+    /**
+     * Supprime, en une seule transaction, les morceaux des fichiers disparus du dossier de musiques,
+     * leurs liens (tags, playlists, favoris) et leurs empreintes dans l'index des fichiers.
+     * @param filePaths Chemins absolus des fichiers supprimés.
+     * @return Le nombre de morceaux supprimés, ou -1 en cas d'erreur (rien n'est alors supprimé).
+     */
+    public int deleteTracksByFilePath(Collection<String> filePaths) {
+        if (filePaths.isEmpty()) return 0;
+        List<Object[]> rows = new ArrayList<>(filePaths.size());
+        for (String filePath : filePaths) {
+            rows.add(new Object[]{filePath});
+        }
+        List<String> deletedTitles = new ArrayList<>();
+        boolean autoCommitStatus = false;
+        try {
+            autoCommitStatus = connection.getAutoCommit();
+            connection.setAutoCommit(false); // Start transaction
+            executeBatch("deleteTrackTagsByFilePath", rows);
+            executeBatch("deletePlaylistTracksByFilePath", rows);
+            executeBatch("deleteFavoritesByFilePath", rows);
+            PreparedStatement stmt = prepare("deleteTrackByFilePath"); // RETURNING : pas d'executeBatch
+            for (String filePath : filePaths) {
+                stmt.setString(1, filePath);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        deletedTitles.add(rs.getString(1));
+                    }
+                }
+            }
+            executeBatch("deleteFileFingerprint", rows);
+            connection.commit(); // Commit transaction
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Erreur SQL lors de la suppression des morceaux des fichiers disparus", e);
+            try {
+                connection.rollback(); // Rollback on error
+            } catch (SQLException ex) {
+                logger.log(Level.SEVERE, "Erreur lors du rollback de la suppression des morceaux", ex);
+            }
+            return -1;
+        } finally {
+            restoreAutoCommit(autoCommitStatus);
+        }
+        for (String title : deletedTitles) {
+            idCache.remove(IdCache.Entity.TRACK, title);
+        }
+        logger.info("🗑️ " + deletedTitles.size() + " morceau(x) supprimé(s) : fichier(s) absent(s) du dossier de musiques.");
+        return deletedTitles.size();
+    }
+
+    /**
+     * Référence une image du stockage des couvertures, si elle ne l'est pas déjà.
+     * @param coverPath Chemin de l'image d'un morceau ; une image hors du stockage (image par défaut) est ignorée.
+     * @return `true` si l'image est référencée ou n'a pas à l'être, `false` en cas d'erreur.
+     */
+    public boolean insertCover(String coverPath) {
+        String hash = CoverStore.hashOf(coverPath);
+        if (hash == null) return true;
+        try {
+            PreparedStatement stmt = prepare("insertCover");
+            bindParameters(stmt, hash, coverPath);
+            stmt.executeUpdate(); // 0 ligne : déjà référencée
+            return true;
+        } catch (SQLException e) {
+            statementCache.evict("insertCover");
+            logger.severe("Erreur lors de l'insertion dans la base de données : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Supprime les lignes Cover que plus aucun morceau ne référence.
+     * @return Les chemins des images supprimées, à effacer du stockage ; une liste vide en cas d'erreur.
+     */
+    public List<String> deleteUnreferencedCovers() {
+        List<String> coverPaths = new ArrayList<>();
+        try (ResultSet rs = prepare("deleteUnreferencedCovers").executeQuery()) {
+            while (rs.next()) {
+                coverPaths.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            statementCache.evict("deleteUnreferencedCovers");
+            logger.log(Level.SEVERE, "Erreur SQL lors de la suppression des images de couverture inutilisées", e);
+            return List.of();
+        }
+        return coverPaths;
+    }
+
+    private void restoreAutoCommit(boolean autoCommitStatus) {
+        try {
+            if (autoCommitStatus) { // Only set back if it was true
+                connection.setAutoCommit(true); // Restore auto-commit status
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Erreur lors de la restauration de l'auto-commit", ex);
+        }
+    }
+
+    /**
+     * Insère une entité nommée puis mémorise sa nouvelle clé primaire, lue par `RETURNING`,
+     * dans le dictionnaire d'IDs.
+     * @param entity Type de l'entité insérée.
+     * @param name Nom de l'entité, clé du dictionnaire.
+     * @param tag Tag de la requête `ON CONFLICT DO NOTHING RETURNING`.
+     * @param parameters Paramètres de la requête SQL.
+     * @return `true` si l'entité a été créée, `false` si elle existait déjà ou en cas d'erreur.
+     */
+    private boolean insertEntity(IdCache.Entity entity, String name, String tag, Object... parameters) {
+        int id = insertReturningId(tag, parameters);
+        idCache.put(entity, name, id);
+        return id != -1;
+    }
+
+    /**
+     * Renvoie l'ID d'une entité nommée, en la créant si elle n'existe pas.
+     * Connue du dictionnaire, aucune requête ; sinon une seule instruction la crée et renvoie sa clé.
+     * Si la ligne existait déjà (conflit), sa clé est relue.
+     * @return L'ID de l'entité, ou -1 en cas d'erreur.
+     */
+    private int resolveId(IdCache.Entity entity, String name, String tag, Object... parameters) {
+        Integer cached = idCache.get(entity, name);
+        if (cached != null) return cached;
+        int id = insertReturningId(tag, parameters);
+        if (id == -1) {
+            return getCachedId(entity, name);
+        }
+        idCache.put(entity, name, id);
+        return id;
+    }
+
+    /**
+     * Exécute une insertion `ON CONFLICT DO NOTHING RETURNING` et lit la clé créée.
+     * @param tag Tag de la requête SQL (dans insert_queries.sql).
+     * @param parameters Paramètres de la requête SQL.
+     * @return La clé de la ligne créée, ou -1 si la ligne existait déjà ou si l'insertion a échoué.
+     */
+    private int insertReturningId(String tag, Object... parameters) {
+        try {
+            PreparedStatement stmt = prepare(tag);
+            bindParameters(stmt, parameters);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        } catch (SQLException e) {
+            statementCache.evict(tag);
+            logger.severe("Erreur lors de l'insertion dans la base de données : " + e.getMessage());
+            return -1;
+        }
     }
 
     /**
      * Méthode générique pour exécuter une requête d'insertion dans la base de données.
-     * @param query Requête SQL à exécuter.
+     * La requête préparée est réutilisée depuis le cache de la connexion.
+     * @param tag Tag de la requête SQL (dans insert_queries.sql) à exécuter.
      * @param parameters Paramètres de la requête SQL.
      * @return `true` si l'insertion a réussi, sinon `false`.
      */
-    private boolean executeInsert(String query, Object... parameters) {
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            for (int i = 0; i < parameters.length; i++) {
-                if (parameters[i] instanceof String) {
-                    stmt.setString(i + 1, (String) parameters[i]);
-                } else if (parameters[i] instanceof Integer) {
-                    stmt.setInt(i + 1, (Integer) parameters[i]);
-                }
-            }
+    private boolean executeInsert(String tag, Object... parameters) {
+        try {
+            PreparedStatement stmt = prepare(tag);
+            bindParameters(stmt, parameters);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            Logger logger = Logger.getLogger(DbManagerInsert.class.getName());
+            statementCache.evict(tag);
             logger.severe("Erreur lors de l'insertion dans la base de données : " + e.getMessage());
             return false;
         }
     }
+
+    /**
+     * Lie les paramètres d'une requête préparée. Les valeurs nulles sont liées
+     * explicitement, la requête étant réutilisée d'un appel à l'autre.
+     */
+    private void bindParameters(PreparedStatement stmt, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] instanceof String) {
+                stmt.setString(i + 1, (String) parameters[i]);
+            } else if (parameters[i] instanceof Integer) {
+                stmt.setInt(i + 1, (Integer) parameters[i]);
+            } else if (parameters[i] instanceof Long) {
+                stmt.setLong(i + 1, (Long) parameters[i]);
+            } else {
+                stmt.setNull(i + 1, Types.NULL);
+            }
+        }
+    }
 }
@@ -7,9 +7,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.sql.Connection;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -19,11 +22,17 @@ import java.util.logging.Level;
  * Hérite de `DbManager` pour réutiliser les méthodes de gestion des clés primaires.
  */
 public class DbManagerSearch extends DbManager {
-    private final SQLLoader searchSqlLoader = new SQLLoader(Config.SEARCH_QUERIES_SQL_FILE); // Chargeur SQL pour les requêtes de recherche dans la base de données
     private static final Logger logger = Logger.getLogger(DbManagerSearch.class.getName());
 
     public DbManagerSearch(Connection  connection) {
-        super(connection);
+        this(connection, null);
+    }
+
+    public DbManagerSearch(Connection connection, IdCache idCache) {
+        super(connection, idCache);
+        if (SlowQueryLog.isEnabled()) {
+            statementCache.setSlowQueryLog(SlowQueryLog.getInstance()); // recherches lentes journalisées avec leur plan
+        }
     }
 
     /**
@@ -32,202 +41,186 @@ public class DbManagerSearch extends DbManager {
      * @return Une liste contenant tous les morceaux correspondants, ou une liste vide si aucun trouvé.
      */
     public ArrayList<Track> searchTracksByTitle(String title) {
-        ArrayList<Track> tracks = new ArrayList<>();
-        String query = searchSqlLoader.getQuery("searchTracksByTitle");
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, title + "%");
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Track track = new Track(
-                        rs.getInt("track_id"),
-                        rs.getString("title"),
-                        getArtistName(rs.getInt("artist_id")),
-                        getAlbumName(rs.getInt("album_id")),
-                        String.valueOf(rs.getInt("year")),
-                        rs.getInt("duration_sec"),
-                        getTrackTag(rs.getInt("track_id")),
-                        rs.getString("file_path"),
-                        rs.getString("cover_path"),
-                        rs.getString("lyrics_path"),
-                        rs.getString("karaoke_path")
-                    );
-                    tracks.add(track);
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur lors de la recherche par titre", e);
-            AlertManager.showErrorWithException("Erreur de recherche", 
-                "Impossible de rechercher les morceaux par titre", e);
-        }
-        return tracks;
+        return executeTrackQuery("searchTracksByTitle",
+            "Erreur lors de la recherche par titre",
+            "Impossible de rechercher les morceaux par titre",
+            title + "%");
     }
 
     /**
      * Recherche tous les morceaux d'un artiste donné.
      */
     public ArrayList<Track> searchTracksByArtist(String artistName) {
-        ArrayList<Track> tracks = new ArrayList<>();
-        int artistId = getArtistId(artistName);
-        if (artistId == -1) return tracks;
-        String query = searchSqlLoader.getQuery("searchTrackByArtist");
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, artistId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Track track = new Track(
-                        rs.getInt("track_id"),
-                        rs.getString("title"),
-                        artistName,
-                        getAlbumName(rs.getInt("album_id")),
-                        String.valueOf(rs.getInt("year")),
-                        rs.getInt("duration_sec"),
-                        getTrackTag(rs.getInt("track_id")),
-                        rs.getString("file_path"),
-                        rs.getString("cover_path"),
-                        rs.getString("lyrics_path"),
-                        rs.getString("karaoke_path")
-                    );
-                    tracks.add(track);
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur lors de la recherche par artiste", e);
-            AlertManager.showErrorWithException("Erreur de recherche", 
-                "Impossible de rechercher les morceaux par artiste", e);
-        }
-        return tracks;
+        return executeTrackQuery("searchTrackByArtist",
+            "Erreur lors de la recherche par artiste",
+            "Impossible de rechercher les morceaux par artiste",
+            artistName);
     }
 
     /**
      * Recherche tous les morceaux d'un album donné.
      */
     public ArrayList<Track> searchTracksByAlbum(String albumTitle) {
-        ArrayList<Track> tracks = new ArrayList<>();
-        int albumId = getAlbumId(albumTitle);
-        if (albumId == -1) return tracks;
-        String query = searchSqlLoader.getQuery("searchTrackByAlbum");
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, albumId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Track track = new Track(
-                        rs.getInt("track_id"),
-                        rs.getString("title"),
-                        getArtistName(rs.getInt("artist_id")),
-                        albumTitle,
-                        String.valueOf(rs.getInt("year")),
-                        rs.getInt("duration_sec"),
-                        getTrackTag(rs.getInt("track_id")),
-                        rs.getString("file_path"),
-                        rs.getString("cover_path"),
-                        rs.getString("lyrics_path"),
-                        rs.getString("karaoke_path")
-                    );
-                    tracks.add(track);
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur lors de la recherche par album", e);
-            AlertManager.showErrorWithException("Erreur de recherche", 
-                "Impossible de rechercher les morceaux par album", e);
-        }
-        return tracks;
+        return executeTrackQuery("searchTrackByAlbum",
+            "Erreur lors de la recherche par album",
+            "Impossible de rechercher les morceaux par album",
+            albumTitle);
     }
 
     /**
      * Recherche tous les morceaux associés à un tag donné.
      */
     public ArrayList<Track> searchTracksByTag(String tagName) {
-        ArrayList<Track> tracks = new ArrayList<>();
-        int tagId = getTagId(tagName);
-        if (tagId == -1) return tracks;
-        String query = searchSqlLoader.getQuery("searchTracksByTag");
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, tagId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Track track = new Track(
-                        rs.getInt("track_id"),
-                        rs.getString("title"),
-                        getArtistName(rs.getInt("artist_id")),
-                        getAlbumName(rs.getInt("album_id")),
-                        String.valueOf(rs.getInt("year")),
-                        rs.getInt("duration_sec"),
-                        getTrackTag(rs.getInt("track_id")),
-                        rs.getString("file_path"),
-                        rs.getString("cover_path"),
-                        rs.getString("lyrics_path"),
-                        rs.getString("karaoke_path")
-                    );
-                    tracks.add(track);
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur lors de la recherche par tag", e);
-            AlertManager.showErrorWithException("Erreur de recherche", 
-                "Impossible de rechercher les morceaux par genre musical", e);
-        }
-        return tracks;
+        return executeTrackQuery("searchTracksByTag",
+            "Erreur lors de la recherche par tag",
+            "Impossible de rechercher les morceaux par genre musical",
+            tagName);
     }
 
     /**
-     * Récupère le nom d'un artiste à partir de son ID.
+     * Renvoie une page de la bibliothèque, triée par titre.
+     * La pagination se fait par clé (title, track_id) : le coût d'une page ne dépend pas de sa position.
+     * @param after Dernier morceau de la page précédente, ou null pour la première page.
+     * @param limit Nombre maximal de morceaux de la page.
+     * @return Les morceaux de la page, éventuellement moins que limit en fin de bibliothèque.
      */
-    private String getArtistName(int artistId) {
-        return getStringValue(searchSqlLoader.getQuery("getArtistNameFromArtistID"), artistId);
+    public ArrayList<Track> getTracksPage(Track after, int limit) {
+        return executeTrackQuery("getTracksPage",
+            "Erreur lors de la récupération d'une page de morceaux",
+            "Impossible de récupérer les morceaux",
+            afterTitle(after), afterId(after), limit);
     }
 
     /**
-     * Récupère le titre d'un album à partir de son ID.
+     * Variante paginée de {@link #searchTracksByTitle(String)}.
+     * @param after Dernier morceau de la page précédente, ou null pour la première page.
+     * @param limit Nombre maximal de morceaux de la page.
      */
-    private String getAlbumName(int albumId) {
-        return getStringValue(searchSqlLoader.getQuery("getAlbumNameFromAbumID"), albumId);
+    public ArrayList<Track> searchTracksByTitlePage(String title, Track after, int limit) {
+        return executeTrackQuery("searchTracksByTitlePage",
+            "Erreur lors de la recherche par titre",
+            "Impossible de rechercher les morceaux par titre",
+            title + "%", afterTitle(after), afterId(after), limit);
     }
 
     /**
-     * Récupère le tag (genre musical) associé à un morceau.
-     * @param trackId L'ID du morceau.
-     * @return Le nom du tag associé, ou une chaîne vide si aucun tag trouvé.
+     * Variante paginée de {@link #searchTracksByArtist(String)}.
+     * @param after Dernier morceau de la page précédente, ou null pour la première page.
+     * @param limit Nombre maximal de morceaux de la page.
      */
-    private String getTrackTag(int trackId) {
-        return getStringValue(searchSqlLoader.getQuery("getTagTrackFromTrackID"), trackId);
+    public ArrayList<Track> searchTracksByArtistPage(String artistName, Track after, int limit) {
+        return executeTrackQuery("searchTrackByArtistPage",
+            "Erreur lors de la recherche par artiste",
+            "Impossible de rechercher les morceaux par artiste",
+            artistName, afterTitle(after), afterId(after), limit);
     }
 
     /**
-     * Méthode utilitaire pour récupérer une valeur `String` depuis la base de données.
+     * Variante paginée de {@link #searchTracksByAlbum(String)}.
+     * @param after Dernier morceau de la page précédente, ou null pour la première page.
+     * @param limit Nombre maximal de morceaux de la page.
      */
-    private String getStringValue(String query, int id) {
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, id);
+    public ArrayList<Track> searchTracksByAlbumPage(String albumTitle, Track after, int limit) {
+        return executeTrackQuery("searchTrackByAlbumPage",
+            "Erreur lors de la recherche par album",
+            "Impossible de rechercher les morceaux par album",
+            albumTitle, afterTitle(after), afterId(after), limit);
+    }
+
+    // Clé de pagination : titre et ID du dernier morceau lu ('' et -1 précèdent tous les morceaux)
+    private static String afterTitle(Track after) {
+        return after == null ? "" : after.getTitle();
+    }
+
+    private static int afterId(Track after) {
+        return after == null ? -1 : after.getTrackId();
+    }
+
+    /**
+     * Recherche plein texte sur le titre, l'artiste, l'album et le genre en une seule requête.
+     * Chaque mot saisi est cherché comme préfixe, n'importe où dans les champs indexés ;
+     * les résultats sont classés par pertinence (bm25, le titre pesant le plus lourd).
+     * @param query Texte saisi par l'utilisateur.
+     * @return Les morceaux correspondants, du plus pertinent au moins pertinent.
+     */
+    public ArrayList<Track> searchTracksFullText(String query) {
+        String matchExpression = toMatchExpression(query);
+        if (matchExpression.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return executeTrackQuery("searchTracksFullText",
+            "Erreur lors de la recherche plein texte",
+            "Impossible de rechercher les morceaux",
+            matchExpression, Config.FULL_TEXT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Convertit une saisie libre en expression MATCH FTS5 : chaque mot devient un préfixe
+     * entre guillemets, ce qui neutralise la syntaxe FTS5 (opérateurs, parenthèses, guillemets).
+     * @param query Texte saisi par l'utilisateur.
+     * @return L'expression MATCH, ou une chaîne vide si la saisie ne contient aucun mot.
+     */
+    static String toMatchExpression(String query) {
+        if (query == null) return "";
+        return Arrays.stream(query.split("[^\\p{L}\\p{N}]+"))
+            .filter(word -> !word.isEmpty())
+            .map(word -> "\"" + word + "\"*")
+            .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Exécute une requête de recherche de morceaux.
+     * L'artiste, l'album et le genre sont résolus par jointure dans la requête,
+     * chaque ligne est donc convertie sans requête supplémentaire.
+     * @param tag Tag de la requête SQL renvoyant les colonnes attendues par `createTrackFromResultSet`.
+     * @param logMessage Message journalisé en cas d'erreur.
+     * @param alertMessage Message affiché à l'utilisateur en cas d'erreur.
+     * @param parameters Valeurs des paramètres de la requête, dans l'ordre.
+     * @return La liste des morceaux trouvés, éventuellement vide.
+     */
+    private ArrayList<Track> executeTrackQuery(String tag, String logMessage, String alertMessage, Object... parameters) {
+        ArrayList<Track> tracks = new ArrayList<>();
+        try {
+            PreparedStatement stmt = prepare(tag);
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString(1);
+                while (rs.next()) {
+                    tracks.add(createTrackFromResultSet(rs));
                 }
             }
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur lors de la récupération des données", e);
-            AlertManager.showErrorWithException("Erreur de base de données", 
-                "Impossible de récupérer les données", e);
+            statementCache.evict(tag);
+            logger.log(Level.SEVERE, logMessage, e);
+            AlertManager.showErrorWithException("Erreur de recherche", alertMessage, e);
         }
-        return "";
+        return tracks;
     }
 
     /**
      * Récupère toutes les playlists avec leurs morceaux.
-     * @return Une map associant chaque nom de playlist à une liste d'objets `Track`.
+     * <p>
+     * Une seule requête parcourt toutes les lignes de PlaylistTrack, triées par playlist,
+     * et les regroupe en mémoire : le nombre d'allers-retours ne dépend pas du nombre de playlists.
+     * </p>
+     * @return Une map associant chaque nom de playlist (dans l'ordre de création) à une liste d'objets `Track`.
      */
     public Map<String, List<Track>> getAllPlaylistsWithTracks() {
-        Map<String, List<Track>> playlists = new HashMap<>();
-        String query = searchSqlLoader.getQuery("getAllPlaylistsWithTracks");
-
-        try (PreparedStatement stmt = connection.prepareStatement(query);
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                String playlistName = rs.getString("title");
-                int playlistId = rs.getInt("playlist_id");
-                playlists.put(playlistName, getTracksForPlaylist(playlistId));
+        Map<String, List<Track>> playlists = new LinkedHashMap<>();
+        try {
+            PreparedStatement stmt = prepare("getAllPlaylistTracks");
+            stmt.setFetchSize(Config.TRACK_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    List<Track> tracks = playlists.computeIfAbsent(rs.getString("playlist"), name -> new ArrayList<>());
+                    if (rs.getObject("track_id") != null) { // track_id NULL : playlist vide
+                        tracks.add(createTrackFromResultSet(rs));
+                    }
+                }
             }
         } catch (SQLException e) {
+            statementCache.evict("getAllPlaylistTracks");
             logger.log(Level.SEVERE, "Erreur lors de la récupération des playlists", e);
             AlertManager.showErrorWithException("Erreur de chargement", 
                 "Impossible de récupérer les playlists", e);
@@ -236,41 +229,58 @@ public class DbManagerSearch extends DbManager {
     }
 
     /**
-     * Récupère les morceaux associés à une playlist donnée.
-     * @param playlistId L'ID de la playlist.
-     * @return Liste des morceaux sous forme d'objets `Track`.
+     * Récupère le nom de toutes les playlists, sans leurs morceaux.
+     * Utilisé pour le chargement différé : les morceaux sont lus à la première ouverture
+     * avec {@link #getTracksForPlaylist(String)}.
+     * @return Les noms des playlists, dans l'ordre de création.
      */
-    private List<Track> getTracksForPlaylist(int playlistId) {
-        List<Track> tracks = new ArrayList<>();
-        String query = searchSqlLoader.getQuery("getTracksForPlaylist");
-
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, playlistId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    tracks.add(createTrackFromResultSet(rs));
-                }
+    public List<String> getAllPlaylistTitles() {
+        List<String> titles = new ArrayList<>();
+        try (ResultSet rs = prepare("getAllPlaylists").executeQuery()) {
+            while (rs.next()) {
+                titles.add(rs.getString("title"));
             }
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur lors de la récupération des morceaux pour la playlist ID: " + playlistId, e);
+            statementCache.evict("getAllPlaylists");
+            logger.log(Level.SEVERE, "Erreur lors de la récupération des playlists", e);
             AlertManager.showErrorWithException("Erreur de chargement",
-                "Impossible de récupérer les morceaux pour la playlist", e);
+                "Impossible de récupérer les playlists", e);
         }
-        return tracks;
+        return titles;
+    }
+
+    /**
+     * Récupère les morceaux associés à une playlist donnée, dans leur ordre d'ajout.
+     * @param playlistTitle Le nom de la playlist.
+     * @return Liste des morceaux sous forme d'objets `Track`.
+     */
+    public List<Track> getTracksForPlaylist(String playlistTitle) {
+        return executeTrackQuery("getTracksForPlaylist",
+            "Erreur lors de la récupération des morceaux pour la playlist : " + playlistTitle,
+            "Impossible de récupérer les morceaux pour la playlist", playlistTitle);
     }
 
     /**
      * Crée un objet `Track` à partir d'un ResultSet.
+     * Si la bibliothèque est branchée et contient déjà ce morceau, son instance est renvoyée telle quelle :
+     * un morceau n'existe qu'en un exemplaire, et les modifications faites sur un résultat de recherche
+     * sont celles suivies par le ChangeTracker.
      * @param rs Résultat d'une requête SQL.
      * @return Un objet `Track`.
      */
     private Track createTrackFromResultSet(ResultSet rs) throws SQLException {
+        int trackId = rs.getInt("track_id");
+        TrackLibrary library = trackLibrary;
+        Track known = library != null ? library.get(trackId) : null;
+        if (known != null) {
+            return known; // instance canonique : ni allocation ni lecture des autres colonnes
+        }
         return new Track(
-            rs.getInt("track_id"),  // ✅ Correctement défini ici
+            trackId,
             rs.getString("title"),
             rs.getString("artist"),
             rs.getString("album"),
-            rs.getString("year"),
+            String.valueOf(rs.getInt("year")),
             rs.getInt("duration_sec"),
             rs.getString("genre"),
             rs.getString("file_path"),
@@ -283,43 +293,44 @@ public class DbManagerSearch extends DbManager {
     /**
      * Récupère tous les morceaux présents dans la table Track de la base de données.
      * <p>
-     * Cette méthode parcourt l'ensemble des enregistrements de la table Track
-     * et utilise les méthodes utilitaires pour récupérer les noms d'artistes, d'albums
-     * et le genre musical (tag) associés à chaque morceau.
+     * L'artiste, l'album et le genre musical (tag) de chaque morceau sont résolus
+     * par jointure : le chargement complet de la bibliothèque se fait en une seule requête.
+     * Pour éviter de matérialiser toute la bibliothèque, préférer {@link #forEachTrack(Consumer)}.
      * </p>
      *
      * @return Une liste contenant tous les objets Track enregistrés dans la base de données.
      */
     public ArrayList<Track> getAllTracks() {
         ArrayList<Track> tracksList = new ArrayList<>();
+        forEachTrack(tracksList::add);
+        return tracksList;
+    }
 
-        String query = searchSqlLoader.getQuery("getAllTracks");
-
-        try (PreparedStatement stmt = connection.prepareStatement(query);
-            ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                Track track = new Track(
-                    rs.getInt("track_id"),
-                    rs.getString("title"),
-                    getArtistName(rs.getInt("artist_id")),
-                    getAlbumName(rs.getInt("album_id")),
-                    String.valueOf(rs.getInt("year")),
-                    rs.getInt("duration_sec"),
-                    getTrackTag(rs.getInt("track_id")),
-                    rs.getString("file_path"),
-                    rs.getString("cover_path"),
-                    rs.getString("lyrics_path"),
-                    rs.getString("karaoke_path")
-                );
-                tracksList.add(track);
+    /**
+     * Parcourt tous les morceaux de la base au fil du curseur JDBC.
+     * Chaque morceau est transmis au consommateur dès sa lecture : aucune liste intermédiaire
+     * n'est construite, la mémoire occupée ne dépend que de ce que le consommateur conserve.
+     *
+     * @param consumer Action appliquée à chaque morceau, dans l'ordre de lecture.
+     * @return Le nombre de morceaux transmis.
+     */
+    public int forEachTrack(Consumer<Track> consumer) {
+        int count = 0;
+        try {
+            PreparedStatement stmt = prepare("getAllTracks");
+            stmt.setFetchSize(Config.TRACK_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(createTrackFromResultSet(rs));
+                    count++;
+                }
             }
         } catch (SQLException e) {
+            statementCache.evict("getAllTracks");
             logger.log(Level.SEVERE, "Erreur lors de la récupération de tous les morceaux", e);
             AlertManager.showErrorWithException("Erreur de chargement", 
                 "Impossible de récupérer tous les morceaux", e);
         }
-        return tracksList;
+        return count;
     }
 }
-
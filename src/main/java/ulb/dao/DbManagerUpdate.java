@@ -1,12 +1,17 @@
 package ulb.dao;
 import ulb.model.*;
-import ulb.Config;
 import ulb.view.utils.AlertManager;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -15,71 +20,116 @@ import java.util.logging.Level;
  * Hérite de DbManager pour réutiliser les méthodes de gestion des clés primaires.
  */
 public class DbManagerUpdate extends DbManager {
-     private final SQLLoader updateSqlLoader = new SQLLoader(Config.UPDATE_QUERIES_SQL_FILE);//Chargeur SQL pour les requêtes de mise à jour dans la base de données
     private DbManagerInsert dbInsert;
     private static final Logger logger = Logger.getLogger(DbManagerUpdate.class.getName());
 
     public DbManagerUpdate(Connection  connection, DbManagerInsert dbInsert) {
-        super(connection);
+        super(connection, dbInsert != null ? dbInsert.getIdCache() : null); // partage le dictionnaire d'IDs de l'inserteur
         this.dbInsert = dbInsert;
+        if (SlowQueryLog.isEnabled()) {
+            statementCache.setSlowQueryLog(SlowQueryLog.getInstance()); // mises à jour lentes journalisées avec leur plan
+        }
     }
 
+    /**
+     * Enregistre en base tous les morceaux modifiés signalés par le ChangeTracker,
+     * en une seule transaction. Les morceaux dont la mise à jour échoue restent signalés :
+     * ils seront de nouveau enregistrés à la synchronisation suivante.
+     */
     public void syncTracks(){
-        for(Integer id : changes.getTracksChanged()){
-            updateTrack(trackLibrary.get(id));
+        List<Track> dirtyTracks = new ArrayList<>();
+        for(Integer id : changes.drainChanges()){
+            Track track = trackLibrary.get(id);
+            if (track != null) { // le morceau a pu être retiré de la bibliothèque entre-temps
+                dirtyTracks.add(track);
+            }
+        }
+        List<Track> failed = new ArrayList<>();
+        updateTracks(dirtyTracks, failed);
+        if (!failed.isEmpty()) {
+            List<Integer> failedIds = new ArrayList<>();
+            for (Track track : failed) {
+                failedIds.add(track.getTrackId());
+            }
+            changes.requeueChanges(failedIds);
+            logger.warning("⚠️ " + failed.size() + " morceau(x) non enregistré(s), gardé(s) pour la prochaine synchronisation.");
         }
-        changes.clearChanges();
     }
 
+    /**
+     * Met à jour un morceau existant (titre, année, durée, couverture, artiste, album et genre).
+     * @param track Le morceau modifié, retrouvé en base par son chemin de fichier.
+     * @return true si la mise à jour a réussi, false sinon.
+     */
     public boolean updateTrack(Track track) {
-        logger.info("🔍 Recherche du morceau avec le file_path : " + track.getFilePath());
-        Track existingTrack = findTrackByFilePath(track.getFilePath());
+        return updateTracks(List.of(track)) == 1;
+    }
 
-        if (existingTrack == null) {
-            logger.warning("Le morceau à mettre à jour n'existe pas: " + track.getFilePath());
-            AlertManager.showWarning("Mise à jour impossible", 
-                "Le morceau à mettre à jour n'existe pas.");
-            return false;
-        }
+    /**
+     * Met à jour plusieurs morceaux dans une seule transaction.
+     * Chaque morceau est appliqué sous un point de sauvegarde : un morceau en échec
+     * est annulé seul, sans empêcher l'enregistrement des autres.
+     * @param tracks Les morceaux modifiés.
+     * @return Le nombre de morceaux effectivement mis à jour.
+     */
+    public int updateTracks(Collection<Track> tracks) {
+        return updateTracks(tracks, new ArrayList<>());
+    }
 
-        logger.info("✅ Track trouvé : " + existingTrack.getTitle());
-        
+    /**
+     * Met à jour plusieurs morceaux dans une seule transaction, en relevant ceux qui n'ont pas été enregistrés.
+     * @param tracks Les morceaux modifiés.
+     * @param failed Reçoit les morceaux dont la mise à jour a été annulée (tous si la transaction échoue).
+     * @return Le nombre de morceaux effectivement mis à jour.
+     */
+    protected int updateTracks(Collection<Track> tracks, List<Track> failed) {
+        if (tracks.isEmpty()) return 0;
+
+        int updated = 0;
+        Map<String, Integer> renamed = new HashMap<>(); // nouveau titre -> ID des morceaux renommés
+        List<String> oldTitles = new ArrayList<>();
         boolean autoCommitStatus = false;
         try {
             autoCommitStatus = connection.getAutoCommit();
             connection.setAutoCommit(false); // Start transaction
+            idCache.startRecording();
 
-            if (!updateTrackInfo(track, existingTrack)) {
-                connection.rollback();
-                return false;
-            }
-            if (!updateArtistInfo(track.getArtist(), existingTrack.getArtist(), existingTrack.getTrackId())) { // Pass trackId for artist update
-                connection.rollback();
-                return false;
-            }
-            if (!updateAlbumInfo(track.getAlbum(), existingTrack.getAlbum(), track.getArtist(), existingTrack.getTrackId())) { // Pass trackId for album update
-                connection.rollback();
-                return false;
-            }
-            if (!updateTagInfo(track, existingTrack)) {
-                connection.rollback();
-                return false;
+            for (Track track : tracks) {
+                int cacheMark = idCache.recordingMark();
+                Savepoint savepoint = connection.setSavepoint();
+                Track existingTrack = applyTrackUpdate(track);
+                if (existingTrack == null) {
+                    rollbackTrackUpdate(savepoint, cacheMark);
+                    failed.add(track);
+                    continue;
+                }
+                connection.releaseSavepoint(savepoint);
+                updated++;
+                if (!track.getTitle().equals(existingTrack.getTitle())) {
+                    oldTitles.add(existingTrack.getTitle());
+                    renamed.put(track.getTitle(), existingTrack.getTrackId());
+                }
             }
 
             connection.commit(); // Commit transaction
-            logger.info("✅ Mise à jour complète du morceau !");
-            return true;
+            oldTitles.forEach(oldTitle -> idCache.remove(IdCache.Entity.TRACK, oldTitle));
+            renamed.forEach((newTitle, id) -> idCache.put(IdCache.Entity.TRACK, newTitle, id));
+            logger.info("✅ Mise à jour de " + updated + "/" + tracks.size() + " morceau(x) !");
+            return updated;
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur SQL lors de la mise à jour transactionnelle du morceau", e);
+            logger.log(Level.SEVERE, "Erreur SQL lors de la mise à jour transactionnelle des morceaux", e);
+            failed.clear();
+            failed.addAll(tracks); // rien n'a été enregistré
             try {
-                connection.rollback(); // Rollback on error
+                rollbackTrackUpdate(null, 0); // Rollback on error
             } catch (SQLException ex) {
-                logger.log(Level.SEVERE, "Erreur lors du rollback de la mise à jour du morceau", ex);
+                logger.log(Level.SEVERE, "Erreur lors du rollback de la mise à jour des morceaux", ex);
             }
             AlertManager.showErrorWithException("Erreur de base de données", 
                 "Impossible de mettre à jour le morceau transactionnellement.", e);
-            return false;
+            return 0;
         } finally {
+            idCache.stopRecording();
             try {
                 if (autoCommitStatus) { // Only set back if it was true
                     connection.setAutoCommit(true); // Restore auto-commit status
@@ -90,32 +140,71 @@ public class DbManagerUpdate extends DbManager {
         }
     }
 
-    private Track findTrackByFilePath(String filePath) {
-        String query = updateSqlLoader.getQuery("findTrackByFilePath");
+    /**
+     * Applique la mise à jour d'un morceau dans la transaction courante.
+     * @param track Le morceau modifié.
+     * @return L'état du morceau en base avant la mise à jour, ou null si elle a échoué.
+     */
+    private Track applyTrackUpdate(Track track) {
+        logger.info("🔍 Recherche du morceau avec le file_path : " + track.getFilePath());
+        Track existingTrack = findTrackByFilePath(track.getFilePath());
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, filePath);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                int artistId = rs.getInt("artist_id");
-                int albumId = rs.getInt("album_id");
-                int tagId = rs.getInt("tag_id");
+        if (existingTrack == null) {
+            logger.warning("Le morceau à mettre à jour n'existe pas: " + track.getFilePath());
+            AlertManager.showWarning("Mise à jour impossible", 
+                "Le morceau à mettre à jour n'existe pas.");
+            return null;
+        }
+
+        logger.info("✅ Track trouvé : " + existingTrack.getTitle());
+        if (!updateTrackInfo(track, existingTrack)
+            || !updateArtistInfo(track.getArtist(), existingTrack.getArtist(), existingTrack.getTrackId()) // Pass trackId for artist update
+            || !updateAlbumInfo(track.getAlbum(), existingTrack.getAlbum(), track.getArtist(), existingTrack.getTrackId()) // Pass trackId for album update
+            || !updateTagInfo(track, existingTrack)) {
+            return null;
+        }
+        return existingTrack;
+    }
+
+    /**
+     * Annule la mise à jour en cours, jusqu'au point de sauvegarde donné ou entièrement.
+     * Seuls les artistes, albums ou tags mémorisés depuis ce point sont oubliés du dictionnaire d'IDs :
+     * les autres entrées restent valides.
+     * @param savepoint Point de sauvegarde du morceau en échec, ou null pour annuler toute la transaction.
+     * @param cacheMark Marque du relevé du dictionnaire prise avec le point de sauvegarde (0 pour toute la transaction).
+     */
+    private void rollbackTrackUpdate(Savepoint savepoint, int cacheMark) throws SQLException {
+        idCache.evictRecordedSince(cacheMark);
+        if (savepoint != null) {
+            connection.rollback(savepoint);
+        } else {
+            connection.rollback();
+        }
+    }
 
-                return new Track(
-                    rs.getInt("track_id"),
-                    rs.getString("title"),
-                    getArtistNameById(artistId),  
-                    getAlbumTitleById(albumId),   
-                    rs.getString("year"),
-                    rs.getInt("duration_sec"),
-                    getTagNameById(tagId),        
-                    rs.getString("file_path"),
-                    rs.getString("cover_path"),
-                    rs.getString("lyrics_path"),
-                    rs.getString("karaoke_path")
-                );
+    private Track findTrackByFilePath(String filePath) {
+        try {
+            PreparedStatement stmt = prepare("findTrackByFilePath");
+            stmt.setString(1, filePath);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Track(
+                        rs.getInt("track_id"),
+                        rs.getString("title"),
+                        rs.getString("artist"),
+                        rs.getString("album"),
+                        rs.getString("year"),
+                        rs.getInt("duration_sec"),
+                        rs.getString("genre"),
+                        rs.getString("file_path"),
+                        rs.getString("cover_path"),
+                        rs.getString("lyrics_path"),
+                        rs.getString("karaoke_path")
+                    );
+                }
             }
         } catch (SQLException e) {
+            statementCache.evict("findTrackByFilePath");
             logger.log(Level.SEVERE, "Erreur lors de la recherche du morceau", e);
             AlertManager.showErrorWithException("Erreur de recherche", 
                 "Impossible de trouver le morceau avec le chemin spécifié", e);
@@ -125,17 +214,20 @@ public class DbManagerUpdate extends DbManager {
 
     private boolean updateTrackInfo(Track newTrack, Track existingTrack) {
         logger.info("🔄 Mise à jour des informations du morceau...");
-        String query = updateSqlLoader.getQuery("updateTrackInfo");
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        if (!dbInsert.insertCover(newTrack.getCoverPath())) return false;
+        try {
+            PreparedStatement stmt = prepare("updateTrackInfo");
             stmt.setString(1, newTrack.getTitle());
             stmt.setString(2, newTrack.getYear());
             stmt.setInt(3, newTrack.getDuration());
             stmt.setString(4, newTrack.getCoverPath());
-            stmt.setInt(5, existingTrack.getTrackId());
+            stmt.setString(5, CoverStore.hashOf(newTrack.getCoverPath()));
+            stmt.setInt(6, existingTrack.getTrackId());
             stmt.executeUpdate();
             logger.info("✅ Mise à jour du morceau réussie.");
             return true;
         } catch (SQLException e) {
+            statementCache.evict("updateTrackInfo");
             logger.log(Level.SEVERE, "Erreur lors de la mise à jour du morceau", e);
             AlertManager.showErrorWithException("Erreur de mise à jour", 
                 "Impossible de mettre à jour les informations du morceau", e);
@@ -160,8 +252,8 @@ public class DbManagerUpdate extends DbManager {
             }
         }
 
-        String query = updateSqlLoader.getQuery("updateTrackArtist"); // Changed query name for clarity if needed
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try {
+            PreparedStatement stmt = prepare("updateTrackArtist");
             stmt.setInt(1, artistId);
             stmt.setInt(2, trackId); // Use trackId to update specific track
             int rowsAffected = stmt.executeUpdate();
@@ -173,6 +265,7 @@ public class DbManagerUpdate extends DbManager {
                 return false; // Or handle as appropriate if 0 rows affected is an error
             }
         } catch (SQLException e) {
+            statementCache.evict("updateTrackArtist");
             logger.log(Level.SEVERE, "Erreur lors de la mise à jour de l'artiste pour le morceau", e);
             AlertManager.showErrorWithException("Erreur de mise à jour", 
                 "Impossible de mettre à jour l'artiste pour le morceau", e);
@@ -197,8 +290,8 @@ public class DbManagerUpdate extends DbManager {
             }
         }
 
-        String query = updateSqlLoader.getQuery("updateTrackAlbum"); // Changed query name for clarity if needed
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try {
+            PreparedStatement stmt = prepare("updateTrackAlbum");
             stmt.setInt(1, albumId);
             stmt.setInt(2, trackId); // Use trackId to update specific track
             int rowsAffected = stmt.executeUpdate();
@@ -210,6 +303,7 @@ public class DbManagerUpdate extends DbManager {
                 return false; // Or handle as appropriate
             }
         } catch (SQLException e) {
+            statementCache.evict("updateTrackAlbum");
             logger.log(Level.SEVERE, "Erreur lors de la mise à jour de l'album pour le morceau", e);
             AlertManager.showErrorWithException("Erreur de mise à jour", 
                 "Impossible de mettre à jour l'album pour le morceau", e);
@@ -219,11 +313,12 @@ public class DbManagerUpdate extends DbManager {
 
     private boolean updateTagInfo(Track newTrack, Track existingTrack) {
         logger.info("🔄 Mise à jour des tags...");
-        String deleteQuery = updateSqlLoader.getQuery("updateTagInfoDelete");
-        try (PreparedStatement stmt = connection.prepareStatement(deleteQuery)) {
+        try {
+            PreparedStatement stmt = prepare("updateTagInfoDelete");
             stmt.setInt(1, existingTrack.getTrackId());
             stmt.executeUpdate();
         } catch (SQLException e) {
+            statementCache.evict("updateTagInfoDelete");
             logger.log(Level.SEVERE, "Erreur lors de la suppression des anciens tags", e);
             AlertManager.showErrorWithException("Erreur de mise à jour", 
                 "Impossible de supprimer les anciens tags", e);
@@ -236,14 +331,15 @@ public class DbManagerUpdate extends DbManager {
             tagId = getTagId(newTrack.getGenre());
         }
 
-        String insertQuery = updateSqlLoader.getQuery("updateTagInfoInsert");
-        try (PreparedStatement stmt = connection.prepareStatement(insertQuery)) {
+        try {
+            PreparedStatement stmt = prepare("updateTagInfoInsert");
             stmt.setInt(1, existingTrack.getTrackId());
             stmt.setInt(2, tagId);
             stmt.executeUpdate();
             logger.info("✅ Mise à jour des tags réussie.");
             return true;
         } catch (SQLException e) {
+            statementCache.evict("updateTagInfoInsert");
             logger.log(Level.SEVERE, "Erreur lors de l'ajout du tag", e);
             AlertManager.showErrorWithException("Erreur de mise à jour", 
                 "Impossible d'ajouter le nouveau tag", e);
@@ -251,33 +347,6 @@ public class DbManagerUpdate extends DbManager {
         }
     }
 
-    private String getArtistNameById(int artistId) {
-        return getStringValue(updateSqlLoader.getQuery("getArtistNameByArtistId"), artistId);
-    }
-
-    private String getAlbumTitleById(int albumId) {
-        return getStringValue(updateSqlLoader.getQuery("getAlbumTitleByAlbumId"), albumId);
-    }
-
-    private String getTagNameById(int tagId) {
-        return getStringValue(updateSqlLoader.getQuery("getTagNameByTagId"), tagId);
-    }
-
-    private String getStringValue(String query, int id) {
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString(1);
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Erreur lors de la récupération des données", e);
-            AlertManager.showErrorWithException("Erreur de base de données", 
-                "Impossible de récupérer les données", e);
-        }
-        return null;
-    }
-
     /**
      * Supprime une playlist de la base de données.
      * @param playlistTitle Le titre de la playlist à supprimer
@@ -292,31 +361,30 @@ public class DbManagerUpdate extends DbManager {
             connection.setAutoCommit(false); // Start transaction
 
             // Supprimer d'abord les entrées dans la table PlaylistTrack
-            String deleteTracksQuery = "DELETE FROM PlaylistTrack WHERE playlist_id = (SELECT playlist_id FROM Playlist WHERE name = ?);";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteTracksQuery)) {
-                stmt.setString(1, playlistTitle);
-                stmt.executeUpdate(); 
-                // We don't strictly need to check rows affected here, 
-                // as it's okay if a playlist had no tracks.
-            }
+            PreparedStatement deleteTracks = prepare("deletePlaylistTracks");
+            deleteTracks.setString(1, playlistTitle);
+            deleteTracks.executeUpdate(); 
+            // We don't strictly need to check rows affected here, 
+            // as it's okay if a playlist had no tracks.
             
             // Ensuite supprimer la playlist elle-même
-            String deletePlaylistQuery = "DELETE FROM Playlist WHERE name = ?;";
-            try (PreparedStatement stmt = connection.prepareStatement(deletePlaylistQuery)) {
-                stmt.setString(1, playlistTitle);
-                int rowsAffected = stmt.executeUpdate();
-                
-                if (rowsAffected > 0) {
-                    connection.commit(); // Commit transaction
-                    logger.info("✅ Playlist supprimée avec succès.");
-                    return true;
-                } else {
-                    connection.rollback(); // Rollback if playlist not found / not deleted
-                    logger.info("⚠️ Aucune playlist trouvée avec ce titre ou échec de la suppression.");
-                    return false;
-                }
+            PreparedStatement deletePlaylist = prepare("deletePlaylist");
+            deletePlaylist.setString(1, playlistTitle);
+            int rowsAffected = deletePlaylist.executeUpdate();
+            
+            if (rowsAffected > 0) {
+                connection.commit(); // Commit transaction
+                idCache.remove(IdCache.Entity.PLAYLIST, playlistTitle);
+                logger.info("✅ Playlist supprimée avec succès.");
+                return true;
+            } else {
+                connection.rollback(); // Rollback if playlist not found / not deleted
+                logger.info("⚠️ Aucune playlist trouvée avec ce titre ou échec de la suppression.");
+                return false;
             }
         } catch (SQLException e) {
+            statementCache.evict("deletePlaylistTracks");
+            statementCache.evict("deletePlaylist");
             logger.log(Level.SEVERE, "Erreur SQL lors de la suppression de la playlist", e);
             try {
                 connection.rollback(); // Rollback on error
@@ -0,0 +1,140 @@
+package ulb.dao;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionnaire en mémoire associant le nom des entités (morceaux, artistes, albums,
+ * tags, playlists, utilisateurs) à leur clé primaire.
+ * <p>
+ * Partagé par les gestionnaires DAO d'une même connexion, il est rempli au démarrage
+ * puis tenu à jour par les chemins d'insertion, de mise à jour et de suppression.
+ * Seules les entités existantes sont mémorisées : une absence renvoie toujours à la base.
+ * Pendant une transaction, les entrées ajoutées par le thread d'écriture peuvent être relevées
+ * ({@link #startRecording()}) pour n'oublier que celles d'un point de sauvegarde annulé.
+ * </p>
+ */
+public class IdCache {
+
+    /**
+     * Entités mémorisées, avec le tag de la requête de recherche d'ID et celui
+     * de la requête de préchargement (dans common_queries.sql).
+     */
+    public enum Entity {
+        TRACK("getTrackIdByTitle", "getAllTrackIds"),
+        ARTIST("getArtistIdByName", "getAllArtistIds"),
+        ALBUM("getAlbumIdByTitle", "getAllAlbumIds"),
+        TAG("getTagIdByName", "getAllTagIds"),
+        PLAYLIST("getPlaylistIdByName", "getAllPlaylistIds"),
+        USER("getUserIdByUsername", "getAllUserIds");
+
+        private final String lookupTag;
+        private final String warmUpTag;
+
+        Entity(String lookupTag, String warmUpTag) {
+            this.lookupTag = lookupTag;
+            this.warmUpTag = warmUpTag;
+        }
+
+        public String getLookupTag() {
+            return lookupTag;
+        }
+
+        public String getWarmUpTag() {
+            return warmUpTag;
+        }
+    }
+
+    private final Map<Entity, Map<String, Integer>> ids = new EnumMap<>(Entity.class);
+    // Entrées ajoutées par le thread courant depuis startRecording, null hors enregistrement
+    private final ThreadLocal<List<Map.Entry<Entity, String>>> recorded = new ThreadLocal<>();
+
+    public IdCache() {
+        for (Entity entity : Entity.values()) {
+            ids.put(entity, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * @return L'ID mémorisé pour ce nom, ou null s'il est inconnu du cache.
+     */
+    public Integer get(Entity entity, String name) {
+        if (name == null) return null;
+        return ids.get(entity).get(name);
+    }
+
+    /**
+     * Mémorise l'ID d'une entité existante.
+     */
+    public void put(Entity entity, String name, int id) {
+        if (name == null || id == -1) return;
+        Integer previous = ids.get(entity).put(name, id);
+        List<Map.Entry<Entity, String>> entries = recorded.get();
+        if (entries != null && (previous == null || previous != id)) {
+            entries.add(Map.entry(entity, name));
+        }
+    }
+
+    /**
+     * Oublie une entité (suppression ou renommage).
+     */
+    public void remove(Entity entity, String name) {
+        if (name == null) return;
+        ids.get(entity).remove(name);
+    }
+
+    /**
+     * Vide tout le cache, par exemple après l'annulation d'une transaction.
+     */
+    public void clear() {
+        for (Map<String, Integer> entries : ids.values()) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Commence à relever les entrées ajoutées par le thread courant (début de transaction).
+     */
+    public void startRecording() {
+        recorded.set(new ArrayList<>());
+    }
+
+    /**
+     * @return Une marque de la position courante du relevé, à passer à {@link #evictRecordedSince(int)}.
+     */
+    public int recordingMark() {
+        List<Map.Entry<Entity, String>> entries = recorded.get();
+        return entries == null ? 0 : entries.size();
+    }
+
+    /**
+     * Oublie les entrées ajoutées par le thread courant depuis la marque donnée
+     * (annulation d'un point de sauvegarde, ou de toute la transaction avec la marque 0).
+     */
+    public void evictRecordedSince(int mark) {
+        List<Map.Entry<Entity, String>> entries = recorded.get();
+        if (entries == null) return;
+        List<Map.Entry<Entity, String>> evicted = entries.subList(mark, entries.size());
+        for (Map.Entry<Entity, String> entry : evicted) {
+            ids.get(entry.getKey()).remove(entry.getValue());
+        }
+        evicted.clear();
+    }
+
+    /**
+     * Arrête le relevé du thread courant (fin de transaction) ; les entrées restent mémorisées.
+     */
+    public void stopRecording() {
+        recorded.remove();
+    }
+
+    /**
+     * @return Le nombre d'entrées mémorisées pour une entité.
+     */
+    public int size(Entity entity) {
+        return ids.get(entity).size();
+    }
+}
@@ -0,0 +1,181 @@
+package ulb.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Enveloppe d'une requête préparée du StatementCache : chronomètre ses exécutions pour
+ * {@link QueryMetrics} et signale les requêtes lentes au {@link SlowQueryLog} éventuel.
+ * Les paramètres liés ne sont mémorisés que si un journal des requêtes lentes est branché.
+ * <p>
+ * SQLite rend la main à {@code executeQuery} dès la première ligne : le coût d'un parcours complet
+ * se paie dans {@code ResultSet.next()}. Le ResultSet est donc enveloppé à son tour, et la mesure
+ * d'une lecture (exécution + temps passé dans {@code next()}) n'est relevée qu'à sa fermeture
+ * ou à la dernière ligne.
+ * </p>
+ */
+final class InstrumentedStatement implements InvocationHandler {
+    private static final Set<String> TIMED_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeBatch", "executeLargeUpdate", "executeLargeBatch");
+
+    private final String tag;
+    private final String sql;
+    private final PreparedStatement delegate;
+    private final SlowQueryLog slowQueryLog;           // null : pas de journal des requêtes lentes
+    private final List<Object> parameters = new ArrayList<>(); // valeurs liées, par index - 1
+
+    private InstrumentedStatement(String tag, String sql, PreparedStatement delegate, SlowQueryLog slowQueryLog) {
+        this.tag = tag;
+        this.sql = sql;
+        this.delegate = delegate;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Enveloppe la requête si les mesures sont actives ou si un journal des requêtes lentes est fourni.
+     * @param tag Tag SQLLoader de la requête.
+     * @param sql Texte SQL de la requête.
+     * @param statement Requête préparée.
+     * @param slowQueryLog Journal des requêtes lentes, ou null.
+     * @return La requête enveloppée, ou la requête d'origine si rien n'est à mesurer.
+     */
+    static PreparedStatement wrap(String tag, String sql, PreparedStatement statement, SlowQueryLog slowQueryLog) {
+        if (!QueryMetrics.isEnabled() && slowQueryLog == null) return statement;
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            new InstrumentedStatement(tag, sql, statement, slowQueryLog));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (slowQueryLog != null) {
+            captureParameter(name, args);
+        }
+        if (!TIMED_METHODS.contains(name)) {
+            return call(method, args);
+        }
+        List<Object> boundParameters = slowQueryLog != null ? new ArrayList<>(parameters) : null;
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call(method, args);
+        } catch (Throwable e) {
+            record(System.nanoTime() - start, true, boundParameters);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (result instanceof ResultSet resultSet && name.equals("executeQuery")) {
+            return TimedResultSet.wrap(resultSet, elapsed, this, boundParameters); // mesure relevée à la fermeture
+        }
+        record(elapsed, false, boundParameters);
+        return result;
+    }
+
+    /**
+     * Relève une mesure et signale l'exécution si elle est lente.
+     */
+    private void record(long elapsed, boolean failed, List<Object> boundParameters) {
+        QueryMetrics.record(tag, elapsed, failed);
+        if (slowQueryLog != null && !failed && slowQueryLog.isSlow(elapsed)) {
+            slowQueryLog.report(tag, sql, boundParameters, elapsed, delegate);
+        }
+    }
+
+    /**
+     * Mémorise la valeur liée par un appel setXxx(index, valeur), ou oublie les valeurs sur clearParameters.
+     */
+    private void captureParameter(String name, Object[] args) {
+        if (name.equals("clearParameters")) {
+            parameters.clear();
+        } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            Object value = name.equals("setNull") ? null : args[1];
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        return call(delegate, method, args);
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause(); // SQLException d'origine, attendue par les gestionnaires
+        }
+    }
+
+    /**
+     * Enveloppe du ResultSet d'une lecture : cumule le temps passé dans {@code next()} à celui de l'exécution,
+     * puis relève la mesure une seule fois, à la dernière ligne, à la fermeture ou à la première erreur.
+     * Le temps de traitement des lignes par l'appelant n'est pas compté.
+     */
+    private static final class TimedResultSet implements InvocationHandler {
+        private final ResultSet delegate;
+        private final InstrumentedStatement statement;
+        private final List<Object> boundParameters;
+        private long elapsed;
+        private boolean recorded = false;
+
+        private TimedResultSet(ResultSet delegate, long elapsed, InstrumentedStatement statement, List<Object> boundParameters) {
+            this.delegate = delegate;
+            this.elapsed = elapsed;
+            this.statement = statement;
+            this.boundParameters = boundParameters;
+        }
+
+        static ResultSet wrap(ResultSet resultSet, long elapsed, InstrumentedStatement statement, List<Object> boundParameters) {
+            return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                new TimedResultSet(resultSet, elapsed, statement, boundParameters));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                try {
+                    return call(delegate, method, args);
+                } finally {
+                    finish(false);
+                }
+            }
+            if (!name.equals("next")) {
+                return call(delegate, method, args);
+            }
+            long start = System.nanoTime();
+            boolean hasRow;
+            try {
+                hasRow = (Boolean) call(delegate, method, args);
+            } catch (Throwable e) {
+                elapsed += System.nanoTime() - start;
+                finish(true);
+                throw e;
+            }
+            elapsed += System.nanoTime() - start;
+            if (!hasRow) {
+                finish(false); // parcours terminé
+            }
+            return hasRow;
+        }
+
+        private void finish(boolean failed) {
+            if (recorded) return;
+            recorded = true;
+            statement.record(elapsed, failed, boundParameters);
+        }
+    }
+}
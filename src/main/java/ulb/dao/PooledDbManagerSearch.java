@@ -0,0 +1,126 @@
+package ulb.dao;
+
+import ulb.model.Track;
+import ulb.model.TrackLibrary;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Gestionnaire de recherche dont les requêtes s'exécutent sur le pool de lecteurs
+ * du ConnectionManager plutôt que sur la connexion de l'écrivain.
+ * Les recherches lancées depuis plusieurs threads ne se bloquent donc plus mutuellement.
+ */
+public class PooledDbManagerSearch extends DbManagerSearch {
+    private final ConnectionManager connectionManager;
+
+    /**
+     * @param connection Connexion principale (lookups d'ID non mis en cache).
+     * @param idCache Dictionnaire d'IDs partagé.
+     * @param connectionManager Pool de lecteurs sur lequel les recherches sont exécutées.
+     */
+    public PooledDbManagerSearch(Connection connection, IdCache idCache, ConnectionManager connectionManager) {
+        super(connection, idCache);
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void setTrackLibrary(TrackLibrary trackLibrary) {
+        super.setTrackLibrary(trackLibrary);
+        connectionManager.setTrackLibrary(trackLibrary); // les recherches s'exécutent sur les lecteurs du pool
+    }
+
+    // Les recherches d'ID et le compteur de modifications passent aussi par le pool : ils ne voient
+    // que des données validées, jamais la transaction en cours de l'écrivain sur la connexion principale.
+
+    @Override
+    public int getId(String tag, String parameter) {
+        return connectionManager.read(reader -> reader.getId(tag, parameter));
+    }
+
+    @Override
+    public long getChangeCounter() {
+        return connectionManager.read(DbManagerSearch::getChangeCounter);
+    }
+
+    @Override
+    public void warmUpIdCache() {
+        connectionManager.read(reader -> {
+            reader.warmUpIdCache(); // même dictionnaire d'IDs que ce gestionnaire
+            return null;
+        });
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksByTitle(String title) {
+        return connectionManager.read(reader -> reader.searchTracksByTitle(title));
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksByArtist(String artistName) {
+        return connectionManager.read(reader -> reader.searchTracksByArtist(artistName));
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksByAlbum(String albumTitle) {
+        return connectionManager.read(reader -> reader.searchTracksByAlbum(albumTitle));
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksByTag(String tagName) {
+        return connectionManager.read(reader -> reader.searchTracksByTag(tagName));
+    }
+
+    @Override
+    public ArrayList<Track> getTracksPage(Track after, int limit) {
+        return connectionManager.read(reader -> reader.getTracksPage(after, limit));
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksByTitlePage(String title, Track after, int limit) {
+        return connectionManager.read(reader -> reader.searchTracksByTitlePage(title, after, limit));
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksByArtistPage(String artistName, Track after, int limit) {
+        return connectionManager.read(reader -> reader.searchTracksByArtistPage(artistName, after, limit));
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksByAlbumPage(String albumTitle, Track after, int limit) {
+        return connectionManager.read(reader -> reader.searchTracksByAlbumPage(albumTitle, after, limit));
+    }
+
+    @Override
+    public ArrayList<Track> searchTracksFullText(String query) {
+        return connectionManager.read(reader -> reader.searchTracksFullText(query));
+    }
+
+    @Override
+    public Map<String, List<Track>> getAllPlaylistsWithTracks() {
+        return connectionManager.read(DbManagerSearch::getAllPlaylistsWithTracks);
+    }
+
+    @Override
+    public List<String> getAllPlaylistTitles() {
+        return connectionManager.read(DbManagerSearch::getAllPlaylistTitles);
+    }
+
+    @Override
+    public List<Track> getTracksForPlaylist(String playlistTitle) {
+        return connectionManager.read(reader -> reader.getTracksForPlaylist(playlistTitle));
+    }
+
+    @Override
+    public ArrayList<Track> getAllTracks() {
+        return connectionManager.read(DbManagerSearch::getAllTracks);
+    }
+
+    @Override
+    public int forEachTrack(Consumer<Track> consumer) {
+        return connectionManager.read(reader -> reader.forEachTrack(consumer));
+    }
+}
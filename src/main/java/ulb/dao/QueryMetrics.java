@@ -0,0 +1,215 @@
+package ulb.dao;
+
+import ulb.Config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Mesures de latence des requêtes SQL, regroupées par tag SQLLoader, pour tout le processus.
+ * <p>
+ * ➤ Chaque requête préparée par le StatementCache est enveloppée (InstrumentedStatement) : ses exécutions
+ *   (execute, executeQuery, executeUpdate, executeBatch) sont chronométrées et comptées.
+ * ➤ Les durées sont rangées dans un histogramme logarithmique (4 classes par puissance de deux) :
+ *   p50 et p99 sont approchés à ~20 % près, le maximum est exact.
+ * ➤ Désactivées, les requêtes ne sont pas enveloppées : aucun coût hors d'un test booléen.
+ * </p>
+ * Pour une requête de lecture, la durée couvre l'exécution et le parcours du ResultSet (temps passé dans next()),
+ * relevée à sa fermeture ou à la dernière ligne ; le traitement des lignes par l'appelant n'est pas compté.
+ */
+public final class QueryMetrics {
+    private static final Logger logger = Logger.getLogger(QueryMetrics.class.getName());
+
+    private static final int SUB_BUCKETS = 4;                  // classes par puissance de deux
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private static volatile boolean enabled = Config.QUERY_METRICS_ENABLED;
+    private static final Map<String, TagMetrics> metrics = new ConcurrentHashMap<>();
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Statistiques d'un tag à un instant donné (durées en microsecondes).
+     */
+    public static final class TagStats {
+        private final String tag;
+        private final long calls;
+        private final long errors;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        TagStats(String tag, long calls, long errors, long p50Micros, long p99Micros, long maxMicros) {
+            this.tag = tag;
+            this.calls = calls;
+            this.errors = errors;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-32s appels=%d erreurs=%d p50=%dµs p99=%dµs max=%dµs",
+                tag, calls, errors, p50Micros, p99Micros, maxMicros);
+        }
+    }
+
+    /**
+     * Compteurs d'un tag, mis à jour sans verrou depuis plusieurs threads.
+     */
+    private static final class TagMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos, boolean failed) {
+            calls.increment();
+            if (failed) errors.increment();
+            maxNanos.accumulate(nanos);
+            histogram.incrementAndGet(bucketOf(nanos));
+        }
+
+        TagStats snapshot(String tag) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            long max = maxNanos.get();
+            return new TagStats(tag, calls.sum(), errors.sum(),
+                Math.min(percentile(counts, total, 0.50), max) / 1000,
+                Math.min(percentile(counts, total, 0.99), max) / 1000,
+                max / 1000);
+        }
+    }
+
+    /**
+     * @return true si les requêtes sont chronométrées
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Active ou désactive les mesures ; les requêtes déjà préparées restent enveloppées mais n'enregistrent plus rien.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Enregistre une exécution.
+     * @param tag Tag SQLLoader de la requête.
+     * @param nanos Durée d'exécution en nanosecondes.
+     * @param failed true si l'exécution a levé une exception.
+     */
+    public static void record(String tag, long nanos, boolean failed) {
+        if (!enabled) return;
+        metrics.computeIfAbsent(tag, t -> new TagMetrics()).record(Math.max(0, nanos), failed);
+    }
+
+    /**
+     * @param tag Tag SQLLoader de la requête.
+     * @return Les statistiques du tag, ou null s'il n'a jamais été exécuté.
+     */
+    public static TagStats get(String tag) {
+        TagMetrics tagMetrics = metrics.get(tag);
+        return tagMetrics == null ? null : tagMetrics.snapshot(tag);
+    }
+
+    /**
+     * @return Les statistiques de tous les tags exécutés, de la plus grande durée p99 à la plus petite.
+     */
+    public static List<TagStats> snapshot() {
+        List<TagStats> stats = new ArrayList<>();
+        metrics.forEach((tag, tagMetrics) -> stats.add(tagMetrics.snapshot(tag)));
+        stats.sort(Comparator.comparingLong(TagStats::getP99Micros).reversed());
+        return stats;
+    }
+
+    /**
+     * Oublie toutes les mesures.
+     */
+    public static void reset() {
+        metrics.clear();
+    }
+
+    /**
+     * Écrit les statistiques de chaque tag dans le journal (appelé à la fermeture de l'application).
+     */
+    public static void logSummary() {
+        List<TagStats> stats = snapshot();
+        if (stats.isEmpty()) return;
+        StringBuilder summary = new StringBuilder("📊 Latence des requêtes SQL par tag :");
+        for (TagStats tagStats : stats) {
+            summary.append(System.lineSeparator()).append("  ").append(tagStats);
+        }
+        logger.info(summary.toString());
+    }
+
+    /**
+     * Classe de l'histogramme : 4 classes par puissance de deux de la durée en nanosecondes.
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int fraction = (int) ((nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1));
+        return Math.min(exponent * SUB_BUCKETS + fraction, BUCKETS - 1);
+    }
+
+    /**
+     * Borne supérieure (en nanosecondes) de la plus petite classe couvrant la fraction demandée des exécutions.
+     */
+    private static long percentile(long[] counts, long total, double fraction) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(counts.length - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS;
+        int fraction = bucket % SUB_BUCKETS;
+        return (1L << exponent) + ((long) (fraction + 1) << (exponent - 2)) - 1;
+    }
+}
@@ -0,0 +1,148 @@
+package ulb.dao;
+
+import ulb.Config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * Catalogue des requêtes SQL de l'application, chargé une seule fois pour tout le processus.
+ * <p>
+ * ➤ Tous les fichiers SQL sont lus au premier accès ; le catalogue est ensuite immuable et partagé,
+ *   la construction d'un gestionnaire DAO ne relit donc aucun fichier.
+ * ➤ Le chargement échoue immédiatement si un fichier est vide ou illisible, si un tag est défini deux fois
+ *   ou si un tag attendu par le dictionnaire d'IDs manque.
+ * ➤ {@link #validate(Connection)} prépare chaque requête des gestionnaires contre le schéma réel :
+ *   une requête invalide est signalée au démarrage plutôt qu'à sa première exécution.
+ * </p>
+ */
+public final class SQLCatalog {
+    private static final Logger logger = Logger.getLogger(SQLCatalog.class.getName());
+
+    // Requêtes préparées par les gestionnaires DAO (une instruction par tag)
+    private static final List<String> STATEMENT_FILES = List.of(
+        Config.COMMON_QUERIES_SQL_FILE,
+        Config.SEARCH_QUERIES_SQL_FILE,
+        Config.INSERT_QUERIES_SQL_FILE,
+        Config.UPDATE_QUERIES_SQL_FILE);
+
+    // Scripts exécutés d'un bloc (création du schéma, migrations)
+    private static final List<String> SCRIPT_FILES = List.of(
+        Config.CREATE_TABLES_SQL_FILE,
+        Config.MIGRATIONS_SQL_FILE);
+
+    private static final SQLCatalog instance = new SQLCatalog();
+
+    private final Map<String, String> queries;  // tag -> requête, tous fichiers confondus
+    private final Set<String> statementTags;    // tags des requêtes préparées par les gestionnaires
+
+    private SQLCatalog() {
+        Map<String, String> allQueries = new HashMap<>();
+        Set<String> statements = new HashSet<>();
+        for (String file : STATEMENT_FILES) {
+            statements.addAll(load(file, allQueries));
+        }
+        for (String file : SCRIPT_FILES) {
+            load(file, allQueries);
+        }
+        for (IdCache.Entity entity : IdCache.Entity.values()) {
+            requireStatement(statements, entity.getLookupTag());
+            requireStatement(statements, entity.getWarmUpTag());
+        }
+        this.queries = Map.copyOf(allQueries);
+        this.statementTags = Set.copyOf(statements);
+        logger.info("📚 Catalogue SQL chargé : " + queries.size() + " requête(s).");
+    }
+
+    /**
+     * @return Le catalogue partagé, chargé au premier appel.
+     */
+    public static SQLCatalog getInstance() {
+        return instance;
+    }
+
+    /**
+     * Récupère une requête SQL à partir de son tag.
+     * @param tag Le nom du tag.
+     * @return La requête correspondante.
+     * @throws IllegalArgumentException si aucun fichier SQL ne définit ce tag.
+     */
+    public String getQuery(String tag) {
+        String sql = queries.get(tag);
+        if (sql == null) {
+            throw new IllegalArgumentException("❌ Requête SQL inconnue : [" + tag + "]");
+        }
+        return sql;
+    }
+
+    /**
+     * @param tag Le nom du tag.
+     * @return true si un fichier SQL définit ce tag.
+     */
+    public boolean contains(String tag) {
+        return queries.containsKey(tag);
+    }
+
+    /**
+     * @return Le nombre de requêtes du catalogue.
+     */
+    public int size() {
+        return queries.size();
+    }
+
+    /**
+     * Prépare chaque requête des gestionnaires DAO sur la connexion, puis la referme.
+     * À appeler après création et migration du schéma.
+     * @param connection Connexion sur la base à valider.
+     * @throws SQLException listant toutes les requêtes refusées par le schéma courant.
+     */
+    public void validate(Connection connection) throws SQLException {
+        List<String> failures = new ArrayList<>();
+        for (String tag : new TreeSet<>(statementTags)) {
+            try (PreparedStatement ignored = connection.prepareStatement(queries.get(tag))) {
+                // la compilation suffit : rien n'est exécuté
+            } catch (SQLException e) {
+                failures.add("[" + tag + "] " + e.getMessage());
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new SQLException("Requêtes SQL invalides pour le schéma courant : " + failures);
+        }
+        logger.info("✅ " + statementTags.size() + " requête(s) SQL validée(s) contre le schéma.");
+    }
+
+    /**
+     * Ajoute les requêtes d'un fichier au catalogue.
+     * @return Les tags définis par ce fichier.
+     */
+    private static Set<String> load(String file, Map<String, String> allQueries) {
+        Map<String, String> fileQueries = new SQLLoader(file).getQueries();
+        if (fileQueries.isEmpty()) {
+            throw new IllegalStateException("❌ Aucune requête chargée depuis le fichier SQL '" + file + "'");
+        }
+        fileQueries.forEach((tag, sql) -> {
+            if (sql.isBlank()) {
+                throw new IllegalStateException("❌ Requête vide pour le tag [" + tag + "] dans '" + file + "'");
+            }
+            if (allQueries.putIfAbsent(tag, sql) != null) {
+                throw new IllegalStateException("❌ Tag SQL [" + tag + "] défini deux fois (dernier fichier : '" + file + "')");
+            }
+        });
+        return fileQueries.keySet();
+    }
+
+    private static void requireStatement(Set<String> statements, String tag) {
+        if (!statements.contains(tag)) {
+            throw new IllegalStateException("❌ Requête SQL manquante : [" + tag + "]");
+        }
+    }
+}
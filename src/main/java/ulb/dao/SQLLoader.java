@@ -2,6 +2,7 @@ package ulb.dao;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.io.IOException;
@@ -78,4 +79,11 @@ public class SQLLoader {
     public String getQuery(String tag) {
         return queries.get(tag);
     }
+
+    /**
+     * @return Toutes les requêtes chargées, indexées par leur tag (vue non modifiable).
+     */
+    public Map<String, String> getQueries() {
+        return Collections.unmodifiableMap(queries);
+    }
 }
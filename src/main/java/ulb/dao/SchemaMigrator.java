@@ -0,0 +1,73 @@
+package ulb.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Applique les migrations du schéma définies dans migrations.sql.
+ * <p>
+ * La version courante du schéma est stockée dans `PRAGMA user_version`.
+ * Chaque migration [migration_N] dont N dépasse cette version est exécutée dans sa propre
+ * transaction, qui met aussi à jour la version : une migration est appliquée entièrement ou pas du tout.
+ * </p>
+ */
+public class SchemaMigrator {
+    private static final Logger logger = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final String MIGRATION_TAG_PREFIX = "migration_";
+
+    private final Connection connection;
+
+    public SchemaMigrator(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Applique toutes les migrations en attente, dans l'ordre.
+     * @return La version du schéma après migration.
+     * @throws SQLException si une migration échoue (elle est alors annulée).
+     */
+    public int migrate() throws SQLException {
+        int version = getSchemaVersion();
+        SQLCatalog catalog = SQLCatalog.getInstance();
+        while (catalog.contains(MIGRATION_TAG_PREFIX + (version + 1))) {
+            applyMigration(version + 1, catalog.getQuery(MIGRATION_TAG_PREFIX + (version + 1)));
+            version++;
+        }
+        logger.info("ℹ️ Schéma de la base à jour (version " + version + ").");
+        return version;
+    }
+
+    /**
+     * @return La version du schéma enregistrée dans la base (0 pour une base jamais migrée).
+     * @throws SQLException si la lecture du PRAGMA échoue.
+     */
+    public int getSchemaVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Exécute une migration et enregistre la nouvelle version dans la même transaction.
+     */
+    private void applyMigration(int version, String sql) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        try (Statement stmt = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            stmt.executeUpdate(sql);
+            stmt.executeUpdate("PRAGMA user_version = " + version);
+            connection.commit();
+            logger.info("✅ Migration " + version + " appliquée.");
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.severe("❌ Échec de la migration " + version + " : " + e.getMessage());
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ulb.dao;
+
+import ulb.model.FileFingerprint;
+import ulb.model.Track;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gestionnaire d'insertion dont toutes les écritures passent par le thread écrivain
+ * unique du ConnectionManager : les transactions ne s'entrelacent jamais sur la connexion principale.
+ */
+public class SerializedDbManagerInsert extends DbManagerInsert {
+    private final ConnectionManager connectionManager;
+
+    /**
+     * @param connection Connexion principale, utilisée uniquement depuis le thread écrivain, lectures comprises.
+     * @param idCache Dictionnaire d'IDs partagé.
+     * @param connectionManager Gestionnaire fournissant le thread écrivain.
+     */
+    public SerializedDbManagerInsert(Connection connection, IdCache idCache, ConnectionManager connectionManager) {
+        super(connection, idCache);
+        this.connectionManager = connectionManager;
+    }
+
+    // Lectures sur la connexion principale : exécutées sur le thread écrivain, jamais au milieu
+    // d'une transaction d'écriture ni en concurrence sur les requêtes préparées partagées.
+
+    @Override
+    public int getId(String tag, String parameter) {
+        return connectionManager.write(() -> super.getId(tag, parameter));
+    }
+
+    @Override
+    public long getChangeCounter() {
+        return connectionManager.write(super::getChangeCounter);
+    }
+
+    @Override
+    public void warmUpIdCache() {
+        connectionManager.write(() -> {
+            super.warmUpIdCache();
+            return null;
+        });
+    }
+
+    @Override
+    public Map<String, FileFingerprint> getFileFingerprints() {
+        return connectionManager.write(super::getFileFingerprints);
+    }
+
+    @Override
+    public boolean insertUser(String username) {
+        return connectionManager.write(() -> super.insertUser(username));
+    }
+
+    @Override
+    public boolean insertArtist(String artistName) {
+        return connectionManager.write(() -> super.insertArtist(artistName));
+    }
+
+    @Override
+    public boolean insertAlbum(String albumTitle, String artistName) {
+        return connectionManager.write(() -> super.insertAlbum(albumTitle, artistName));
+    }
+
+    @Override
+    public boolean insertTag(String tagName) {
+        return connectionManager.write(() -> super.insertTag(tagName));
+    }
+
+    @Override
+    public boolean insertTrack(Track track) {
+        return connectionManager.write(() -> super.insertTrack(track));
+    }
+
+    @Override
+    public BatchResult insertTracks(Collection<Track> tracks) {
+        return connectionManager.write(() -> super.insertTracks(tracks));
+    }
+
+    @Override
+    public boolean saveFileFingerprints(Collection<FileFingerprint> fingerprints) {
+        return connectionManager.write(() -> super.saveFileFingerprints(fingerprints));
+    }
+
+    @Override
+    public int deleteTracksByFilePath(Collection<String> filePaths) {
+        return connectionManager.write(() -> super.deleteTracksByFilePath(filePaths));
+    }
+
+    @Override
+    public boolean insertCover(String coverPath) {
+        return connectionManager.write(() -> super.insertCover(coverPath));
+    }
+
+    @Override
+    public List<String> deleteUnreferencedCovers() {
+        return connectionManager.write(() -> super.deleteUnreferencedCovers());
+    }
+
+    @Override
+    public boolean insertPlaylist(String playlistTitle, String username) {
+        return connectionManager.write(() -> super.insertPlaylist(playlistTitle, username));
+    }
+
+    @Override
+    public boolean addTrackToPlaylist(String playlistTitle, String trackTitle) {
+        return connectionManager.write(() -> super.addTrackToPlaylist(playlistTitle, trackTitle));
+    }
+
+    @Override
+    public boolean moveTrackInPlaylist(String playlistTitle, String trackTitle, String previousTrackTitle, String nextTrackTitle) {
+        return connectionManager.write(() -> super.moveTrackInPlaylist(playlistTitle, trackTitle, previousTrackTitle, nextTrackTitle));
+    }
+
+    /**
+     * La renumérotation est soumise à l'écrivain sans être attendue : le déplacement en cours se termine aussitôt.
+     */
+    @Override
+    protected void scheduleRenumbering(int playlistId) {
+        connectionManager.submitWrite(() -> renumberPlaylistPositions(playlistId));
+    }
+
+    @Override
+    public boolean removeTrackFromPlaylist(String playlistTitle, String trackTitle) {
+        return connectionManager.write(() -> super.removeTrackFromPlaylist(playlistTitle, trackTitle));
+    }
+
+    @Override
+    public boolean removeAllTracksFromPlaylist(String playlistTitle) {
+        return connectionManager.write(() -> super.removeAllTracksFromPlaylist(playlistTitle));
+    }
+}
@@ -0,0 +1,62 @@
+package ulb.dao;
+
+import ulb.model.Track;
+
+import java.sql.Connection;
+import java.util.Collection;
+
+/**
+ * Gestionnaire de mise à jour dont toutes les écritures passent par le thread écrivain
+ * unique du ConnectionManager, comme celles de SerializedDbManagerInsert.
+ */
+public class SerializedDbManagerUpdate extends DbManagerUpdate {
+    private final ConnectionManager connectionManager;
+
+    public SerializedDbManagerUpdate(Connection connection, DbManagerInsert dbInsert, ConnectionManager connectionManager) {
+        super(connection, dbInsert);
+        this.connectionManager = connectionManager;
+    }
+
+    // Lectures sur la connexion principale : sur le thread écrivain, comme dans SerializedDbManagerInsert.
+
+    @Override
+    public int getId(String tag, String parameter) {
+        return connectionManager.write(() -> super.getId(tag, parameter));
+    }
+
+    @Override
+    public long getChangeCounter() {
+        return connectionManager.write(super::getChangeCounter);
+    }
+
+    @Override
+    public void warmUpIdCache() {
+        connectionManager.write(() -> {
+            super.warmUpIdCache();
+            return null;
+        });
+    }
+
+    @Override
+    public void syncTracks() {
+        connectionManager.write(() -> {
+            super.syncTracks();
+            return null;
+        });
+    }
+
+    @Override
+    public boolean updateTrack(Track track) {
+        return connectionManager.write(() -> super.updateTrack(track));
+    }
+
+    @Override
+    public int updateTracks(Collection<Track> tracks) {
+        return connectionManager.write(() -> super.updateTracks(tracks));
+    }
+
+    @Override
+    public boolean deletePlaylist(String playlistTitle) {
+        return connectionManager.write(() -> super.deletePlaylist(playlistTitle));
+    }
+}
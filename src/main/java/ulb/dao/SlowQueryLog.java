@@ -0,0 +1,150 @@
+package ulb.dao;
+
+import ulb.Config;
+import ulb.LoggerConfig;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Journal des requêtes lentes des gestionnaires de recherche et de mise à jour.
+ * <p>
+ * Une exécution plus longue que {@link Config#SLOW_QUERY_THRESHOLD_MILLIS} est journalisée
+ * avec son tag, ses paramètres liés et le plan d'exécution SQLite (`EXPLAIN QUERY PLAN`),
+ * dans le fichier de LoggerConfig. Chaque tag n'est détaillé qu'une fois ;
+ * les occurrences suivantes sont seulement comptées et résumées à la fermeture.
+ * </p>
+ */
+public class SlowQueryLog {
+    private static final Logger logger = Logger.getLogger(SlowQueryLog.class.getName());
+    private static final SlowQueryLog instance = new SlowQueryLog(Config.SLOW_QUERY_THRESHOLD_MILLIS);
+    private static volatile boolean enabled = Config.SLOW_QUERY_THRESHOLD_MILLIS > 0;
+
+    private final long thresholdNanos;
+    private final Map<String, LongAdder> occurrences = new ConcurrentHashMap<>(); // tag -> nombre d'exécutions lentes
+
+    /**
+     * @param thresholdMillis Durée à partir de laquelle une exécution est considérée comme lente.
+     */
+    public SlowQueryLog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        attachFileHandler();
+    }
+
+    /**
+     * @return Le journal partagé par tous les gestionnaires, réglé par {@link Config#SLOW_QUERY_THRESHOLD_MILLIS}.
+     */
+    public static SlowQueryLog getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return true si les gestionnaires doivent brancher le journal partagé sur leurs requêtes
+     *         (par défaut, {@link Config#SLOW_QUERY_THRESHOLD_MILLIS} strictement positif).
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Active ou désactive le journal pour les gestionnaires créés ensuite ; ceux déjà créés le conservent.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Dirige le journal vers le fichier de LoggerConfig dès qu'il est configuré : un gestionnaire peut être
+     * créé avant LoggerConfig.setup, le branchement est alors refait au premier message.
+     */
+    private static synchronized void attachFileHandler() {
+        Handler fileHandler = LoggerConfig.getFileHandler();
+        if (fileHandler != null && logger.getHandlers().length == 0) {
+            logger.addHandler(fileHandler); // écrit dans log/app.log même sous le niveau du logger racine
+            logger.setUseParentHandlers(false);
+            logger.setLevel(Level.INFO);
+        }
+    }
+
+    /**
+     * @return true si une exécution de cette durée doit être signalée.
+     */
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * Signale une exécution lente. La première occurrence d'un tag est détaillée avec son plan d'exécution.
+     * @param tag Tag SQLLoader de la requête.
+     * @param sql Texte SQL de la requête.
+     * @param parameters Valeurs liées, dans l'ordre des paramètres.
+     * @param nanos Durée de l'exécution.
+     * @param statement Requête exécutée, dont la connexion sert à lire le plan.
+     */
+    public void report(String tag, String sql, List<Object> parameters, long nanos, PreparedStatement statement) {
+        boolean[] first = {false};
+        occurrences.computeIfAbsent(tag, t -> {
+            first[0] = true;
+            return new LongAdder();
+        }).increment();
+        if (!first[0]) return; // tag déjà détaillé
+
+        attachFileHandler();
+        logger.warning("🐢 Requête lente [" + tag + "] : " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms"
+            + System.lineSeparator() + "  Paramètres : " + parameters
+            + System.lineSeparator() + "  Plan d'exécution :" + explain(sql, parameters, statement));
+    }
+
+    /**
+     * @param tag Tag SQLLoader de la requête.
+     * @return Le nombre d'exécutions lentes signalées pour ce tag.
+     */
+    public long getOccurrences(String tag) {
+        LongAdder count = occurrences.get(tag);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Résume le nombre d'exécutions lentes par tag (appelé à la fermeture de l'application).
+     */
+    public void logSummary() {
+        if (occurrences.isEmpty()) return;
+        attachFileHandler();
+        Map<String, Long> counts = new HashMap<>();
+        occurrences.forEach((tag, count) -> counts.put(tag, count.sum()));
+        logger.warning("🐢 Requêtes lentes (> " + TimeUnit.NANOSECONDS.toMillis(thresholdNanos) + " ms) par tag : " + counts);
+    }
+
+    /**
+     * Lit le plan d'exécution de la requête avec les mêmes paramètres, sur la même connexion.
+     */
+    private String explain(String sql, List<Object> parameters, PreparedStatement statement) {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement explain = statement.getConnection().prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                explain.setObject(i + 1, parameters.get(i));
+            }
+            Map<Integer, Integer> depths = new HashMap<>(); // id de l'étape -> profondeur dans l'arbre
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    int depth = depths.getOrDefault(rs.getInt("parent"), 0) + 1;
+                    depths.put(rs.getInt("id"), depth);
+                    plan.append(System.lineSeparator()).append("  ".repeat(depth + 1)).append(rs.getString("detail"));
+                }
+            }
+        } catch (SQLException e) {
+            plan.append(" indisponible (").append(e.getMessage()).append(")");
+        }
+        return plan.toString();
+    }
+}
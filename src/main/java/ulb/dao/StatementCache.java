@@ -0,0 +1,122 @@
+package ulb.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Cache borné de requêtes préparées pour une connexion donnée.
+ * Les requêtes sont indexées par leur tag SQLLoader : une requête n'est compilée
+ * par SQLite qu'une seule fois, puis réutilisée à chaque appel.
+ * Lorsque la capacité est atteinte, la requête la moins récemment utilisée est fermée.
+ * Les requêtes sont chronométrées par {@link QueryMetrics} lorsque les mesures sont actives,
+ * et signalées au {@link SlowQueryLog} éventuel lorsqu'elles dépassent son seuil.
+ */
+public class StatementCache {
+    private static final Logger logger = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> statements; // tag -> requête préparée, dans l'ordre d'accès
+    private long hits = 0;   // nombre de requêtes trouvées dans le cache
+    private long misses = 0; // nombre de requêtes compilées
+    private SlowQueryLog slowQueryLog; // journal des requêtes lentes, null si désactivé pour ce cache
+
+    /**
+     * @param connection Connexion sur laquelle les requêtes sont préparées.
+     * @param capacity Nombre maximal de requêtes gardées ouvertes.
+     */
+    public StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Retourne la requête préparée associée au tag, en la compilant si nécessaire.
+     * Les paramètres liés lors d'un appel précédent sont effacés.
+     * @param tag Tag SQLLoader de la requête.
+     * @param sql Texte SQL de la requête (utilisé uniquement en cas d'absence dans le cache).
+     * @return La requête préparée prête à être paramétrée.
+     * @throws SQLException si la compilation de la requête échoue.
+     */
+    public synchronized PreparedStatement prepare(String tag, String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(tag);
+        if (stmt != null && !stmt.isClosed()) {
+            hits++;
+            stmt.clearParameters();
+            return stmt;
+        }
+        misses++;
+        try {
+            stmt = InstrumentedStatement.wrap(tag, sql, connection.prepareStatement(sql), slowQueryLog);
+        } catch (SQLException e) {
+            QueryMetrics.record(tag, 0, true); // requête invalide : comptée comme une erreur du tag
+            throw e;
+        }
+        statements.put(tag, stmt);
+        evictOverflow();
+        return stmt;
+    }
+
+    /**
+     * Branche un journal des requêtes lentes sur les requêtes préparées ensuite par ce cache.
+     * @param slowQueryLog Journal à utiliser, ou null pour le débrancher.
+     */
+    public synchronized void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Ferme et retire une requête du cache, par exemple après une erreur d'exécution.
+     * @param tag Tag SQLLoader de la requête.
+     */
+    public synchronized void evict(String tag) {
+        closeQuietly(tag, statements.remove(tag));
+    }
+
+    /**
+     * Ferme toutes les requêtes préparées du cache.
+     */
+    public synchronized void close() {
+        logger.info("Cache de requêtes fermé : " + hits + " hit(s), " + misses + " miss(es).");
+        for (Map.Entry<String, PreparedStatement> entry : statements.entrySet()) {
+            closeQuietly(entry.getKey(), entry.getValue());
+        }
+        statements.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, PreparedStatement>> iterator = statements.entrySet().iterator();
+        while (statements.size() > capacity && iterator.hasNext()) {
+            Map.Entry<String, PreparedStatement> eldest = iterator.next();
+            iterator.remove();
+            closeQuietly(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void closeQuietly(String tag, PreparedStatement stmt) {
+        if (stmt == null) return;
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            logger.warning("Erreur lors de la fermeture de la requête '" + tag + "' : " + e.getMessage());
+        }
+    }
+}
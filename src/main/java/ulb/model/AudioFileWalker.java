@@ -0,0 +1,182 @@
+package ulb.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Parcours récursif des dossiers de la bibliothèque à la recherche de fichiers audio.
+ * <p>
+ * ➤ Chaque sous-dossier de premier niveau d'une racine est parcouru avec {@link Files#walkFileTree}
+ *   sur son propre thread (un artiste ou une collection par sous-dossier, en pratique).
+ * ➤ La taille et la date de chaque fichier sont relevées pendant le parcours : la comparaison avec
+ *   l'index des fichiers ne demande aucun accès disque supplémentaire.
+ * ➤ Un dossier illisible est signalé dans le résultat : les morceaux qu'il contient ne sont pas
+ *   considérés comme supprimés.
+ * </p>
+ */
+public class AudioFileWalker {
+    private static final Logger logger = Logger.getLogger(AudioFileWalker.class.getName());
+
+    private final int parallelism;
+
+    /**
+     * Résultat d'un parcours.
+     */
+    public static final class Listing {
+        private final List<FileFingerprint> files;
+        private final List<String> roots;
+        private final List<String> failedPaths;
+
+        Listing(List<FileFingerprint> files, List<String> roots, List<String> failedPaths) {
+            this.files = files;
+            this.roots = roots;
+            this.failedPaths = failedPaths;
+        }
+
+        /** @return Les empreintes (taille, date) des fichiers audio trouvés. */
+        public List<FileFingerprint> getFiles() {
+            return files;
+        }
+
+        /** @return Les dossiers ou fichiers qui n'ont pas pu être lus. */
+        public List<String> getFailedPaths() {
+            return failedPaths;
+        }
+
+        /**
+         * @param filePath Chemin absolu d'un fichier indexé.
+         * @return true si le parcours a couvert l'emplacement de ce fichier : absent de la liste, il a disparu.
+         */
+        public boolean covers(String filePath) {
+            return isUnder(filePath, roots) && !isUnder(filePath, failedPaths) && !failedPaths.contains(filePath);
+        }
+
+        private static boolean isUnder(String filePath, List<String> directories) {
+            for (String directory : directories) {
+                if (filePath.startsWith(directory + File.separator)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param parallelism Nombre maximal de sous-dossiers parcourus en même temps.
+     */
+    public AudioFileWalker(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Parcourt les dossiers donnés et leurs sous-dossiers. Bloque jusqu'à la fin du parcours.
+     * @param roots Dossiers à parcourir, en chemins absolus.
+     * @return Les fichiers audio trouvés et les emplacements illisibles.
+     */
+    public Listing walk(List<Path> roots) {
+        Queue<FileFingerprint> files = new ConcurrentLinkedQueue<>();
+        Queue<String> failed = new ConcurrentLinkedQueue<>();
+        List<Path> subtrees = new ArrayList<>();
+        for (Path root : roots) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attributes.isDirectory()) {
+                        subtrees.add(entry);
+                    } else {
+                        addIfAudio(entry, attributes, files);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warning("⚠️ Dossier illisible : " + root + " (" + e.getMessage() + ")");
+                failed.add(root.toString());
+            }
+        }
+        walkInParallel(subtrees, files, failed);
+        List<String> rootPaths = new ArrayList<>();
+        for (Path root : roots) {
+            rootPaths.add(root.toString());
+        }
+        return new Listing(new ArrayList<>(files), rootPaths, new ArrayList<>(failed));
+    }
+
+    /**
+     * Parcourt chaque sous-dossier sur un thread du pool. Un sous-dossier dont le parcours
+     * n'a pas abouti est signalé comme illisible.
+     */
+    private void walkInParallel(List<Path> subtrees, Queue<FileFingerprint> files, Queue<String> failed) {
+        if (subtrees.isEmpty()) return;
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, subtrees.size()), task -> {
+            Thread thread = new Thread(task, "library-walker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> walks = new ArrayList<>();
+            for (Path subtree : subtrees) {
+                walks.add(pool.submit(() -> walkSubtree(subtree, files, failed)));
+            }
+            for (int i = 0; i < walks.size(); i++) {
+                try {
+                    walks.get(i).get();
+                } catch (ExecutionException e) {
+                    logger.warning("⚠️ Parcours interrompu : " + subtrees.get(i) + " (" + e.getCause() + ")");
+                    failed.add(subtrees.get(i).toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Path subtree : subtrees) {
+                failed.add(subtree.toString()); // parcours incomplet : rien ne doit être considéré comme supprimé
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void walkSubtree(Path subtree, Queue<FileFingerprint> files, Queue<String> failed) {
+        try {
+            Files.walkFileTree(subtree, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    addIfAudio(file, attributes, files);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    logger.warning("⚠️ Emplacement illisible : " + file + " (" + e.getMessage() + ")");
+                    failed.add(file.toString());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            logger.warning("⚠️ Dossier illisible : " + subtree + " (" + e.getMessage() + ")");
+            failed.add(subtree.toString());
+        }
+    }
+
+    private static void addIfAudio(Path file, BasicFileAttributes attributes, Queue<FileFingerprint> files) {
+        if (attributes.isRegularFile() && DatabaseSeeder.isAudioFile(file.getFileName().toString())) {
+            files.add(new FileFingerprint(file.toString(), attributes.size(), attributes.lastModifiedTime().toMillis(), null));
+        }
+    }
+}
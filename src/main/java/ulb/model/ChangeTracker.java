@@ -2,19 +2,34 @@ package ulb.model;
 
 import ulb.dao.DbInitializer;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 
 /**
  * The {@code ChangeTracker} class is responsible for keeping tracks of modified tracks.
  * It is able to listen to a TrackLibrary and to the {@link Track} objects added to that library.
  * When a track fires a data change event, it keeps track of it until manually reset with clearChanges()
+ * or collected with drainChanges(). Observers are notified of every invalidation.
  */
 public class ChangeTracker implements TrackLibrary.TrackLibraryObserver, Track.TrackObserver {
 
-     // Set of modified track IDs
-     private Set<Integer> modifiedTracks = new HashSet<>();
+     /**
+      * The {@code ChangeTrackerObserver} interface is implemented by components that react to
+      * modified tracks (e.g. the write-behind database sync).
+      */
+     public interface ChangeTrackerObserver {
+          void onInvalidateTrack(Integer id);
+     }
+
+     // Set of modified track IDs (written from the UI thread, drained from the sync thread)
+     private final Set<Integer> modifiedTracks = ConcurrentHashMap.newKeySet();
+
+     private final List<ChangeTrackerObserver> observers = new CopyOnWriteArrayList<>();
 
      public static final Logger logger = Logger.getLogger(DbInitializer.class.getName());
 
@@ -38,6 +53,54 @@ public class ChangeTracker implements TrackLibrary.TrackLibraryObserver, Track.T
           modifiedTracks.add(id);
           // Optional: Printing unsynchronized tracks (debugging purpose)
           logger.info("unsync tracks:" + modifiedTracks);
+          for (ChangeTrackerObserver observer : observers) {
+               observer.onInvalidateTrack(id);
+          }
+     }
+
+     /**
+      * Returns the modified track IDs and removes them from the tracker.
+      * A track invalidated again while the returned IDs are being processed stays tracked.
+      *
+      * @return a {@link Set} containing the IDs that were modified.
+      */
+     public Set<Integer> drainChanges() {
+          Set<Integer> drained = new HashSet<>();
+          for (Integer id : modifiedTracks) {
+               if (modifiedTracks.remove(id)) {
+                    drained.add(id);
+               }
+          }
+          return drained;
+     }
+
+     /**
+      * Marks drained tracks as modified again, after their sync failed.
+      * Observers are not notified: the tracks are retried with the next sync
+      * (next modification or shutdown flush) instead of in a retry loop.
+      *
+      * @param ids the IDs of the tracks that could not be saved.
+      */
+     public void requeueChanges(Collection<Integer> ids) {
+          modifiedTracks.addAll(ids);
+     }
+
+     /**
+      * Registers an observer notified each time a track is invalidated.
+      *
+      * @param observer the observer to add.
+      */
+     public void addObserver(ChangeTrackerObserver observer) {
+          observers.add(observer);
+     }
+
+     /**
+      * Unregisters an observer.
+      *
+      * @param observer the observer to remove.
+      */
+     public void removeObserver(ChangeTrackerObserver observer) {
+          observers.remove(observer);
      }
 
      /**
@@ -79,4 +142,14 @@ public class ChangeTracker implements TrackLibrary.TrackLibraryObserver, Track.T
      public void onChangeData(Track t) {
           invalidateTrack(t.getTrackId());
      }
+
+     /**
+      * Callback method when a track receives data already stored in the database (rescanned file).
+      * Nothing to save: the track is not invalidated.
+      *
+      * @param t the track whose data has been reloaded.
+      */
+     @Override
+     public void onReloadData(Track t) {
+     }
 }
@@ -0,0 +1,138 @@
+package ulb.model;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stockage des images de couverture, adressées par leur contenu.
+ * <p>
+ * ➤ Chaque image est enregistrée sous le nom {@code <sha-256 des octets>.<extension>} : les morceaux d'un même
+ *   album partagent un seul fichier, et deux titres proches ne s'écrasent plus l'un l'autre.
+ * ➤ Une image déjà présente (en mémoire ou sur le disque) n'est pas réécrite : pendant un scan, seul le
+ *   premier morceau de chaque album écrit sa pochette.
+ * ➤ L'écriture passe par un fichier temporaire renommé : les threads d'extraction peuvent enregistrer
+ *   la même image en même temps sans jamais exposer un fichier incomplet.
+ * ➤ La table Cover référence ces fichiers ; une image que plus aucun morceau n'utilise est supprimée
+ *   avec sa ligne (voir {@link #delete(Collection)}).
+ * </p>
+ */
+public class CoverStore {
+    private static final Logger logger = Logger.getLogger(CoverStore.class.getName());
+    private static final int HASH_LENGTH = 64; // SHA-256 en hexadécimal
+
+    private final Path directory;
+    private final Map<String, String> storedPaths = new ConcurrentHashMap<>(); // empreinte -> chemin de l'image
+
+    /**
+     * @param directory Dossier des images de couverture, créé à la première écriture.
+     */
+    public CoverStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Enregistre une image, sauf si une image identique l'est déjà.
+     * @param imageData Octets de l'image.
+     * @param mimeType Type MIME déclaré dans le tag (peut être null) : il ne sert qu'à choisir l'extension.
+     * @return Le chemin absolu de l'image dans le dossier des couvertures.
+     * @throws IOException si le dossier ne peut pas être créé ou l'image écrite.
+     */
+    public String store(byte[] imageData, String mimeType) throws IOException {
+        String hash = hash(imageData);
+        String known = storedPaths.get(hash);
+        if (known != null) {
+            return known;
+        }
+        Path target = directory.resolve(hash + extensionFor(mimeType));
+        if (!Files.exists(target)) {
+            write(target, imageData);
+        }
+        String path = target.toAbsolutePath().toString();
+        String previous = storedPaths.putIfAbsent(hash, path);
+        return previous != null ? previous : path;
+    }
+
+    /**
+     * Supprime des images du dossier, après la suppression de leur ligne Cover.
+     * @param coverPaths Chemins des images à supprimer.
+     * @return Le nombre d'images effectivement supprimées.
+     */
+    public int delete(Collection<String> coverPaths) {
+        int deleted = 0;
+        for (String coverPath : coverPaths) {
+            String hash = hashOf(coverPath);
+            if (hash == null) continue; // jamais de fichier hors du stockage
+            storedPaths.remove(hash);
+            try {
+                if (Files.deleteIfExists(Path.of(coverPath))) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "⚠️ Impossible de supprimer l'image de couverture : " + coverPath, e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * @param coverPath Chemin d'une image de couverture (peut être null).
+     * @return L'empreinte du contenu si l'image provient de ce stockage, sinon null
+     *         (image par défaut, ou image nommée d'après le titre par une version précédente).
+     */
+    public static String hashOf(String coverPath) {
+        if (coverPath == null) return null;
+        // pas de Path.of : l'image par défaut est une URL (jar:, file:) qui n'est pas un chemin valide sous Windows
+        String name = coverPath.substring(Math.max(coverPath.lastIndexOf('/'), coverPath.lastIndexOf('\\')) + 1);
+        int dot = name.lastIndexOf('.');
+        String hash = dot >= 0 ? name.substring(0, dot) : name;
+        if (hash.length() != HASH_LENGTH) return null;
+        for (int i = 0; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) == -1) return null;
+        }
+        return hash;
+    }
+
+    private void write(Path target, byte[] imageData) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "cover-", ".tmp");
+        try {
+            Files.write(temporary, imageData);
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.info("✅ Image de couverture enregistrée : " + target);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e); // garanti par toute JVM
+        }
+    }
+
+    private static String extensionFor(String mimeType) {
+        if (mimeType == null) return ".jpg";
+        String type = mimeType.toLowerCase();
+        if (type.contains("png")) return ".png";
+        if (type.contains("gif")) return ".gif";
+        if (type.contains("bmp")) return ".bmp";
+        return ".jpg";
+    }
+}
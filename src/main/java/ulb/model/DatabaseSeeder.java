@@ -1,28 +1,37 @@
 package ulb.model;
 
 import ulb.Config;
-import ulb.dao.DbInitializer;
 import ulb.dao.DbManagerInsert;
+import ulb.dao.DbManagerUpdate;
 
 import java.io.*;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.nio.file.Paths;
 
 /**
  * Classe responsable du remplissage automatique de la base de données.
- * Elle scanne un dossier contenant des fichiers `.mp3`, extrait leurs
- * métadonnées et les insère dans la base.
+ * Elle parcourt récursivement les dossiers racines de la bibliothèque ({@link Config#LIBRARY_ROOTS}),
+ * extrait les métadonnées des fichiers audio ({@link Config#AUDIO_FILE_EXTENSIONS}) et les insère dans la base.
+ * Le scan est incrémental : seuls les fichiers nouveaux ou modifiés depuis le scan précédent
+ * (taille ou date de modification différente dans l'index des fichiers) sont ouverts, et les
+ * morceaux des fichiers supprimés sont retirés de la base.
  */
 public class DatabaseSeeder {
     private DbManagerInsert dbInsert; // permet d'effectuer des insertions
+    private DbManagerUpdate dbUpdate; // met à jour les morceaux des fichiers modifiés (peut être null)
     private MetadataManager metadataManager;
-    private String musicDirectory = Config.MUSIC_DIRECTORY; // Chemin du dossier contenant les fichiers `.mp3`
-    public static final Logger logger = Logger.getLogger(DbInitializer.class.getName());
+    public static final Logger logger = Logger.getLogger(DatabaseSeeder.class.getName());
 
     /**
      * Constructeur de `DatabaseSeeder`
@@ -31,7 +40,15 @@ public class DatabaseSeeder {
      *                        métadonnées des fichiers audio.
      */
     public DatabaseSeeder(DbManagerInsert dbInsert, MetadataManager metadataManager) {
+        this(dbInsert, null, metadataManager);
+    }
+
+    /**
+     * @param dbUpdate Gestionnaire de mise à jour des morceaux dont le fichier a été modifié.
+     */
+    public DatabaseSeeder(DbManagerInsert dbInsert, DbManagerUpdate dbUpdate, MetadataManager metadataManager) {
         this.dbInsert = dbInsert;
+        this.dbUpdate = dbUpdate;
         this.metadataManager = metadataManager;
     }
 
@@ -58,6 +75,9 @@ public class DatabaseSeeder {
 
             // Define the target file path where the resource will be copied
             Path targetFilePath = targetDir.resolve(resourceFileName);
+            if (Files.exists(targetFilePath)) {
+                continue; // une nouvelle copie changerait sa date de modification et forcerait sa relecture
+            }
 
             // Use Buffered Streams to copy the resource file
             try (InputStream resourceStream = resourceFileUrl.openStream();
@@ -82,9 +102,10 @@ public class DatabaseSeeder {
     }
 
     /**
-     * Scanne le dossier et ajoute les morceaux en base de données.
+     * Parcourt récursivement les dossiers racines de la bibliothèque et synchronise la base avec leur contenu.
+     * @return Le bilan du scan, ou null si aucun dossier racine n'a pu être parcouru.
      */
-    public void seedDatabase() {
+    public LibraryScanner.ScanResult seedDatabase() {
         try {
             addSampleMusic();
         } catch (IOException e) {
@@ -92,45 +113,151 @@ public class DatabaseSeeder {
             logger.info("could not add sample music" + e.getMessage());
         }
 
-        File folder = new File(Config.getFullPathFromRelative(Config.MUSIC_DIRECTORY));
-        if (!folder.exists() || !folder.isDirectory()) {
-            logger.warning("❌ Le dossier spécifié n'existe pas ou n'est pas un dossier valide.");
-            return;
+        List<Path> roots = new ArrayList<>();
+        for (Path root : Config.getLibraryRoots()) {
+            if (Files.isDirectory(root)) {
+                roots.add(root.toAbsolutePath());
+            } else {
+                // dossier absent (disque non monté ?) : ses morceaux restent en base
+                logger.warning("❌ Le dossier " + root + " n'existe pas ou n'est pas un dossier valide.");
+            }
         }
-        logger.info("chemin absolu du fichier => " + folder.getAbsolutePath() + folder.exists());
-        File[] files = folder.listFiles((dir, name) -> name.toLowerCase().endsWith(".mp3"));
-        if (files == null || files.length == 0) {
-            logger.info("ℹ️ Aucun fichier .mp3 trouvé dans le dossier.");
-            return;
+        if (roots.isEmpty()) {
+            return null;
         }
-        logger.info("🔍 Début du scan des fichiers audio...");
+        logger.info("🔍 Début du scan des fichiers audio de " + roots + "...");
 
-        for (File file : files) {
-            processTrack(file);
+        AudioFileWalker.Listing listing = new AudioFileWalker(Config.SCAN_WORKER_COUNT).walk(roots);
+        if (listing.getFiles().isEmpty()) {
+            logger.info("ℹ️ Aucun fichier audio trouvé dans les dossiers de la bibliothèque.");
+        }
+        Map<String, FileFingerprint> index = dbInsert.getFileFingerprints();
+        List<String> candidates = new ArrayList<>();
+        for (String filePath : index.keySet()) {
+            if (listing.covers(filePath)) {
+                candidates.add(filePath);
+            }
         }
+        LibraryScanner.ScanResult result = synchronize(listing.getFiles(), index, candidates);
         logger.info("✅ Base de données remplie avec succès !");
+        return result;
     }
 
     /**
-     * Traite un fichier audio, extrait ses métadonnées et l'ajoute en base de
-     * données.
-     *
-     * @param file Fichier audio `.mp3`
+     * Synchronise la base avec quelques chemins signalés par la surveillance des dossiers :
+     * les fichiers présents sont ajoutés ou relus s'ils ont changé, un dossier apparu est parcouru,
+     * et les morceaux des fichiers ou dossiers qui n'existent plus sont supprimés.
+     * @param files Fichiers audio ou dossiers créés, modifiés ou supprimés.
+     * @return Le bilan de la synchronisation.
+     */
+    public LibraryScanner.ScanResult syncFiles(Collection<File> files) {
+        Map<String, FileFingerprint> index = dbInsert.getFileFingerprints();
+        List<FileFingerprint> present = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        Set<String> gone = new HashSet<>();
+        for (File file : files) {
+            String filePath = file.getAbsolutePath();
+            if (file.isDirectory()) {
+                directories.add(file.toPath().toAbsolutePath());
+            } else if (file.isFile()) {
+                present.add(currentFingerprint(file));
+            } else {
+                gone.add(filePath); // fichier supprimé, ou dossier supprimé avec son contenu
+            }
+        }
+        AudioFileWalker.Listing listing = new AudioFileWalker(Config.SCAN_WORKER_COUNT).walk(directories);
+        present.addAll(listing.getFiles());
+        Set<String> candidates = new HashSet<>(gone);
+        for (String filePath : index.keySet()) {
+            if (listing.covers(filePath) || isUnderAny(filePath, gone)) {
+                candidates.add(filePath);
+            }
+        }
+        return synchronize(present, index, candidates);
+    }
+
+    /**
+     * @return true si le fichier porte une extension audio indexée ({@link Config#AUDIO_FILE_EXTENSIONS}).
+     */
+    public static boolean isAudioFile(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && Config.AUDIO_FILE_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase());
+    }
+
+    private static boolean isUnderAny(String filePath, Collection<String> directories) {
+        for (String directory : directories) {
+            if (filePath.startsWith(directory + File.separator)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compare les fichiers à l'index des fichiers déjà scannés : les fichiers inchangés (même taille
+     * et même date) sont ignorés sans être ouverts, les nouveaux et les modifiés sont scannés, et les
+     * morceaux des fichiers indexés absents de `present` sont supprimés.
+     * @param present Empreintes actuelles (taille, date) des fichiers audio existants.
+     * @param index Index des fichiers, par chemin absolu.
+     * @param candidates Chemins indexés susceptibles d'avoir disparu.
+     * @return Le bilan du scan.
      */
-    private void processTrack(File file) {
-        // Extraction des métadonnées avec MetadataManager
-        Optional<Track> track = metadataManager.extractMetadata(file);
-        if (track.isEmpty()) {
-            logger.warning("⚠️ Impossible d'extraire les métadonnées pour : " + file.getName());
-            return;
+    private LibraryScanner.ScanResult synchronize(List<FileFingerprint> present, Map<String, FileFingerprint> index,
+                                                  Collection<String> candidates) {
+        Map<String, FileFingerprint> changed = new HashMap<>();
+        List<File> toScan = new ArrayList<>();
+        Set<String> presentPaths = new HashSet<>();
+        for (FileFingerprint current : present) {
+            String filePath = current.getFilePath();
+            presentPaths.add(filePath);
+            FileFingerprint known = index.get(filePath);
+            if (known == null) {
+                toScan.add(new File(filePath));
+            } else if (!current.isUnchangedSince(known)) {
+                changed.put(filePath, known);
+                toScan.add(new File(filePath));
+            }
+        }
+        List<String> deleted = new ArrayList<>();
+        for (String filePath : candidates) {
+            if (index.containsKey(filePath) && !presentPaths.contains(filePath)) {
+                deleted.add(filePath);
+            }
         }
-        // Ajout du morceau à la base de données
-        boolean trackId = dbInsert.insertTrack(track.get());
+        logger.info("🔍 " + present.size() + " fichier(s) : " + (toScan.size() - changed.size()) + " nouveau(x), "
+            + changed.size() + " modifié(s), " + deleted.size() + " supprimé(s).");
 
-        if (trackId == false) {
-            logger.warning("❌ Échec de l'ajout du morceau : " + track.get().getTitle());
-            return;
+        if (dbInsert.deleteTracksByFilePath(deleted) < 0) {
+            deleted.clear(); // rien n'a été supprimé : nouvel essai au prochain scan
+        }
+        // extraction en parallèle, écriture par lots depuis ce thread
+        LibraryScanner.ScanResult result = new LibraryScanner(metadataManager, dbInsert, dbUpdate).scan(toScan, changed);
+        if (!deleted.isEmpty() || !result.getUpdatedTracks().isEmpty()) {
+            pruneCovers(); // pochettes des morceaux supprimés ou remplacées
+        }
+        return result.withDeletedFilePaths(deleted);
+    }
+
+    /**
+     * Supprime les images de couverture que plus aucun morceau n'utilise (ligne Cover, puis fichier).
+     */
+    private void pruneCovers() {
+        List<String> unused = dbInsert.deleteUnreferencedCovers();
+        if (unused.isEmpty()) return;
+        int deleted = metadataManager.getCoverStore().delete(unused);
+        logger.info("🗑️ " + deleted + " image(s) de couverture inutilisée(s) supprimée(s).");
+    }
+
+    /**
+     * @return L'empreinte actuelle du fichier (taille et date), sans ouvrir son contenu ;
+     *         une taille de -1 si ses attributs sont illisibles, pour qu'il soit relu.
+     */
+    static FileFingerprint currentFingerprint(File file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            return new FileFingerprint(file.getAbsolutePath(), attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+        } catch (IOException e) {
+            return new FileFingerprint(file.getAbsolutePath(), -1, -1, null);
         }
-        logger.info("🎵 Ajouté en base : " + track.get().getTitle() + " - " + track.get().getArtist() + " (" + track.get().getAlbum() + ") [" + track.get().getYear() + "] [" + track.get().getGenre() + "]");
     }
 }
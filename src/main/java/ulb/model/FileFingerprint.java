@@ -0,0 +1,100 @@
+package ulb.model;
+
+import java.util.Objects;
+
+/**
+ * Empreinte d'un fichier audio au moment de son dernier scan : taille, date de modification
+ * et, si elle a été calculée, empreinte SHA-256 de son contenu.
+ * Un fichier dont la taille et la date n'ont pas changé n'est pas rouvert au scan suivant.
+ */
+public final class FileFingerprint {
+    private final String filePath;
+    private final long size;
+    private final long modifiedMillis;
+    private final String contentHash; // null : non calculée
+    private final boolean hasTrack;
+
+    /**
+     * @param filePath Chemin absolu du fichier, identique à celui du morceau en base.
+     * @param size Taille du fichier en octets.
+     * @param modifiedMillis Date de dernière modification, en millisecondes depuis l'epoch.
+     * @param contentHash Empreinte hexadécimale du contenu, ou null.
+     */
+    public FileFingerprint(String filePath, long size, long modifiedMillis, String contentHash) {
+        this(filePath, size, modifiedMillis, contentHash, false);
+    }
+
+    /**
+     * @param hasTrack true si un morceau de la base provient de ce fichier (lu depuis l'index).
+     */
+    public FileFingerprint(String filePath, long size, long modifiedMillis, String contentHash, boolean hasTrack) {
+        this.filePath = filePath;
+        this.size = size;
+        this.modifiedMillis = modifiedMillis;
+        this.contentHash = contentHash;
+        this.hasTrack = hasTrack;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getModifiedMillis() {
+        return modifiedMillis;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @return true si un morceau de la base provient de ce fichier : une modification le met à jour
+     *         au lieu d'en insérer un nouveau.
+     */
+    public boolean hasTrack() {
+        return hasTrack;
+    }
+
+    /**
+     * @return Une copie de cette empreinte avec l'empreinte du contenu donnée.
+     */
+    public FileFingerprint withContentHash(String hash) {
+        return new FileFingerprint(filePath, size, modifiedMillis, hash);
+    }
+
+    /**
+     * @return true si le fichier a la même taille et la même date de modification que lors du scan précédent.
+     */
+    public boolean isUnchangedSince(FileFingerprint previous) {
+        return previous != null && size == previous.size && modifiedMillis == previous.modifiedMillis;
+    }
+
+    /**
+     * @return true si les deux empreintes du contenu sont connues et identiques.
+     */
+    public boolean hasSameContentAs(FileFingerprint previous) {
+        return previous != null && contentHash != null && contentHash.equals(previous.contentHash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileFingerprint other)) return false;
+        return size == other.size && modifiedMillis == other.modifiedMillis
+            && filePath.equals(other.filePath) && Objects.equals(contentHash, other.contentHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filePath, size, modifiedMillis, contentHash);
+    }
+
+    @Override
+    public String toString() {
+        return filePath + " (" + size + " o, " + modifiedMillis + ")";
+    }
+}
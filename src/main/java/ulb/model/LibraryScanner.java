@@ -0,0 +1,365 @@
+package ulb.model;
+
+import ulb.Config;
+import ulb.dao.DbManagerInsert;
+import ulb.dao.DbManagerUpdate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Pipeline de scan des fichiers audio vers la base de données.
+ * <p>
+ * ➤ Extraction : un pool borné de {@link Config#SCAN_WORKER_COUNT} threads lit les tags et les pochettes
+ *   en parallèle (travail CPU, d'où un pool fixe plutôt qu'un thread virtuel par fichier).
+ * ➤ Transfert : les morceaux extraits passent par une file bornée ({@link Config#SCAN_QUEUE_CAPACITY}) ;
+ *   quand l'écriture prend du retard, les extracteurs attendent au lieu d'accumuler les morceaux en mémoire.
+ * ➤ Écriture : un seul consommateur, le thread appelant, insère les morceaux par lots de
+ *   {@link Config#IMPORT_BATCH_SIZE}, un lot par transaction.
+ * ➤ Index des fichiers : l'empreinte (taille, date, contenu si {@link Config#SCAN_CONTENT_HASH}) de chaque
+ *   fichier lu est enregistrée avec son lot ; un fichier déjà indexé et modifié depuis met à jour son morceau
+ *   au lieu d'en créer un nouveau.
+ * </p>
+ */
+public class LibraryScanner {
+    private static final Logger logger = Logger.getLogger(LibraryScanner.class.getName());
+
+    // Marque de fin de file, déposée par le dernier extracteur
+    private static final Extracted END_OF_SCAN = new Extracted(null, null, false);
+
+    private final MetadataManager metadataManager;
+    private final DbManagerInsert dbInsert;
+    private final DbManagerUpdate dbUpdate; // null : les fichiers modifiés sont traités comme nouveaux
+    private final int workerCount;
+    private final int queueCapacity;
+    private final int batchSize;
+
+    /**
+     * Résultat d'un scan.
+     */
+    public static class ScanResult {
+        private final List<Track> insertedTracks;
+        private final int rejected;
+        private final int unreadable;
+        private final List<Track> updatedTracks;
+        private final List<String> deletedFilePaths;
+
+        ScanResult(List<Track> insertedTracks, int rejected, int unreadable, List<Track> updatedTracks,
+                   List<String> deletedFilePaths) {
+            this.insertedTracks = Collections.unmodifiableList(insertedTracks);
+            this.rejected = rejected;
+            this.unreadable = unreadable;
+            this.updatedTracks = Collections.unmodifiableList(updatedTracks);
+            this.deletedFilePaths = Collections.unmodifiableList(deletedFilePaths);
+        }
+
+        /**
+         * @return Une copie de ce bilan qui signale aussi les fichiers supprimés dont les morceaux ont été retirés.
+         */
+        ScanResult withDeletedFilePaths(List<String> filePaths) {
+            return new ScanResult(insertedTracks, rejected, unreadable, updatedTracks, filePaths);
+        }
+
+        /** @return Le nombre de morceaux insérés en base. */
+        public int getInserted() {
+            return insertedTracks.size();
+        }
+
+        /** @return Les morceaux insérés en base, avec leur ID. */
+        public List<Track> getInsertedTracks() {
+            return insertedTracks;
+        }
+
+        /** @return Le nombre de morceaux refusés par la base (déjà présents, invalides). */
+        public int getRejected() {
+            return rejected;
+        }
+
+        /** @return Le nombre de fichiers dont les métadonnées n'ont pas pu être lues. */
+        public int getUnreadable() {
+            return unreadable;
+        }
+
+        /** @return Les morceaux relus depuis des fichiers modifiés et envoyés à la mise à jour. */
+        public List<Track> getUpdatedTracks() {
+            return updatedTracks;
+        }
+
+        /** @return Les chemins des fichiers disparus dont les morceaux ont été supprimés de la base. */
+        public List<String> getDeletedFilePaths() {
+            return deletedFilePaths;
+        }
+    }
+
+    /**
+     * Élément de la file entre extracteurs et écrivain : le morceau lu (null si seule l'empreinte
+     * a changé) et l'empreinte du fichier (null si ses attributs sont illisibles).
+     */
+    private static final class Extracted {
+        final Track track;
+        final FileFingerprint fingerprint;
+        final boolean known; // fichier indexé dont un morceau est déjà en base
+
+        Extracted(Track track, FileFingerprint fingerprint, boolean known) {
+            this.track = track;
+            this.fingerprint = fingerprint;
+            this.known = known;
+        }
+    }
+
+    /**
+     * Crée un scanner réglé par la configuration.
+     * @param metadataManager Extracteur de métadonnées, appelé depuis plusieurs threads.
+     * @param dbInsert Gestionnaire d'insertion.
+     */
+    public LibraryScanner(MetadataManager metadataManager, DbManagerInsert dbInsert) {
+        this(metadataManager, dbInsert, null);
+    }
+
+    /**
+     * Crée un scanner réglé par la configuration, qui met à jour les morceaux des fichiers modifiés.
+     * @param metadataManager Extracteur de métadonnées, appelé depuis plusieurs threads.
+     * @param dbInsert Gestionnaire d'insertion.
+     * @param dbUpdate Gestionnaire de mise à jour, ou null.
+     */
+    public LibraryScanner(MetadataManager metadataManager, DbManagerInsert dbInsert, DbManagerUpdate dbUpdate) {
+        this(metadataManager, dbInsert, dbUpdate, Config.SCAN_WORKER_COUNT, Config.SCAN_QUEUE_CAPACITY, Config.IMPORT_BATCH_SIZE);
+    }
+
+    /**
+     * @param metadataManager Extracteur de métadonnées, appelé depuis plusieurs threads.
+     * @param dbInsert Gestionnaire d'insertion.
+     * @param workerCount Nombre de threads d'extraction.
+     * @param queueCapacity Nombre maximal de morceaux extraits en attente d'insertion.
+     * @param batchSize Nombre de morceaux insérés par transaction.
+     */
+    public LibraryScanner(MetadataManager metadataManager, DbManagerInsert dbInsert,
+                          int workerCount, int queueCapacity, int batchSize) {
+        this(metadataManager, dbInsert, null, workerCount, queueCapacity, batchSize);
+    }
+
+    /**
+     * @param metadataManager Extracteur de métadonnées, appelé depuis plusieurs threads.
+     * @param dbInsert Gestionnaire d'insertion.
+     * @param dbUpdate Gestionnaire de mise à jour des morceaux des fichiers modifiés, ou null.
+     * @param workerCount Nombre de threads d'extraction.
+     * @param queueCapacity Nombre maximal de morceaux extraits en attente d'écriture.
+     * @param batchSize Nombre de morceaux écrits par transaction.
+     */
+    public LibraryScanner(MetadataManager metadataManager, DbManagerInsert dbInsert, DbManagerUpdate dbUpdate,
+                          int workerCount, int queueCapacity, int batchSize) {
+        this.metadataManager = metadataManager;
+        this.dbInsert = dbInsert;
+        this.dbUpdate = dbUpdate;
+        this.workerCount = Math.max(1, workerCount);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Extrait les métadonnées de nouveaux fichiers en parallèle et les insère en base par lots.
+     * Bloque jusqu'à la fin du scan.
+     * @param files Fichiers audio à scanner.
+     * @return Le bilan du scan.
+     */
+    public ScanResult scan(List<File> files) {
+        return scan(files, Map.of());
+    }
+
+    /**
+     * Extrait les métadonnées des fichiers en parallèle et les écrit en base par lots.
+     * Bloque jusqu'à la fin du scan.
+     * @param files Fichiers audio à scanner : nouveaux ou modifiés depuis leur dernier scan.
+     * @param previous Empreintes enregistrées des fichiers déjà indexés, par chemin absolu.
+     * @return Le bilan du scan.
+     */
+    public ScanResult scan(List<File> files, Map<String, FileFingerprint> previous) {
+        if (files.isEmpty()) {
+            return new ScanResult(List.of(), 0, 0, List.of(), List.of());
+        }
+        long start = System.nanoTime();
+        Queue<File> pending = new ConcurrentLinkedQueue<>(files);
+        BlockingQueue<Extracted> extracted = new ArrayBlockingQueue<>(queueCapacity);
+        int workerThreads = Math.min(workerCount, files.size());
+        AtomicInteger runningWorkers = new AtomicInteger(workerThreads);
+        AtomicInteger unreadable = new AtomicInteger();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(workerThreads, task -> {
+            Thread thread = new Thread(task, "library-scanner-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Track> insertedTracks = new ArrayList<>();
+        int[] rejected = new int[1];
+        List<Track> updatedTracks = new ArrayList<>();
+        try {
+            for (int i = 0; i < workerThreads; i++) {
+                workers.execute(() -> extractAll(pending, previous, extracted, runningWorkers, unreadable));
+            }
+            List<Extracted> batch = new ArrayList<>(batchSize);
+            Extracted item;
+            while ((item = extracted.take()) != END_OF_SCAN) {
+                batch.add(item);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, insertedTracks, rejected, updatedTracks);
+                }
+            }
+            writeBatch(batch, insertedTracks, rejected, updatedTracks);
+        } catch (InterruptedException e) {
+            logger.warning("⚠️ Scan interrompu.");
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow(); // débloque les extracteurs si l'écriture s'est arrêtée
+        }
+        logger.info("✅ Scan terminé : " + files.size() + " fichier(s) en "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms avec " + workerThreads
+            + " extracteur(s) : " + insertedTracks.size() + " ajouté(s), " + updatedTracks.size() + " mis à jour, "
+            + rejected[0] + " refusé(s), " + unreadable.get() + " illisible(s).");
+        return new ScanResult(insertedTracks, rejected[0], unreadable.get(), updatedTracks, List.of());
+    }
+
+    /**
+     * Boucle d'un extracteur : prend des fichiers tant qu'il en reste et dépose les morceaux dans la file.
+     * Un fichier modifié dont le contenu est identique (même empreinte) n'est pas relu : seule son empreinte
+     * est déposée. Le dernier extracteur à terminer dépose la marque de fin.
+     */
+    private void extractAll(Queue<File> pending, Map<String, FileFingerprint> previous, BlockingQueue<Extracted> extracted,
+                            AtomicInteger runningWorkers, AtomicInteger unreadable) {
+        try {
+            File file;
+            while (!Thread.currentThread().isInterrupted() && (file = pending.poll()) != null) {
+                FileFingerprint known = previous.get(file.getAbsolutePath());
+                FileFingerprint fingerprint = fingerprint(file);
+                if (fingerprint != null && fingerprint.hasSameContentAs(known)) {
+                    extracted.put(new Extracted(null, fingerprint, true)); // fichier touché mais inchangé
+                    continue;
+                }
+                Optional<Track> track = metadataManager.extractMetadata(file);
+                if (track.isEmpty()) {
+                    unreadable.incrementAndGet(); // non indexé : réessayé au prochain scan
+                    logger.warning("⚠️ Impossible d'extraire les métadonnées pour : " + file.getName());
+                    continue;
+                }
+                // attend si l'écriture a pris du retard
+                extracted.put(new Extracted(track.get(), fingerprint, known != null && known.hasTrack()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (runningWorkers.decrementAndGet() == 0) {
+                try {
+                    extracted.put(END_OF_SCAN);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // l'écriture est déjà arrêtée
+                }
+            }
+        }
+    }
+
+    /**
+     * Lit l'empreinte d'un fichier, avec celle de son contenu si {@link Config#SCAN_CONTENT_HASH}.
+     * @return L'empreinte, ou null si le fichier ne peut pas être lu (il ne sera alors pas indexé).
+     */
+    private static FileFingerprint fingerprint(File file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            FileFingerprint fingerprint = new FileFingerprint(file.getAbsolutePath(), attributes.size(),
+                attributes.lastModifiedTime().toMillis(), null);
+            return Config.SCAN_CONTENT_HASH ? fingerprint.withContentHash(contentHash(file)) : fingerprint;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return L'empreinte SHA-256 du contenu du fichier, en hexadécimal.
+     */
+    private static String contentHash(File file) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), MessageDigest.getInstance("SHA-256"))) {
+            byte[] buffer = new byte[64 * 1024];
+            while (in.read(buffer) != -1) {
+                // le flux met à jour l'empreinte au fil de la lecture
+            }
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Écrit un lot puis vide le lot : les morceaux des nouveaux fichiers sont insérés en une transaction,
+     * ceux des fichiers modifiés sont mis à jour en une autre, puis les empreintes des fichiers traités
+     * sont enregistrées. Les empreintes d'un lot d'insertion annulé ne sont pas enregistrées.
+     */
+    private void writeBatch(List<Extracted> batch, List<Track> insertedTracks, int[] rejected, List<Track> updatedTracks) {
+        if (batch.isEmpty()) return;
+        List<Track> newTracks = new ArrayList<>();
+        List<Track> changedTracks = new ArrayList<>();
+        List<FileFingerprint> fingerprints = new ArrayList<>();
+        List<FileFingerprint> newFingerprints = new ArrayList<>();
+        for (Extracted item : batch) {
+            if (item.track == null) {
+                fingerprints.add(item.fingerprint);
+            } else if (item.known && dbUpdate != null) {
+                changedTracks.add(item.track);
+                if (item.fingerprint != null) fingerprints.add(item.fingerprint);
+            } else {
+                newTracks.add(item.track);
+                if (item.fingerprint != null) newFingerprints.add(item.fingerprint);
+            }
+        }
+        if (!newTracks.isEmpty() && !insertBatch(newTracks, insertedTracks, rejected)) {
+            newFingerprints.clear(); // lot annulé : ces fichiers seront relus au prochain scan
+        }
+        if (!changedTracks.isEmpty()) {
+            int updated = dbUpdate.updateTracks(changedTracks);
+            updatedTracks.addAll(changedTracks);
+            logger.info("🔄 " + updated + "/" + changedTracks.size() + " morceau(x) mis à jour depuis des fichiers modifiés.");
+        }
+        fingerprints.addAll(newFingerprints);
+        if (!fingerprints.isEmpty()) {
+            dbInsert.saveFileFingerprints(fingerprints);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Insère des morceaux en une seule transaction.
+     * Les morceaux refusés (déjà présents, invalides) sont journalisés un par un ; leurs fichiers sont
+     * tout de même indexés et ne seront relus que s'ils changent.
+     * @return false si tout le lot a été annulé.
+     */
+    private boolean insertBatch(List<Track> batch, List<Track> insertedTracks, int[] rejected) {
+        DbManagerInsert.BatchResult result = dbInsert.insertTracks(batch);
+        for (Track track : result.getInserted()) {
+            logger.info("🎵 Ajouté en base : " + track.getTitle() + " - " + track.getArtist() + " (" + track.getAlbum() + ") [" + track.getYear() + "] [" + track.getGenre() + "]");
+        }
+        for (Map.Entry<Track, String> failure : result.getFailures().entrySet()) {
+            logger.warning("❌ Échec de l'ajout du morceau : " + failure.getKey().getTitle() + " (" + failure.getValue() + ")");
+        }
+        insertedTracks.addAll(result.getInserted());
+        rejected[0] += result.getFailures().size();
+        return !result.isRolledBack();
+    }
+}
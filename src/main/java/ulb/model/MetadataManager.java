@@ -5,13 +5,11 @@ import ulb.model.handbleError.MetadataExtractionException;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.AudioFileIO;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
-import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
@@ -26,7 +24,7 @@ import java.util.Optional;
 
 /**
  * Classe responsable de l'extraction des métadonnées et des images des fichiers
- * MP3 ainsi que la modification
+ * audio (tous les formats lus par jaudiotagger) ainsi que la modification
  * des métadonnées d'un fichier audio..
  */
 public class MetadataManager {
@@ -38,6 +36,8 @@ public class MetadataManager {
                                                                                            // couverture
     private String lyrics_tracks_directory_path = Config.getFullPathFromRelative(Config.LYRICS_TRACKS_DIRECTORY);
     private String karaoke_tracks_directory_path = Config.getFullPathFromRelative(Config.KARAOKE_TRACKS_DIRECTORY);
+    private final CoverStore coverStore = new CoverStore(
+            Paths.get(Config.getFullPathFromRelative(Config.COVER_IMAGES_DIRECTORY))); // pochettes partagées par album
     private static final Logger logger = Logger.getLogger(MetadataManager.class.getName());
 
     /**
@@ -50,52 +50,52 @@ public class MetadataManager {
     }
 
     /**
-     * Extrait les métadonnées d'un fichier MP3 et enregistre la pochette si
+     * Extrait les métadonnées d'un fichier audio (MP3, FLAC, OGG, M4A, WAV) et enregistre la pochette si
      * disponible.
      * 
-     * @param mp3File Le fichier MP3 à analyser.
+     * @param file Le fichier audio à analyser.
      * @return Une `Track` contenant les métadonnées et le chemin de l'image.
      */
-    public Optional<Track> extractMetadata(File mp3File) {
+    public Optional<Track> extractMetadata(File file) {
         try {
             // Lecture du fichier audio et extraction des métadonnées
-            AudioFile audioFile = AudioFileIO.read(mp3File);
+            AudioFile audioFile = AudioFileIO.read(file);
             Tag tag = audioFile.getTag();
             // Extraction des informations principales
-            String title = getTagValue(tag, FieldKey.TITLE, mp3File.getName().replace(".mp3", ""));
+            String title = getTagValue(tag, FieldKey.TITLE, baseName(file));
             String artist = getTagValue(tag, FieldKey.ARTIST, "Inconnu");
             String album = getTagValue(tag, FieldKey.ALBUM, "Inconnu");
             String year = getTagValue(tag, FieldKey.YEAR, "0000");
             String genre = getTagValue(tag, FieldKey.GENRE, "Inconnu");
             int duration = audioFile.getAudioHeader().getTrackLength(); // Durée en secondes
-            String file_path = mp3File.getAbsolutePath();
+            String file_path = file.getAbsolutePath();
             // Gestion de l'image de couverture
             String coverPath = extractCoverImage(tag, title);
             // String wavPath = convertMp3ToWav(file_path); // Convertit le MP3 en WAV pour
             // Vosk
             // Création des fichiers de paroles et karaoke
             // Pair<String, String> returPath = createLyricsAndKaraoteFiles(wavPath);
-            String lyricsPath = getLyricsFilePath(mp3File, title);
-            String karaokePath = getKaraokeFilePath(mp3File, title);
+            String lyricsPath = getLyricsFilePath(file, title);
+            String karaokePath = getKaraokeFilePath(file, title);
             // String = createKaraokeFile(wavPath, title);
             // Création de l'objet Track avec les nouveaux chemins
             return Optional.of(new Track(title, artist, album, year, duration, genre, file_path, coverPath, lyricsPath,
                     karaokePath));
 
         } catch (FileNotFoundException e) {
-            // fichier MP3 n'est pas trouvé
-            logger.warning("❌ Fichier MP3 introuvable : " + mp3File.getName() + " (" + e.getMessage() + ")");
+            // fichier audio introuvable
+            logger.warning("❌ Fichier audio introuvable : " + file.getName() + " (" + e.getMessage() + ")");
         } catch (IOException e) {
             // erreurs liées à l'entrée/sortie, problème d'accès ou de lecture du fichier
             logger.warning(
-                    "❌ Erreur lors de la lecture du fichier MP3 : " + mp3File.getName() + " (" + e.getMessage() + ")");
+                    "❌ Erreur lors de la lecture du fichier audio : " + file.getName() + " (" + e.getMessage() + ")");
         } catch (TagException e) {
             // extraction des métadonnées échoue, format du fichier ou les tags
-            logger.warning("❌ Erreur lors de l'extraction des métadonnées du fichier MP3 : " + mp3File.getName() + " ("
+            logger.warning("❌ Erreur lors de l'extraction des métadonnées du fichier audio : " + file.getName() + " ("
                     + e.getMessage() + ")");
         } catch (Exception e) {
-            logger.severe("❌ Erreur inattendue lors de l'extraction des métadonnées du fichier MP3 : "
-                    + mp3File.getName() + " (" + e.getMessage() + ")");
+            logger.severe("❌ Erreur inattendue lors de l'extraction des métadonnées du fichier audio : "
+                    + file.getName() + " (" + e.getMessage() + ")");
         }
         return Optional.empty();
     }
@@ -104,7 +104,7 @@ public class MetadataManager {
      * Récupère la valeur d'un tag, en utilisant une valeur par défaut si elle est
      * vide.
      * 
-     * @param tag          L'objet contenant les métadonnées du fichier MP3.
+     * @param tag          L'objet contenant les métadonnées du fichier audio.
      * @param key          La clé du champ à récupérer.
      * @param defaultValue Valeur par défaut si le champ est vide.
      * @return La valeur extraite ou la valeur par défaut.
@@ -119,11 +119,12 @@ public class MetadataManager {
 
     /**
      * Extrait et enregistre l'image de couverture si elle est présente dans les
-     * métadonnées du fichier MP3.
+     * métadonnées du fichier audio, dans le stockage adressé par contenu : une image
+     * déjà enregistrée (même pochette d'album) n'est pas réécrite.
      * Sinon, retourne une image par défaut.
      * 
-     * @param tag   Les métadonnées du fichier MP3.
-     * @param title Le titre du morceau pour nommer le fichier image.
+     * @param tag   Les métadonnées du fichier audio.
+     * @param title Le titre du morceau, pour les messages.
      * @return Le chemin de l'image enregistrée ou l'image par défaut si aucune
      *         image n'a été trouvée.
      */
@@ -133,26 +134,7 @@ public class MetadataManager {
             byte[] imageData = artwork.getBinaryData();
             if (imageData != null) {
                 try {
-                    // Vérifier et créer le dossier covers/ si nécessaire
-                    String image_dir = Config.getFullPathFromRelative(Config.COVER_IMAGES_DIRECTORY);
-                    File coverDir = new File(image_dir);
-                    if (!coverDir.exists()) {
-                        if (!coverDir.mkdirs()) {
-                            // Log failure to create directory and throw
-                            logger.warning("Impossible de créer le répertoire des couvertures: " + image_dir);
-                            throw new MetadataExtractionException("Impossible de créer le répertoire des couvertures: " + image_dir, null);
-                        }
-                    }
-                    // Chemin où sauvegarder l'image
-                    String imagePath = String
-                            .valueOf(Paths.get(image_dir, title.replaceAll("[^a-zA-Z0-9]", "_") + ".jpg"));
-                    File imageFile = new File(imagePath);
-
-                    try (FileOutputStream fos = new FileOutputStream(imageFile)) {
-                        fos.write(imageData);
-                    }
-                    logger.info("✅ Image de couverture enregistrée : " + imagePath);
-                    return imagePath;
+                    return coverStore.store(imageData, artwork.getMimeType());
                 } catch (IOException e) {
                     // Erreur lors de la création du répertoire ou de l'écriture de l'image.
                     logger.log(Level.WARNING, "Impossible d'écrire l'image de couverture pour " + title, e);
@@ -169,10 +151,19 @@ public class MetadataManager {
         return default_cover_image;
     }
 
-    private String getLyricsFilePath(File mp3File, String title) {
+    /**
+     * @return Le nom du fichier sans son extension, quel que soit le format audio.
+     */
+    private static String baseName(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private String getLyricsFilePath(File file, String title) {
         String sanitizedTitle = (title != null && !title.isEmpty()) ? 
                                 title.replaceAll("[^a-zA-Z0-9.-]", "_") :
-                                mp3File.getName().replaceAll("[^a-zA-Z0-9.-]", "_").replace(".mp3", "");
+                                baseName(file).replaceAll("[^a-zA-Z0-9.-]", "_");
         String lyricsFilePath = lyrics_tracks_directory_path + File.separator + sanitizedTitle + ".txt";
         File lyricsFile = new File(lyricsFilePath);
         if (lyricsFile.exists()) {
@@ -183,10 +174,10 @@ public class MetadataManager {
         return null; 
     }
 
-    private String getKaraokeFilePath(File mp3File, String title) {
+    private String getKaraokeFilePath(File file, String title) {
         String sanitizedTitle = (title != null && !title.isEmpty()) ? 
                                 title.replaceAll("[^a-zA-Z0-9.-]", "_") :
-                                mp3File.getName().replaceAll("[^a-zA-Z0-9.-]", "_").replace(".mp3", "");
+                                baseName(file).replaceAll("[^a-zA-Z0-9.-]", "_");
         String karaokeFilePath = karaoke_tracks_directory_path + File.separator + sanitizedTitle + ".lrc";
         File karaokeFile = new File(karaokeFilePath);
         if (karaokeFile.exists()) {
@@ -255,6 +246,13 @@ public class MetadataManager {
         }
     }
 
+    /**
+     * @return Le stockage des images de couverture alimenté par l'extraction.
+     */
+    public CoverStore getCoverStore() {
+        return coverStore;
+    }
+
     /**
      * Modifie les métadonnées d'un fichier audio.
      * 
@@ -268,14 +266,14 @@ public class MetadataManager {
             return false;
         }
         try {
-            MP3File mp3File = new MP3File(file);
-            Tag tag = mp3File.getTag();
+            AudioFile audioFile = AudioFileIO.read(file); // format déduit de l'extension
+            Tag tag = audioFile.getTagOrCreateAndSetDefault();
 
             tag.setField(FieldKey.TITLE, track.getTitle());
             tag.setField(FieldKey.ARTIST, track.getArtist());
             tag.setField(FieldKey.ALBUM, track.getAlbum());
 
-            mp3File.commit();
+            audioFile.commit();
             return true;
         } catch (CannotWriteException e) {
             logger.warning("Erreur lors de la mise à jour des métadonnées : " + e.getMessage());
@@ -3,12 +3,14 @@ package ulb.model;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class Playlist implements Iterable<Track> {
     private String title;        // Nom unique de la playlist
     protected List<Track> tracks;  // Liste des morceaux de la playlist
 
     private List<PlaylistObserver> observers = new ArrayList<>();
+    private Supplier<List<Track>> pendingContent; // lecture différée des morceaux, null une fois chargés
     
     /**
      * Reorders a track in the playlist by moving it from one position to another.
@@ -40,6 +42,34 @@ public class Playlist implements Iterable<Track> {
         this.tracks = new ArrayList<>();
     }
 
+    /**
+     * Crée une playlist dont les morceaux ne sont lus qu'à la première ouverture.
+     * @param title Nom unique de la playlist
+     * @param contentLoader Lecture des morceaux, appelée au plus une fois (hors du thread JavaFX)
+     */
+    public Playlist(String title, Supplier<List<Track>> contentLoader) {
+        this(title);
+        this.pendingContent = contentLoader;
+    }
+
+    /**
+     * @return true si les morceaux de la playlist n'ont pas encore été lus
+     */
+    public boolean hasPendingContent() {
+        return pendingContent != null;
+    }
+
+    /**
+     * Retire la lecture différée des morceaux pour l'exécuter ; les appels suivants renvoient null.
+     * Les morceaux lus sont ensuite ajoutés avec {@link #addTrack(Track)}.
+     * @return La lecture des morceaux, ou null si elle a déjà été prise
+     */
+    public Supplier<List<Track>> takePendingContent() {
+        Supplier<List<Track>> loader = pendingContent;
+        pendingContent = null;
+        return loader;
+    }
+
     public void addTrack(Track track) {
         if (!tracks.contains(track)) { // si le ttrack ne se trouve  pas déja dans la Playist
             addTrackInternal(track);   
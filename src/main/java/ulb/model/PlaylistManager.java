@@ -59,6 +59,19 @@ public class PlaylistManager {
         }
     }
 
+    /**
+     * Retire un morceau de toutes les playlists chargées, par exemple quand son fichier a été supprimé.
+     * Les playlists dont le contenu n'est pas encore chargé le liront sans ce morceau.
+     * @param track Le morceau retiré de la bibliothèque
+     */
+    public void removeTrackFromPlaylists(Track track) {
+        for (Playlist playlist : playlists) {
+            if (!playlist.hasPendingContent()) {
+                playlist.removeTrack(track);
+            }
+        }
+    }
+
     /**
      * Retourne la liste des playlists.
      * @return La liste des playlists
@@ -20,6 +20,14 @@ public class Track {
 
     public interface TrackObserver {
         public void onChangeData(Track t);
+
+        /**
+         * Appelée quand le morceau reçoit des données déjà enregistrées en base (fichier rescanné) :
+         * par défaut, traitée comme une modification.
+         */
+        public default void onReloadData(Track t) {
+            onChangeData(t);
+        }
     }
 
     private int trackId;      // Identifiant unique du morceau
@@ -189,11 +197,19 @@ public class Track {
     }
 
     private void notifyChangeMetadata() {
+        notifyObservers(false);
+    }
+
+    private void notifyObservers(boolean reloaded) {
         Iterator<TrackObserver> iterator = observers.iterator();
         while (iterator.hasNext()) {
             TrackObserver observer = iterator.next();
             if (observer != null) {
-                observer.onChangeData(this);
+                if (reloaded) {
+                    observer.onReloadData(this);
+                } else {
+                    observer.onChangeData(this);
+                }
             } else {
                 iterator.remove();  // This line ensures that null references are removed
             }
@@ -201,10 +217,31 @@ public class Track {
     }
 
     public void assign(Track t){
+        if (copyFrom(t)) {
+            notifyChangeMetadata();
+        }
+    }
 
+    /**
+     * Copie les données d'un morceau déjà enregistrées en base (p. ex. relues d'un fichier modifié) :
+     * les observateurs sont notifiés par {@link TrackObserver#onReloadData}, qui ne marque pas le morceau
+     * à réenregistrer.
+     *
+     * @param t Morceau portant les données enregistrées.
+     */
+    public void reload(Track t) {
+        if (copyFrom(t)) {
+            notifyObservers(true);
+        }
+    }
+
+    /**
+     * @return false si le morceau avait déjà ces données.
+     */
+    private boolean copyFrom(Track t) {
         if(isEqual(t)){
             logger.info("nothing to change");
-            return;
+            return false;
         }
 
         this.trackId = t.trackId;
@@ -218,8 +255,7 @@ public class Track {
         this.coverPath = t.coverPath;
         this.lyricsPath = t.lyricsPath;
         this.karaokePath = t.karaokePath;
-
-        notifyChangeMetadata();
+        return true;
     }
 
     public boolean isEqual(Track t) {
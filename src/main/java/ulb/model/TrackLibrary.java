@@ -1,9 +1,14 @@
 package ulb.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * The {@code TrackLibrary} class manages a collection of {@link Track} objects.
@@ -22,8 +27,8 @@ public class TrackLibrary {
 
     private final List<TrackLibraryObserver> observers = new ArrayList<>();
 
-    // Map storing the tracks by their ID
-    private final Map<Integer, Track> tracks = new HashMap<>();
+    // Map storing the tracks by their ID; also read by DAO threads to reuse the canonical instances
+    private final Map<Integer, Track> tracks = new ConcurrentHashMap<>();
 
     public TrackLibrary() {}
 
@@ -40,6 +45,18 @@ public class TrackLibrary {
         }
     }
 
+    /**
+     * Replaces the tracks in the library with those pushed one at a time by the given source,
+     * e.g. a database cursor, so the library is filled without an intermediate list.
+     * Observers are notified when the tracks are added.
+     *
+     * @param source a function that passes every track to the consumer it receives.
+     */
+    public void loadTracks(Consumer<Consumer<Track>> source) {
+        this.tracks.clear(); // clear existing tracks
+        source.accept(this::addTrack); // add each track and notify observers
+    }
+
     /**
      * Adds a new track to the library and notifies all observers about it.
      *
@@ -52,6 +69,89 @@ public class TrackLibrary {
         }
     }
 
+    /**
+     * Removes a track from the library and notifies all observers about it.
+     *
+     * @param t the track to remove from the library.
+     */
+    public void removeTrack(Track t) {
+        if (this.tracks.remove(t.getTrackId(), t)) {
+            for (TrackLibraryObserver observer : observers) {
+                observer.onRemoveTrack(t); // notify all observers about the removal
+            }
+        }
+    }
+
+    /**
+     * Brings the library in line with a fresh read of the database, e.g. after it was restored from a snapshot
+     * and the folder scan added tracks. Tracks already in the library keep their instance; unknown ones are added
+     * and tracks absent from {@code current} are removed, observers being notified of both.
+     *
+     * @param current every track currently stored in the database.
+     */
+    public void reconcile(List<Track> current) {
+        Set<Integer> currentIds = new HashSet<>();
+        for (Track track : current) {
+            currentIds.add(track.getTrackId());
+            if (!this.tracks.containsKey(track.getTrackId())) {
+                this.addTrack(track);
+            }
+        }
+        for (Track track : getTracks()) {
+            if (!currentIds.contains(track.getTrackId())) {
+                this.removeTrack(track);
+            }
+        }
+    }
+
+    /**
+     * Copies metadata re-read from modified files onto the tracks of the library holding the same file path.
+     * Database reads return the library's instances, so they would not pick those changes up by themselves.
+     * The values are already saved, so the library tracks notify their observers with
+     * {@link Track.TrackObserver#onReloadData}: views refresh, the ChangeTracker does not mark them for write-back.
+     *
+     * @param rescanned tracks extracted from the modified files, without ID.
+     */
+    public void refreshTracks(List<Track> rescanned) {
+        if (rescanned.isEmpty()) return;
+        Map<String, Track> byFilePath = tracksByFilePath();
+        for (Track track : rescanned) {
+            Track current = byFilePath.get(track.getFilePath());
+            if (current != null) {
+                track.setTrackId(current.getTrackId());
+                current.reload(track);
+            }
+        }
+    }
+
+    /**
+     * Removes the tracks read from the given files and notifies all observers about each removal.
+     *
+     * @param filePaths absolute paths of the files whose tracks were deleted from the database.
+     * @return the tracks that were removed from the library.
+     */
+    public List<Track> removeTracksByFilePath(Collection<String> filePaths) {
+        List<Track> removed = new ArrayList<>();
+        if (filePaths.isEmpty()) return removed;
+        Map<String, Track> byFilePath = tracksByFilePath();
+        for (String filePath : filePaths) {
+            Track track = byFilePath.get(filePath);
+            if (track != null) {
+                this.removeTrack(track);
+                removed.add(track);
+            }
+        }
+        return removed;
+    }
+
+    private Map<String, Track> tracksByFilePath() {
+        Map<String, Track> byFilePath = new HashMap<>();
+        for (Track track : tracks.values()) {
+            byFilePath.put(track.getFilePath(), track);
+        }
+        return byFilePath;
+    }
+
     /**
      * Retrieves a track from the library by its ID.
      *
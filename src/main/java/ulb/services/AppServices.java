@@ -2,8 +2,14 @@ package ulb.services;
 
 import ulb.dao.*;
 import ulb.model.*;
+import ulb.Config;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,11 +17,15 @@ public class AppServices {
     private static final Logger logger = Logger.getLogger(AppServices.class.getName());
 
     private static DbInitializer dbInitializer;
+    private static ConnectionManager connectionManager;
+    private static WriteBehindSyncer trackSyncer;
+    private static LibraryWatcher libraryWatcher;
     private static DbManagerInsert dbInsert;
     private static DbManagerSearch dbSearch;
     private static DbManagerUpdate dbUpdate;
     private static DatabaseSeeder dbSeeder;
     private static MetadataManager metadataManager;
+    private static TrackLibrary trackLibrary; // bibliothèque enregistrée dans l'instantané à la fermeture
 
     private static boolean initialized = false;
 
@@ -31,13 +41,22 @@ public class AppServices {
 
         try {
             Connection connection = dbInitializer.getConnection();
-            dbInsert = new DbManagerInsert(connection);
+            IdCache idCache = new IdCache(); // dictionnaire nom -> ID partagé par les gestionnaires
+            List<Connection> readerConnections = new ArrayList<>();
+            for (int i = 0; i < Config.READER_POOL_SIZE; i++) {
+                readerConnections.add(dbInitializer.openReadOnlyConnection());
+            }
+            connectionManager = new ConnectionManager(readerConnections, idCache);
+            logger.info("[INFO] ConnectionManager initialized");
+
+            dbInsert = new SerializedDbManagerInsert(connection, idCache, connectionManager);
+            dbInsert.warmUpIdCache();
             logger.info("[INFO] DbManagerInsert initialized");
 
-            dbSearch = new DbManagerSearch(connection);
+            dbSearch = new PooledDbManagerSearch(connection, idCache, connectionManager);
             logger.info("[INFO] DbManagerSearch initialized");
 
-            dbUpdate = new DbManagerUpdate(connection, dbInsert);
+            dbUpdate = new SerializedDbManagerUpdate(connection, dbInsert, connectionManager);
             logger.info("[INFO] DbManagerUpdate initialized");
         } catch (Exception e) {
             logger.log(Level.SEVERE, "[ERROR] Erreur lors de la configuration des gestionnaires de base de données", e);
@@ -45,7 +64,7 @@ public class AppServices {
 
         try {
             metadataManager = new MetadataManager();
-            dbSeeder = new DatabaseSeeder(dbInsert, metadataManager);
+            dbSeeder = new DatabaseSeeder(dbInsert, dbUpdate, metadataManager);
             logger.info("[INFO] MetadataManager et DatabaseSeeder initialisés");
         } catch (Exception e) {
             logger.log(Level.SEVERE, "[ERROR] Échec de l'initialisation de MetadataManager ou DatabaseSeeder", e);
@@ -55,10 +74,57 @@ public class AppServices {
         logger.info("[INFO] Tous les services AppServices sont prêts");
     }
 
+    /**
+     * Branche la bibliothèque et son suivi des modifications sur la base :
+     * les morceaux modifiés sont enregistrés en arrière-plan par lots.
+     * @param changes Suivi des morceaux modifiés.
+     * @param library Bibliothèque contenant les morceaux.
+     */
+    public static void startTrackSync(ChangeTracker changes, TrackLibrary library) {
+        trackLibrary = library;
+        dbUpdate.setChanges(changes);
+        dbUpdate.setTrackLibrary(library);
+        if (trackSyncer != null) {
+            trackSyncer.close();
+        }
+        trackSyncer = new WriteBehindSyncer(changes, dbUpdate, Config.TRACK_SYNC_WINDOW_MILLIS);
+        logger.info("[INFO] WriteBehindSyncer initialized");
+    }
+
+    /**
+     * Démarre la surveillance des dossiers de la bibliothèque, une fois le scan de démarrage terminé :
+     * les fichiers ajoutés, modifiés ou supprimés sont ensuite reportés dans la bibliothèque.
+     * @param library Bibliothèque tenue à jour.
+     */
+    public static void startLibraryWatcher(TrackLibrary library) {
+        if (!Config.LIBRARY_WATCH_ENABLED || dbSeeder == null) return;
+        if (libraryWatcher != null) {
+            libraryWatcher.close();
+        }
+        try {
+            libraryWatcher = new LibraryWatcher(Config.getLibraryRoots(), dbSeeder, library,
+                Config.LIBRARY_WATCH_DEBOUNCE_MILLIS, Config.IMPORT_BATCH_SIZE);
+        } catch (IOException e) {
+            libraryWatcher = null;
+            logger.log(Level.WARNING, "[WARNING] Surveillance du dossier de musiques impossible", e);
+        }
+    }
+
+    /**
+     * @return Le fichier de l'instantané binaire de la bibliothèque, dans le dossier de données.
+     */
+    public static Path getLibrarySnapshotPath() {
+        return Paths.get(Config.getFullPathFromRelative(Config.LIBRARY_SNAPSHOT_PATH));
+    }
+
     public static DbInitializer getDbInitializer() {
         return dbInitializer;
     }
 
+    public static ConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
     public static DbManagerInsert getDbInsert() {
         return dbInsert;
     }
@@ -82,10 +148,45 @@ public class AppServices {
     public static void close() {
         if (dbInitializer != null) {
             logger.info("[INFO] Fermeture des services AppServices et de la connexion à la base de données.");
-            dbInitializer.closeConnection();
+            if (libraryWatcher != null) {
+                libraryWatcher.close(); // plus aucune synchronisation du dossier ne touche la base
+                libraryWatcher = null;
+            }
+            if (trackSyncer != null) {
+                trackSyncer.close(); // enregistre les morceaux modifiés encore en attente
+                trackSyncer = null;
+            }
+            try {
+                // avant l'arrêt de l'écrivain : la lecture du compteur passe derrière les écritures en attente
+                writeLibrarySnapshot();
+            } finally {
+                if (connectionManager != null) {
+                    connectionManager.close(); // termine les écritures en attente avant de fermer la connexion principale
+                }
+                dbInitializer.closeConnection();
+                QueryMetrics.logSummary();
+                SlowQueryLog.getInstance().logSummary();
+            }
         } else {
             logger.warning("[WARNING] Tentative de fermeture des services AppServices, mais DbInitializer n'a pas été initialisé.");
         }
         initialized = false; // Reset initialization status
     }
+
+    /**
+     * Enregistre la bibliothèque et les playlists avec le compteur de modifications de la base,
+     * une fois toutes les écritures terminées, pour le prochain démarrage.
+     * Appelée avant la fermeture du ConnectionManager : le compteur est lu sur le thread d'écriture.
+     */
+    private static void writeLibrarySnapshot() {
+        if (!Config.LIBRARY_SNAPSHOT_ENABLED || trackLibrary == null || dbInsert == null) return;
+        long changeCounter = dbInsert.getChangeCounter();
+        if (changeCounter < 0) return;
+        try {
+            LibrarySnapshot.write(getLibrarySnapshotPath(), changeCounter,
+                trackLibrary.getTracks(), PlaylistManager.getInstance().getPlaylists());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "[WARNING] Échec de l'écriture de l'instantané de la bibliothèque", e);
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package ulb.services;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Façade asynchrone autour d'un gestionnaire DAO (DbManagerSearch, DbManagerInsert, DbManagerUpdate).
+ * <p>
+ * Chaque appel s'exécute sur un thread virtuel et renvoie un CompletableFuture :
+ * le thread JavaFX n'attend jamais JDBC. Les résultats sont ramenés sur le thread JavaFX
+ * avec {@link #onFxThread(CompletableFuture, Consumer, Consumer)}.
+ * </p>
+ * @param <D> Type du gestionnaire DAO enveloppé.
+ */
+public class AsyncDao<D> {
+    private static final Logger logger = Logger.getLogger(AsyncDao.class.getName());
+
+    // Un thread virtuel par appel : bloquer sur JDBC ne coûte pas de thread système
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final D dao;
+
+    /**
+     * @param dao Gestionnaire DAO dont les appels seront exécutés en arrière-plan.
+     */
+    public AsyncDao(D dao) {
+        if (dao == null) {
+            throw new IllegalArgumentException("Le gestionnaire DAO ne peut pas être nul");
+        }
+        this.dao = dao;
+    }
+
+    /**
+     * Exécute un appel au gestionnaire sur un thread virtuel.
+     * @param call Appel à exécuter, par exemple {@code db -> db.searchTracksByTitle(query)}.
+     * @return Un futur portant le résultat de l'appel.
+     */
+    public <T> CompletableFuture<T> call(Function<D, T> call) {
+        return CompletableFuture.supplyAsync(() -> call.apply(dao), executor);
+    }
+
+    /**
+     * Exécute un appel sans résultat au gestionnaire sur un thread virtuel.
+     * @param call Appel à exécuter, par exemple {@code DbManagerUpdate::syncTracks}.
+     * @return Un futur complété à la fin de l'appel.
+     */
+    public CompletableFuture<Void> run(Consumer<D> call) {
+        return CompletableFuture.runAsync(() -> call.accept(dao), executor);
+    }
+
+    /**
+     * Exécute sur un thread virtuel une lecture qui ne passe pas par un gestionnaire DAO
+     * (page d'un TrackPager, contenu différé d'une playlist).
+     * @param call Lecture à exécuter, par exemple {@code pager::nextPage}.
+     * @return Un futur portant le résultat de la lecture.
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    /**
+     * @return Le gestionnaire enveloppé, pour les appels qui doivent rester synchrones.
+     */
+    public D getDao() {
+        return dao;
+    }
+
+    /**
+     * Transmet le résultat d'un futur au thread JavaFX.
+     * @param future Futur d'un appel asynchrone.
+     * @param onSuccess Action exécutée sur le thread JavaFX avec le résultat.
+     * @param onFailure Action exécutée sur le thread JavaFX avec l'erreur (journalisée dans tous les cas).
+     * @return Un futur complété une fois l'action JavaFX planifiée.
+     */
+    public static <T> CompletableFuture<Void> onFxThread(CompletableFuture<T> future,
+                                                         Consumer<? super T> onSuccess,
+                                                         Consumer<Throwable> onFailure) {
+        return future.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause != null) {
+                logger.log(Level.SEVERE, "Erreur lors d'un appel asynchrone à la base de données", cause);
+            }
+            runOnFxThread(() -> {
+                if (cause == null) {
+                    onSuccess.accept(result);
+                } else {
+                    onFailure.accept(cause);
+                }
+            });
+        }).handle((result, error) -> null);
+    }
+
+    /**
+     * Transmet le résultat d'un futur au thread JavaFX ; les erreurs sont seulement journalisées.
+     */
+    public static <T> CompletableFuture<Void> onFxThread(CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        return onFxThread(future, onSuccess, error -> { });
+    }
+
+    /**
+     * Exécute une action sur le thread JavaFX ; hors application JavaFX (tests), l'action est exécutée directement.
+     */
+    static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+            return;
+        }
+        try {
+            Platform.runLater(action);
+        } catch (IllegalStateException e) { // toolkit JavaFX non démarré
+            action.run();
+        }
+    }
+}
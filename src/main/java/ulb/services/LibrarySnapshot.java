@@ -0,0 +1,234 @@
+package ulb.services;
+
+import ulb.model.Playlist;
+import ulb.model.Track;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantané binaire de la bibliothèque et des playlists, pour afficher l'interface sans attendre la base.
+ * <p>
+ * ➤ Écrit à la fermeture avec le compteur de modifications de la base ; au démarrage, il n'est utilisé
+ *   que si ce compteur n'a pas changé depuis.
+ * ➤ Format (big-endian) : magic "ULBS", version du format, compteur de modifications,
+ *   morceaux (id, champs texte, durée), playlists (titre, ids des morceaux ou contenu non chargé),
+ *   puis la somme CRC32 du contenu.
+ * ➤ Le fichier est lu d'un bloc dans un tampon et décodé en un seul passage, sans sérialisation Java.
+ * </p>
+ */
+public final class LibrarySnapshot {
+    private static final Logger logger = Logger.getLogger(LibrarySnapshot.class.getName());
+
+    private static final int MAGIC = 0x554C4253; // "ULBS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int CHECKSUM_SIZE = Long.BYTES;
+
+    private final long changeCounter;
+    private final List<Track> tracks;
+    private final List<PlaylistEntry> playlists;
+
+    /**
+     * Playlist telle qu'enregistrée dans l'instantané.
+     */
+    public static final class PlaylistEntry {
+        private final String title;
+        private final List<Integer> trackIds; // null : contenu jamais chargé (chargement différé)
+
+        PlaylistEntry(String title, List<Integer> trackIds) {
+            this.title = title;
+            this.trackIds = trackIds;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * @return Les ids des morceaux dans l'ordre de la playlist, ou null si son contenu n'avait pas été chargé.
+         */
+        public List<Integer> getTrackIds() {
+            return trackIds;
+        }
+    }
+
+    private LibrarySnapshot(long changeCounter, List<Track> tracks, List<PlaylistEntry> playlists) {
+        this.changeCounter = changeCounter;
+        this.tracks = Collections.unmodifiableList(tracks);
+        this.playlists = Collections.unmodifiableList(playlists);
+    }
+
+    /**
+     * @return Le compteur de modifications de la base au moment de l'écriture.
+     */
+    public long getChangeCounter() {
+        return changeCounter;
+    }
+
+    public List<Track> getTracks() {
+        return tracks;
+    }
+
+    public List<PlaylistEntry> getPlaylists() {
+        return playlists;
+    }
+
+    /**
+     * Écrit l'instantané dans un fichier temporaire puis le renomme : un instantané interrompu
+     * ne remplace jamais le précédent.
+     * @param file Fichier de l'instantané.
+     * @param changeCounter Compteur de modifications de la base, lu une fois les écritures terminées.
+     * @param tracks Morceaux de la bibliothèque.
+     * @param playlists Playlists de l'application.
+     * @throws IOException si le fichier ne peut pas être écrit.
+     */
+    public static void write(Path file, long changeCounter, Collection<Track> tracks, List<Playlist> playlists) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 checksum = new CRC32();
+        try (OutputStream buffered = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(changeCounter);
+
+            out.writeInt(tracks.size());
+            for (Track track : tracks) {
+                out.writeInt(track.getTrackId());
+                writeString(out, track.getTitle());
+                writeString(out, track.getArtist());
+                writeString(out, track.getAlbum());
+                writeString(out, track.getYear());
+                writeString(out, track.getGenre());
+                writeString(out, track.getFilePath());
+                writeString(out, track.getCoverPath());
+                writeString(out, track.getLyricsPath());
+                writeString(out, track.getKaraokePath());
+                out.writeInt(track.getDuration() != null ? track.getDuration() : 0);
+            }
+
+            out.writeInt(playlists.size());
+            for (Playlist playlist : playlists) {
+                writeString(out, playlist.getTitle());
+                if (playlist.hasPendingContent()) {
+                    out.writeInt(-1); // contenu non chargé : la playlist restera différée
+                    continue;
+                }
+                List<Track> playlistTracks = playlist.getTracks();
+                out.writeInt(playlistTracks.size());
+                for (Track track : playlistTracks) {
+                    out.writeInt(track.getTrackId());
+                }
+            }
+            out.flush();
+            new DataOutputStream(buffered).writeLong(checksum.getValue()); // hors du CRC
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("💾 Instantané de la bibliothèque écrit : " + tracks.size() + " morceau(x), "
+            + playlists.size() + " playlist(s), compteur " + changeCounter + ".");
+    }
+
+    /**
+     * Lit un instantané, chargé en un seul bloc.
+     * @param file Fichier de l'instantané.
+     * @return L'instantané, ou vide s'il est absent, d'un autre format ou corrompu.
+     */
+    public static Optional<LibrarySnapshot> read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            // lu en entier dans le tas : un fichier projeté (mmap) resterait verrouillé jusqu'au GC,
+            // et sous Windows le remplacement de l'instantané à la fermeture échouerait
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            int contentSize = buffer.limit() - CHECKSUM_SIZE;
+            if (contentSize < 2 * Integer.BYTES + Long.BYTES) {
+                logger.warning("⚠️ Instantané de la bibliothèque tronqué, ignoré.");
+                return Optional.empty();
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.slice(0, contentSize));
+            if (checksum.getValue() != buffer.getLong(contentSize)) {
+                logger.warning("⚠️ Instantané de la bibliothèque corrompu (CRC), ignoré.");
+                return Optional.empty();
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                logger.info("ℹ️ Instantané de la bibliothèque d'un autre format, ignoré.");
+                return Optional.empty();
+            }
+            long changeCounter = buffer.getLong();
+
+            int trackCount = buffer.getInt();
+            List<Track> tracks = new ArrayList<>(trackCount);
+            for (int i = 0; i < trackCount; i++) {
+                int trackId = buffer.getInt();
+                String title = readString(buffer);
+                String artist = readString(buffer);
+                String album = readString(buffer);
+                String year = readString(buffer);
+                String genre = readString(buffer);
+                String filePath = readString(buffer);
+                String coverPath = readString(buffer);
+                String lyricsPath = readString(buffer);
+                String karaokePath = readString(buffer);
+                int duration = buffer.getInt();
+                tracks.add(new Track(trackId, title, artist, album, year, duration, genre,
+                    filePath, coverPath, lyricsPath, karaokePath));
+            }
+
+            int playlistCount = buffer.getInt();
+            List<PlaylistEntry> playlists = new ArrayList<>(playlistCount);
+            for (int i = 0; i < playlistCount; i++) {
+                String title = readString(buffer);
+                int size = buffer.getInt();
+                List<Integer> trackIds = null;
+                if (size >= 0) {
+                    trackIds = new ArrayList<>(size);
+                    for (int j = 0; j < size; j++) {
+                        trackIds.add(buffer.getInt());
+                    }
+                }
+                playlists.add(new PlaylistEntry(title, trackIds));
+            }
+            return Optional.of(new LibrarySnapshot(changeCounter, tracks, playlists));
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "⚠️ Lecture de l'instantané de la bibliothèque impossible", e);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
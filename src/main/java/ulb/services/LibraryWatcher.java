@@ -0,0 +1,261 @@
+package ulb.services;
+
+import ulb.model.DatabaseSeeder;
+import ulb.model.LibraryScanner;
+import ulb.model.PlaylistManager;
+import ulb.model.Track;
+import ulb.model.TrackLibrary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Surveille les dossiers de la bibliothèque pendant l'exécution et y synchronise la bibliothèque.
+ * <p>
+ * ➤ Chaque racine et tous ses sous-dossiers sont enregistrés auprès du WatchService ; un sous-dossier créé
+ *   est enregistré à son tour et parcouru, les fichiers copiés avant son enregistrement n'émettant aucun événement.
+ * ➤ Un thread lit les événements (création, modification, suppression de fichiers audio ou de dossiers).
+ * ➤ Les fichiers concernés sont regroupés : la synchronisation part après un délai de calme, chaque nouvel
+ *   événement repoussant l'échéance (une copie en cours émet de nombreuses modifications), ou dès que
+ *   {@code maxPendingFiles} fichiers sont en attente.
+ * ➤ Un second thread synchronise le lot avec le DatabaseSeeder (index des fichiers, extraction, écriture par
+ *   lots), puis ajoute, met à jour ou retire les morceaux de la TrackLibrary sur le thread JavaFX,
+ *   ce qui notifie ses observateurs.
+ * ➤ Si le système perd des événements (OVERFLOW), toute la bibliothèque est resynchronisée.
+ * </p>
+ */
+public class LibraryWatcher {
+    private static final Logger logger = Logger.getLogger(LibraryWatcher.class.getName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final DatabaseSeeder seeder;
+    private final TrackLibrary library;
+    private final long debounceMillis;
+    private final int maxPendingFiles;
+    private final WatchService watchService;
+    private final Thread watchThread;
+    private final ScheduledExecutorService ingester;
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    private final Set<Path> pendingFiles = new LinkedHashSet<>(); // fichiers signalés depuis la dernière synchronisation
+    private boolean rescanAll = false;                            // des événements ont été perdus
+    private ScheduledFuture<?> pendingSync;                       // synchronisation programmée, null si rien n'est en attente
+
+    /**
+     * Commence à surveiller les dossiers.
+     * @param roots Dossiers racines de la bibliothèque, surveillés avec leurs sous-dossiers.
+     * @param seeder Synchronise les fichiers signalés avec la base.
+     * @param library Bibliothèque tenue à jour.
+     * @param debounceMillis Délai de calme après le dernier événement avant la synchronisation.
+     * @param maxPendingFiles Nombre de fichiers en attente à partir duquel la synchronisation part sans attendre.
+     * @throws IOException si le service de surveillance ne peut pas être créé.
+     */
+    public LibraryWatcher(List<Path> roots, DatabaseSeeder seeder, TrackLibrary library,
+                          long debounceMillis, int maxPendingFiles) throws IOException {
+        this.seeder = seeder;
+        this.library = library;
+        this.debounceMillis = debounceMillis;
+        this.maxPendingFiles = Math.max(1, maxPendingFiles);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (Path root : roots) {
+            registerTree(root);
+        }
+        this.ingester = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "library-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchThread = new Thread(this::watch, "library-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+        logger.info("👀 Surveillance de " + watchedDirectories.size() + " dossier(s) de la bibliothèque : " + roots);
+    }
+
+    /**
+     * Enregistre un dossier et tous ses sous-dossiers. Un dossier illisible est ignoré.
+     */
+    private void registerTree(Path root) {
+        if (!Files.isDirectory(root)) {
+            logger.warning("⚠️ Dossier de la bibliothèque introuvable, non surveillé : " + root);
+            return;
+        }
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                    watchedDirectories.put(key, dir.toAbsolutePath());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException | ClosedWatchServiceException e) {
+            logger.warning("⚠️ Surveillance impossible de " + root + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Boucle du thread de surveillance, jusqu'à la fermeture du WatchService.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = watchedDirectories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        onOverflow();
+                        continue;
+                    }
+                    if (directory == null) continue;
+                    Path path = directory.resolve((Path) event.context());
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                        registerTree(path);
+                        onFileEvent(path); // parcouru à la synchronisation
+                    } else if (DatabaseSeeder.isAudioFile(path.getFileName().toString())
+                            || (event.kind() == ENTRY_DELETE && isWatched(path))) {
+                        onFileEvent(path);
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(key); // dossier supprimé ou inaccessible
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // fermeture de la surveillance
+        }
+    }
+
+    /**
+     * @return true si le chemin est un dossier surveillé (un dossier supprimé n'existe plus sur le disque).
+     */
+    private boolean isWatched(Path path) {
+        return watchedDirectories.containsValue(path);
+    }
+
+    private synchronized void onFileEvent(Path file) {
+        pendingFiles.add(file);
+        scheduleSync(pendingFiles.size() >= maxPendingFiles ? 0 : debounceMillis);
+    }
+
+    private synchronized void onOverflow() {
+        logger.warning("⚠️ Événements des dossiers de la bibliothèque perdus : resynchronisation complète.");
+        rescanAll = true;
+        scheduleSync(debounceMillis);
+    }
+
+    /**
+     * Reprogramme la synchronisation : chaque événement repousse l'échéance du délai de calme.
+     */
+    private void scheduleSync(long delayMillis) {
+        if (ingester.isShutdown()) return;
+        if (pendingSync != null) {
+            pendingSync.cancel(false);
+        }
+        pendingSync = ingester.schedule(this::sync, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Synchronise les fichiers en attente avec la base, puis publie le résultat dans la bibliothèque.
+     */
+    private void sync() {
+        List<File> files = new ArrayList<>();
+        boolean full;
+        synchronized (this) {
+            for (Path file : pendingFiles) {
+                files.add(file.toFile());
+            }
+            pendingFiles.clear();
+            full = rescanAll;
+            rescanAll = false;
+            pendingSync = null;
+        }
+        if (files.isEmpty() && !full) return;
+        try {
+            LibraryScanner.ScanResult result = full ? seeder.seedDatabase() : seeder.syncFiles(files);
+            if (result != null) {
+                AsyncDao.runOnFxThread(() -> publish(result));
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "❌ Échec de la synchronisation des fichiers modifiés de la bibliothèque", e);
+        }
+    }
+
+    /**
+     * Reporte le résultat d'une synchronisation dans la bibliothèque (thread JavaFX) :
+     * ses observateurs sont notifiés de chaque ajout et de chaque retrait.
+     */
+    private void publish(LibraryScanner.ScanResult result) {
+        for (Track track : result.getInsertedTracks()) {
+            library.addTrack(track);
+        }
+        library.refreshTracks(result.getUpdatedTracks());
+        List<Track> removed = library.removeTracksByFilePath(result.getDeletedFilePaths());
+        for (Track track : removed) {
+            PlaylistManager.getInstance().removeTrackFromPlaylists(track);
+        }
+        if (!result.getInsertedTracks().isEmpty() || !result.getUpdatedTracks().isEmpty() || !removed.isEmpty()) {
+            logger.info("🔄 Bibliothèque mise à jour depuis les dossiers : " + result.getInsertedTracks().size() + " ajouté(s), "
+                + result.getUpdatedTracks().size() + " mis à jour, " + removed.size() + " retiré(s).");
+        }
+    }
+
+    /**
+     * Arrête la surveillance et attend la fin d'une synchronisation en cours. Les fichiers encore en attente
+     * ne sont pas synchronisés : leur empreinte n'étant pas à jour, le scan du prochain démarrage les reprendra.
+     */
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "⚠️ Fermeture du WatchService impossible", e);
+        }
+        watchThread.interrupt();
+        synchronized (this) {
+            if (pendingSync != null) {
+                pendingSync.cancel(false);
+            }
+            ingester.shutdown();
+        }
+        try {
+            if (!ingester.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("⚠️ La synchronisation des dossiers de la bibliothèque n'a pas pu se terminer avant la fermeture.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("🔒 Surveillance des dossiers de la bibliothèque arrêtée.");
+    }
+}
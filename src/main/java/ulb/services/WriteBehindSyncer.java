@@ -0,0 +1,93 @@
+package ulb.services;
+
+import ulb.dao.DbManagerUpdate;
+import ulb.model.ChangeTracker;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Enregistre en arrière-plan les morceaux modifiés signalés par le ChangeTracker.
+ * <p>
+ * La première modification arme un délai (fenêtre de regroupement) ; toutes les modifications
+ * reçues pendant ce délai sont enregistrées ensemble, dans une seule transaction, sur un thread dédié.
+ * La fermeture enregistre immédiatement les modifications en attente.
+ * </p>
+ */
+public class WriteBehindSyncer implements ChangeTracker.ChangeTrackerObserver {
+    private static final Logger logger = Logger.getLogger(WriteBehindSyncer.class.getName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ChangeTracker changes;
+    private final DbManagerUpdate dbUpdate;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pendingFlush; // enregistrement programmé, null si aucune modification en attente
+
+    /**
+     * @param changes Suivi des morceaux modifiés à observer.
+     * @param dbUpdate Gestionnaire de mise à jour utilisé pour l'enregistrement.
+     * @param windowMillis Durée pendant laquelle les modifications sont regroupées avant enregistrement.
+     */
+    public WriteBehindSyncer(ChangeTracker changes, DbManagerUpdate dbUpdate, long windowMillis) {
+        this.changes = changes;
+        this.dbUpdate = dbUpdate;
+        this.windowMillis = windowMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "track-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        changes.addObserver(this);
+    }
+
+    /**
+     * Programme un enregistrement à la fin de la fenêtre, sauf s'il y en a déjà un en attente.
+     */
+    @Override
+    public synchronized void onInvalidateTrack(Integer id) {
+        if (pendingFlush == null && !scheduler.isShutdown()) {
+            pendingFlush = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Enregistre immédiatement toutes les modifications en attente (thread appelant).
+     */
+    public void flush() {
+        synchronized (this) {
+            pendingFlush = null; // les modifications suivantes programmeront un nouvel enregistrement
+        }
+        try {
+            dbUpdate.syncTracks();
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "❌ Échec de l'enregistrement des morceaux modifiés", e);
+        }
+    }
+
+    /**
+     * Arrête l'observation, enregistre les modifications en attente et arrête le thread d'enregistrement.
+     */
+    public void close() {
+        changes.removeObserver(this);
+        synchronized (this) {
+            if (pendingFlush != null) {
+                pendingFlush.cancel(false);
+            }
+        }
+        scheduler.execute(this::flush);
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("⚠️ L'enregistrement des morceaux modifiés n'a pas pu se terminer avant la fermeture.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("🔒 Synchronisation des morceaux modifiés arrêtée.");
+    }
+}
@@ -3,7 +3,9 @@ package ulb.view;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.VBox;
 import ulb.controller.LibraryController;
 import ulb.i18n.LanguageManager;
@@ -20,6 +22,7 @@ public class LibraryViewController extends PageViewController implements Initial
     @FXML private Label libraryTitleLabel;
     @FXML private Label mySongsLabel;  
     @FXML public VBox tracksContainer;
+    @FXML private ScrollPane libraryScrollPane;
 
     private LibraryController controller;
     private static final Logger logger = Logger.getLogger(LibraryViewController.class.getName());
@@ -40,6 +43,13 @@ public class LibraryViewController extends PageViewController implements Initial
         lang.localeProperty().addListener((obs, oldLoc, newLoc) -> {
             updateTexts(lang.getResourceBundle());
         });
+
+        // 3) Charger la page suivante à l'approche du bas de la liste
+        libraryScrollPane.vvalueProperty().addListener((obs, oldValue, newValue) -> {
+            if (controller != null && newValue.doubleValue() >= libraryScrollPane.getVmax() * 0.9) {
+                controller.loadNextPage();
+            }
+        });
     }
 
     /** Met à jour tous les labels et le bouton depuis le bundle */
@@ -51,22 +61,54 @@ public class LibraryViewController extends PageViewController implements Initial
     /** Affiche la liste des pistes */
     public void setTracks(List<Track> tracks) {
         tracksContainer.getChildren().clear();
+        addTracks(tracks);
+    }
+
+    /** Ajoute des pistes à la fin de la liste affichée (page suivante) */
+    public void addTracks(List<Track> tracks) {
         for (Track track : tracks) {
-            FXMLLoader loader = new FXMLLoader(
-                getClass().getResource("/fxml/TrackView.fxml"),
-                lang.getResourceBundle()  // si tu veux aussi localiser TrackView.fxml
-            );
-            try {
-                VBox trackBox = loader.load();
-                TrackViewController viewController = loader.getController();
-                viewController.setTrack(track);
-                viewController.setController(controller.getTrackFrontController(track));
+            VBox trackBox = createTrackView(track);
+            if (trackBox != null) {
                 tracksContainer.getChildren().add(trackBox);
-            } catch (IOException e) {
-                logger.severe("❌ Erreur chargement TrackView.fxml : " + e.getMessage());
-            } catch (Exception e) {
-                logger.severe("❌ Erreur inattendue lors de l’ajout d’un track : " + e.getMessage());
             }
         }
     }
+
+    /** Insère une piste à sa place dans la liste affichée, triée par titre (piste ajoutée au dossier) */
+    public void insertTrack(Track track) {
+        VBox trackBox = createTrackView(track);
+        if (trackBox == null) return;
+        List<Node> children = tracksContainer.getChildren();
+        int index = 0;
+        while (index < children.size() && children.get(index).getUserData() instanceof Track shown
+                && shown.getTitle().compareTo(track.getTitle()) <= 0) {
+            index++;
+        }
+        children.add(index, trackBox);
+    }
+
+    /** Retire une piste de la liste affichée (fichier supprimé du dossier) */
+    public void removeTrack(Track track) {
+        tracksContainer.getChildren().removeIf(node -> node.getUserData() == track);
+    }
+
+    private VBox createTrackView(Track track) {
+        FXMLLoader loader = new FXMLLoader(
+            getClass().getResource("/fxml/TrackView.fxml"),
+            lang.getResourceBundle()  // si tu veux aussi localiser TrackView.fxml
+        );
+        try {
+            VBox trackBox = loader.load();
+            TrackViewController viewController = loader.getController();
+            viewController.setTrack(track);
+            viewController.setController(controller.getTrackFrontController(track));
+            trackBox.setUserData(track); // retrouve la vue d'une piste retirée
+            return trackBox;
+        } catch (IOException e) {
+            logger.severe("❌ Erreur chargement TrackView.fxml : " + e.getMessage());
+        } catch (Exception e) {
+            logger.severe("❌ Erreur inattendue lors de l’ajout d’un track : " + e.getMessage());
+        }
+        return null;
+    }
 }
@@ -9,6 +9,7 @@ import java.util.logging.Logger;
 import java.util.logging.Level;
 
 import javafx.fxml.FXML;
+import javafx.scene.Node;
 import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContextMenu;
@@ -157,6 +158,22 @@ public class PlaylistViewController extends PageViewController {
         populateTrackList(tracks);
     }
 
+    /**
+     * Déplace une ligne déjà affichée sans reconstruire la liste :
+     * seuls les numéros des lignes entre les deux index sont mis à jour.
+     */
+    public void moveTrackRow(int fromIndex, int toIndex) {
+        List<Node> rows = trackContainer.getChildren();
+        if (fromIndex < 0 || fromIndex >= rows.size() || toIndex < 0 || toIndex >= rows.size() || fromIndex == toIndex) {
+            return;
+        }
+        Node row = rows.remove(fromIndex);
+        rows.add(toIndex, row);
+        for (int i = Math.min(fromIndex, toIndex); i <= Math.max(fromIndex, toIndex); i++) {
+            ((Label) ((HBox) rows.get(i)).getChildren().get(0)).setText(String.valueOf(i + 1));
+        }
+    }
+
     /** Met à jour compteur de pistes + durée totale */
     private void updatePlaylistInfo(List<Track> tracks) {
         trackCount.setText(tracks.size()
@@ -6,6 +6,7 @@ import javafx.fxml.Initializable;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.util.StringConverter;
@@ -27,6 +28,7 @@ public class SearchViewController extends PageViewController implements Initiali
     @FXML private ComboBox<SearchType> searchTypeComboBox;
     @FXML private Label resultsLabel;
     @FXML private VBox tracksContainer;
+    @FXML private ScrollPane resultsScrollPane;
 
     private static final Logger logger = Logger.getLogger(SearchViewController.class.getName());
     private final LanguageManager lang = LanguageManager.getInstance();
@@ -34,6 +36,8 @@ public class SearchViewController extends PageViewController implements Initiali
 
     public interface SearchObserver {
         void onSearch(String search, SearchType type);
+        /** Demande la page de résultats suivante (l'utilisateur approche du bas de la liste). */
+        void onLoadMore();
     }
 
     public void setObserver(SearchObserver observer) {
@@ -63,6 +67,13 @@ public class SearchViewController extends PageViewController implements Initiali
                 setResult(List.of());
             }
         });
+
+        // 5️⃣ Page de résultats suivante à l'approche du bas de la liste
+        resultsScrollPane.vvalueProperty().addListener((obs, oldValue, newValue) -> {
+            if (observer != null && newValue.doubleValue() >= resultsScrollPane.getVmax() * 0.9) {
+                observer.onLoadMore();
+            }
+        });
     }
 
     /** Met à jour prompt et labels depuis le ResourceBundle */
@@ -114,8 +125,14 @@ public class SearchViewController extends PageViewController implements Initiali
 
     /** Affiche la liste des pistes dans le conteneur */
     public void setResult(List<Track> tracks) {
+        tracksContainer.getChildren().clear();
+        resultsScrollPane.setVvalue(0);
+        appendResult(tracks);
+    }
+
+    /** Ajoute des pistes à la fin des résultats affichés (page suivante) */
+    public void appendResult(List<Track> tracks) {
         try {
-            tracksContainer.getChildren().clear();
             for (Track track : tracks) {
                 try {
                     FXMLLoader loader = new FXMLLoader(
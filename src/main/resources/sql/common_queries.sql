@@ -30,3 +30,24 @@ SELECT playlist_id FROM Playlist WHERE name = ?;
 
 -- [getUserIdByUsername]
 SELECT user_id FROM Users WHERE username = ?;
+
+-- [getAllTrackIds]
+SELECT title, track_id FROM Track;
+
+-- [getAllArtistIds]
+SELECT name, artist_id FROM Artist;
+
+-- [getAllAlbumIds]
+SELECT title, album_id FROM Album;
+
+-- [getAllTagIds]
+SELECT name, tag_id FROM Tag;
+
+-- [getAllPlaylistIds]
+SELECT name, playlist_id FROM Playlist;
+
+-- [getAllUserIds]
+SELECT username, user_id FROM Users;
+
+-- [getChangeCounter]
+SELECT value FROM ChangeCounter WHERE id = 1;
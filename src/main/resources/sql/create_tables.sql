@@ -4,6 +4,7 @@
  *  DESCRIPTION :
  *      ➤ Requête de vérification des tables existantes (bloc 1).
  *      ➤ Création de toutes les tables et triggers dans un seul (bloc 2).
+ *      ➤ Index plein texte FTS5 des morceaux et triggers le maintenant (blocs 3 et 4).
  *  STRUCTURE :
  *      ➤ Chaque bloc ayant un tag unique.
  * ==========================================================================================
@@ -108,3 +109,148 @@ BEGIN
     WHERE track_id = OLD.track_id;
 END;
 
+
+-- [searchIndexExists]
+SELECT name FROM sqlite_master WHERE type='table' AND name = 'TrackSearch';
+
+
+-- [createSearchIndex]
+
+-- =========================================================
+--  INDEX PLEIN TEXTE (FTS5)
+--  Une ligne par morceau (rowid = track_id), tenue à jour par triggers.
+-- =========================================================
+
+CREATE VIRTUAL TABLE IF NOT EXISTS TrackSearch USING fts5(
+    title, artist, album, genre,
+    tokenize = 'unicode61 remove_diacritics 2'
+);
+
+CREATE TRIGGER IF NOT EXISTS track_search_insert
+AFTER INSERT ON Track
+FOR EACH ROW
+BEGIN
+    INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    WHERE t.track_id = NEW.track_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS track_search_update
+AFTER UPDATE OF title, artist_id, album_id ON Track
+FOR EACH ROW
+BEGIN
+    DELETE FROM TrackSearch WHERE rowid = OLD.track_id;
+    INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    WHERE t.track_id = NEW.track_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS track_search_delete
+AFTER DELETE ON Track
+FOR EACH ROW
+BEGIN
+    DELETE FROM TrackSearch WHERE rowid = OLD.track_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS track_search_tag_insert
+AFTER INSERT ON Track_Tag
+FOR EACH ROW
+BEGIN
+    DELETE FROM TrackSearch WHERE rowid = NEW.track_id;
+    INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    WHERE t.track_id = NEW.track_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS track_search_tag_delete
+AFTER DELETE ON Track_Tag
+FOR EACH ROW
+BEGIN
+    DELETE FROM TrackSearch WHERE rowid = OLD.track_id;
+    INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    WHERE t.track_id = OLD.track_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS track_search_artist_rename
+AFTER UPDATE OF name ON Artist
+FOR EACH ROW
+BEGIN
+    DELETE FROM TrackSearch WHERE rowid IN (SELECT track_id FROM Track WHERE artist_id = NEW.artist_id);
+    INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    WHERE t.artist_id = NEW.artist_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS track_search_album_rename
+AFTER UPDATE OF title ON Album
+FOR EACH ROW
+BEGIN
+    DELETE FROM TrackSearch WHERE rowid IN (SELECT track_id FROM Track WHERE album_id = NEW.album_id);
+    INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    WHERE t.album_id = NEW.album_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS track_search_tag_rename
+AFTER UPDATE OF name ON Tag
+FOR EACH ROW
+BEGIN
+    DELETE FROM TrackSearch WHERE rowid IN (SELECT track_id FROM Track_Tag WHERE tag_id = NEW.tag_id);
+    INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    WHERE t.track_id IN (SELECT track_id FROM Track_Tag WHERE tag_id = NEW.tag_id);
+END;
+
+-- Indexation des morceaux déjà présents (base existante)
+DELETE FROM TrackSearch;
+INSERT INTO TrackSearch(rowid, title, artist, album, genre)
+    SELECT t.track_id, t.title, COALESCE(a.name, ''), COALESCE(al.title, ''),
+        COALESCE((SELECT group_concat(tg.name, ' ') FROM Track_Tag tt
+                  JOIN Tag tg ON tt.tag_id = tg.tag_id
+                  WHERE tt.track_id = t.track_id), '')
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id;
@@ -12,8 +12,34 @@
  * ==========================================================================
  */
 
--- [insertUser]
-INSERT INTO Users (username) VALUES (?);
+-- =========================================================
+--  INSERTIONS UNITAIRES : une seule instruction crée la ligne et renvoie sa clé.
+--  Une ligne déjà présente (contrainte UNIQUE) est ignorée et ne renvoie rien,
+--  y compris si un autre écrivain vient de la créer.
+-- =========================================================
+
+-- [insertUserReturningId]
+INSERT INTO Users (username) VALUES (?) ON CONFLICT DO NOTHING RETURNING user_id;
+
+-- [insertArtistReturningId]
+INSERT INTO Artist (name) VALUES (?) ON CONFLICT DO NOTHING RETURNING artist_id;
+
+-- [insertAlbumReturningId]
+INSERT INTO Album (title, artist_id) VALUES (?, ?) ON CONFLICT DO NOTHING RETURNING album_id;
+
+-- [insertTagReturningId]
+INSERT INTO Tag (name) VALUES (?) ON CONFLICT DO NOTHING RETURNING tag_id;
+
+-- [insertPlaylistReturningId]
+INSERT INTO Playlist (name, user_id) VALUES (?, ?) ON CONFLICT DO NOTHING RETURNING playlist_id;
+
+-- [insertTrackReturningId]
+INSERT INTO Track (title, artist_id, album_id, year, duration_sec, file_path, cover_path, cover_hash, lyrics_path, karaoke_path)
+VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING RETURNING track_id;
+
+-- =========================================================
+--  INSERTIONS EN LOT (addBatch / executeBatch, sans RETURNING)
+-- =========================================================
 
 -- [insertArtist]
 INSERT INTO Artist (name) VALUES (?);
@@ -25,17 +51,35 @@ INSERT INTO Album (title, artist_id) VALUES (?, ?);
 INSERT INTO Tag (name) VALUES (?);
 
 -- [insertTrack]
-INSERT INTO Track (title, artist_id, album_id, year, duration_sec, file_path, cover_path, lyrics_path, karaoke_path)
-VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?);
+INSERT INTO Track (title, artist_id, album_id, year, duration_sec, file_path, cover_path, cover_hash, lyrics_path, karaoke_path)
+VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
 
--- [insertTrackTag]
-INSERT INTO Track_Tag (track_id, tag_id) VALUES (?, ?);
+-- [insertCover]
+-- Une image déjà référencée (même contenu) est ignorée.
+INSERT INTO Cover (cover_hash, file_path) VALUES (?, ?) ON CONFLICT DO NOTHING;
 
--- [insertPlaylist]
-INSERT INTO Playlist (name, user_id) VALUES (?, ?);
+-- [insertTrackTag]
+INSERT INTO Track_Tag (track_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING;
 
 -- [insertTrackIntoPlaylist]
-INSERT INTO PlaylistTrack (playlist_id, track_id) VALUES (?, ?);
+-- Ajout en fin de playlist : position = dernière position + écart.
+-- Un morceau déjà présent est ignoré (aucune ligne modifiée).
+INSERT INTO PlaylistTrack (playlist_id, track_id, position)
+    SELECT ?, ?, COALESCE(MAX(position), 0) + ? FROM PlaylistTrack WHERE playlist_id = ?
+    ON CONFLICT DO NOTHING;
+
+-- [getPlaylistTrackPosition]
+SELECT position FROM PlaylistTrack WHERE playlist_id = ? AND track_id = ?;
+
+-- [updatePlaylistTrackPosition]
+UPDATE PlaylistTrack SET position = ? WHERE playlist_id = ? AND track_id = ?;
+
+-- [renumberPlaylistPositions]
+-- Rétablit des écarts réguliers entre les positions d'une playlist, sans changer l'ordre
+UPDATE PlaylistTrack SET position = ordered.rank * ?
+    FROM (SELECT track_id, ROW_NUMBER() OVER (ORDER BY position, rowid) AS rank
+          FROM PlaylistTrack WHERE playlist_id = ?) AS ordered
+    WHERE PlaylistTrack.playlist_id = ? AND PlaylistTrack.track_id = ordered.track_id;
 
 -- [removeTrackFromPlaylist]
 DELETE FROM PlaylistTrack WHERE playlist_id = ? AND track_id = ?
@@ -45,3 +89,57 @@ DELETE FROM PlaylistTrack WHERE playlist_id = ?
 
 -- [insertUserFavorite]
 INSERT INTO UserFavorites (user_id, track_id) VALUES (?, ?);
+
+-- [getMaxTrackId]
+SELECT COALESCE(MAX(track_id), 0) FROM Track;
+
+-- [getMaxArtistId]
+SELECT COALESCE(MAX(artist_id), 0) FROM Artist;
+
+-- [getMaxAlbumId]
+SELECT COALESCE(MAX(album_id), 0) FROM Album;
+
+-- [getMaxTagId]
+SELECT COALESCE(MAX(tag_id), 0) FROM Tag;
+
+-- [getTrackIdsSince]
+SELECT title, track_id FROM Track WHERE track_id > ?;
+
+-- [getArtistIdsSince]
+SELECT name, artist_id FROM Artist WHERE artist_id > ?;
+
+-- [getAlbumIdsSince]
+SELECT title, album_id FROM Album WHERE album_id > ?;
+
+-- [getTagIdsSince]
+SELECT name, tag_id FROM Tag WHERE tag_id > ?;
+
+-- [getFileFingerprints]
+SELECT s.file_path, s.size, s.modified_at, s.content_hash,
+    EXISTS (SELECT 1 FROM Track t WHERE t.file_path = s.file_path) AS has_track
+    FROM ScannedFile s;
+
+-- [upsertFileFingerprint]
+INSERT INTO ScannedFile (file_path, size, modified_at, content_hash) VALUES (?, ?, ?, ?)
+    ON CONFLICT(file_path) DO UPDATE SET size = excluded.size, modified_at = excluded.modified_at,
+    content_hash = excluded.content_hash;
+
+-- [deleteFileFingerprint]
+DELETE FROM ScannedFile WHERE file_path = ?;
+
+-- [deleteTrackTagsByFilePath]
+DELETE FROM Track_Tag WHERE track_id IN (SELECT track_id FROM Track WHERE file_path = ?);
+
+-- [deletePlaylistTracksByFilePath]
+DELETE FROM PlaylistTrack WHERE track_id IN (SELECT track_id FROM Track WHERE file_path = ?);
+
+-- [deleteFavoritesByFilePath]
+DELETE FROM UserFavorites WHERE track_id IN (SELECT track_id FROM Track WHERE file_path = ?);
+
+-- [deleteTrackByFilePath]
+-- Le titre renvoyé sert à retirer le morceau du dictionnaire d'IDs
+DELETE FROM Track WHERE file_path = ? RETURNING title;
+
+-- [deleteUnreferencedCovers]
+-- Images que plus aucun morceau n'utilise ; le chemin renvoyé sert à supprimer le fichier.
+DELETE FROM Cover WHERE NOT EXISTS (SELECT 1 FROM Track t WHERE t.cover_hash = Cover.cover_hash) RETURNING file_path;
@@ -0,0 +1,95 @@
+/*
+ * ==========================================================================
+ *  FICHIER : migrations.sql
+ *  DESCRIPTION :
+ *    Ce fichier contient les migrations du schéma, appliquées dans l'ordre
+ *    par SchemaMigrator sur les bases nouvelles comme existantes.
+ *
+ *  STRUCTURE :
+ *    ➤ Chaque migration est précédée du tag [migration_N], N étant la
+ *      version du schéma (PRAGMA user_version) atteinte après son exécution.
+ *    ➤ Les numéros se suivent sans trou ; une migration publiée ne se modifie plus.
+ *
+ * ==========================================================================
+ */
+
+-- [migration_1]
+-- Index sur les clés étrangères utilisées par les recherches par artiste, album, tag et playlist
+CREATE INDEX IF NOT EXISTS idx_track_artist ON Track(artist_id);
+CREATE INDEX IF NOT EXISTS idx_track_album ON Track(album_id);
+CREATE INDEX IF NOT EXISTS idx_track_tag_tag ON Track_Tag(tag_id);
+CREATE INDEX IF NOT EXISTS idx_playlist_track_track ON PlaylistTrack(track_id);
+
+-- [migration_2]
+-- Index composites pour la pagination par clé (title, track_id) des morceaux d'un artiste ou d'un album
+CREATE INDEX IF NOT EXISTS idx_track_artist_title ON Track(artist_id, title);
+CREATE INDEX IF NOT EXISTS idx_track_album_title ON Track(album_id, title);
+
+-- [migration_3]
+-- Position des morceaux dans leur playlist : ordinaux espacés de 1024 (Config.PLAYLIST_POSITION_GAP),
+-- numérotés dans l'ordre d'ajout des lignes existantes. Un déplacement ne réécrit que la ligne déplacée.
+ALTER TABLE PlaylistTrack ADD COLUMN position INTEGER NOT NULL DEFAULT 0;
+UPDATE PlaylistTrack SET position = 1024 * (
+    SELECT COUNT(*) FROM PlaylistTrack pt
+    WHERE pt.playlist_id = PlaylistTrack.playlist_id AND pt.rowid <= PlaylistTrack.rowid);
+CREATE INDEX IF NOT EXISTS idx_playlist_track_position ON PlaylistTrack(playlist_id, position);
+
+-- [migration_4]
+-- Unicité du titre d'album, clé utilisée par l'application (IdCache, getAlbumIdByTitle),
+-- requise par INSERT ... ON CONFLICT. Les doublons éventuels sont fusionnés dans l'album le plus ancien.
+UPDATE Track SET album_id = (
+    SELECT MIN(same.album_id) FROM Album a JOIN Album same ON same.title = a.title
+    WHERE a.album_id = Track.album_id)
+    WHERE album_id NOT IN (SELECT MIN(album_id) FROM Album GROUP BY title);
+DELETE FROM Album WHERE album_id NOT IN (SELECT MIN(album_id) FROM Album GROUP BY title);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_album_title_unique ON Album(title);
+
+-- [migration_5]
+-- Compteur de modifications des données affichées (morceaux, playlists et leurs tables liées),
+-- incrémenté par trigger à chaque écriture : il valide l'instantané binaire de la bibliothèque au démarrage.
+CREATE TABLE IF NOT EXISTS ChangeCounter (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    value INTEGER NOT NULL
+);
+INSERT OR IGNORE INTO ChangeCounter (id, value) VALUES (1, 0);
+CREATE TRIGGER IF NOT EXISTS change_counter_track_insert AFTER INSERT ON Track BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_track_update AFTER UPDATE ON Track BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_track_delete AFTER DELETE ON Track BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_artist_insert AFTER INSERT ON Artist BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_artist_update AFTER UPDATE ON Artist BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_artist_delete AFTER DELETE ON Artist BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_album_insert AFTER INSERT ON Album BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_album_update AFTER UPDATE ON Album BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_album_delete AFTER DELETE ON Album BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_tag_insert AFTER INSERT ON Tag BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_tag_update AFTER UPDATE ON Tag BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_tag_delete AFTER DELETE ON Tag BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_track_tag_insert AFTER INSERT ON Track_Tag BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_track_tag_update AFTER UPDATE ON Track_Tag BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_track_tag_delete AFTER DELETE ON Track_Tag BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_playlist_insert AFTER INSERT ON Playlist BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_playlist_update AFTER UPDATE ON Playlist BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_playlist_delete AFTER DELETE ON Playlist BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_playlisttrack_insert AFTER INSERT ON PlaylistTrack BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_playlisttrack_update AFTER UPDATE ON PlaylistTrack BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+CREATE TRIGGER IF NOT EXISTS change_counter_playlisttrack_delete AFTER DELETE ON PlaylistTrack BEGIN UPDATE ChangeCounter SET value = value + 1; END;
+
+-- [migration_6]
+-- Index des fichiers déjà scannés (taille, date de modification, empreinte facultative du contenu) :
+-- un nouveau scan n'ouvre que les fichiers nouveaux ou modifiés et repère les fichiers supprimés.
+CREATE TABLE IF NOT EXISTS ScannedFile (
+    file_path TEXT PRIMARY KEY,
+    size INTEGER NOT NULL,
+    modified_at INTEGER NOT NULL,
+    content_hash TEXT
+) WITHOUT ROWID;
+
+-- [migration_7]
+-- Images de couverture adressées par leur contenu (SHA-256 des octets) : un album ne stocke qu'une image,
+-- référencée par tous ses morceaux. Les morceaux scannés avant cette version gardent leur cover_path sans cover_hash.
+CREATE TABLE IF NOT EXISTS Cover (
+    cover_hash TEXT PRIMARY KEY,
+    file_path TEXT NOT NULL
+) WITHOUT ROWID;
+ALTER TABLE Track ADD COLUMN cover_hash TEXT REFERENCES Cover(cover_hash);
+CREATE INDEX IF NOT EXISTS idx_track_cover ON Track(cover_hash);
@@ -13,50 +13,160 @@
  */
 
 -- [searchTracksByTitle]
-SELECT track_id, title, artist_id, album_id, year, duration_sec, file_path, cover_path, lyrics_path, karaoke_path
-FROM Track
-WHERE title LIKE ?;
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE t.title LIKE ?;
 
 -- [searchTrackByArtist]
-SELECT track_id, title, album_id, year, duration_sec, file_path, cover_path, lyrics_path, karaoke_path
-FROM Track
-WHERE artist_id = ?;
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE a.name = ?;
 
 -- [searchTrackByAlbum]
-SELECT track_id, title, artist_id, year, duration_sec, file_path, cover_path, lyrics_path, karaoke_path
-FROM Track
-WHERE album_id = ?;
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE al.title = ?;
 
 -- [searchTracksByTag]
-SELECT t.track_id, t.title, t.artist_id, t.album_id, t.year, t.duration_sec, t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
-FROM Track t INNER JOIN Track_Tag tt ON t.track_id = tt.track_id
-WHERE tt.tag_id = ?
-
--- [getArtistNameFromArtistID]
-SELECT name FROM Artist WHERE artist_id = ?
-
--- [getAlbumNameFromAbumID]
-SELECT title FROM Album WHERE album_id = ?
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec, tg.name AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    JOIN Track_Tag tt ON t.track_id = tt.track_id
+    JOIN Tag tg ON tt.tag_id = tg.tag_id
+    WHERE tg.name = ?
 
--- [getTagTrackFromTrackID]
-SELECT name FROM Tag INNER JOIN Track_Tag ON Tag.tag_id = Track_Tag.tag_id WHERE Track_Tag.track_id = ?
+-- [getAllPlaylists]
+SELECT playlist_id, name As title FROM Playlist ORDER BY playlist_id
 
--- [getAllPlaylistsWithTracks]
-SELECT playlist_id, name As title FROM Playlist
+-- Toutes les playlists et leurs morceaux en une seule lecture, regroupées par playlist.
+-- Une playlist vide donne une seule ligne dont track_id est NULL. Les morceaux suivent leur position.
+-- [getAllPlaylistTracks]
+SELECT p.name AS playlist, t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Playlist p
+    LEFT JOIN PlaylistTrack pt ON pt.playlist_id = p.playlist_id
+    LEFT JOIN Track t ON pt.track_id = t.track_id
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    ORDER BY p.playlist_id, pt.position, pt.rowid
 
--- [getTracksForPlaylist]
 -- [getTracksForPlaylist]
 SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
-    t.year, t.duration_sec, tg.name AS genre,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
     t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
-    FROM PlaylistTrack pt
+    FROM Playlist p
+    JOIN PlaylistTrack pt ON pt.playlist_id = p.playlist_id
     JOIN Track t ON pt.track_id = t.track_id
     JOIN Artist a ON t.artist_id = a.artist_id
     JOIN Album al ON t.album_id = al.album_id
-    LEFT JOIN Track_Tag tt ON t.track_id = tt.track_id
-    LEFT JOIN Tag tg ON tt.tag_id = tg.tag_id
-    WHERE pt.playlist_id = ?
+    WHERE p.name = ?
+    ORDER BY pt.position, pt.rowid
 
 -- [getAllTracks]
-SELECT track_id, title, artist_id, album_id, year, duration_sec, file_path, cover_path, lyrics_path, karaoke_path
-FROM Track
\ No newline at end of file
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+
+-- [searchTracksFullText]
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM TrackSearch
+    JOIN Track t ON t.track_id = TrackSearch.rowid
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE TrackSearch MATCH ?
+    ORDER BY bm25(TrackSearch, 10.0, 5.0, 3.0, 1.0)
+    LIMIT ?;
+
+-- =========================================================
+--  PAGINATION PAR CLÉ (keyset) SUR (title, track_id)
+--  Les deux derniers paramètres avant LIMIT sont le titre et l'ID
+--  du dernier morceau de la page précédente ('' et -1 pour la première page).
+--  Le genre est lu par sous-requête : un morceau = une ligne, les pages ne se chevauchent pas.
+-- =========================================================
+
+-- [getTracksPage]
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE (t.title, t.track_id) > (?, ?)
+    ORDER BY t.title, t.track_id
+    LIMIT ?;
+
+-- [searchTracksByTitlePage]
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE t.title LIKE ? AND (t.title, t.track_id) > (?, ?)
+    ORDER BY t.title, t.track_id
+    LIMIT ?;
+
+-- [searchTrackByArtistPage]
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE a.name = ? AND (t.title, t.track_id) > (?, ?)
+    ORDER BY t.title, t.track_id
+    LIMIT ?;
+
+-- [searchTrackByAlbumPage]
+SELECT t.track_id, t.title, a.name AS artist, al.title AS album,
+    t.year, t.duration_sec,
+    COALESCE((SELECT tg.name FROM Track_Tag tt JOIN Tag tg ON tt.tag_id = tg.tag_id
+              WHERE tt.track_id = t.track_id LIMIT 1), '') AS genre,
+    t.file_path, t.cover_path, t.lyrics_path, t.karaoke_path
+    FROM Track t
+    JOIN Artist a ON t.artist_id = a.artist_id
+    JOIN Album al ON t.album_id = al.album_id
+    WHERE al.title = ? AND (t.title, t.track_id) > (?, ?)
+    ORDER BY t.title, t.track_id
+    LIMIT ?;
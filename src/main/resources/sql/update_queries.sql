@@ -13,14 +13,17 @@
  */
 
 -- [findTrackByFilePath]
- SELECT t.track_id, t.title, t.year, t.duration_sec, t.cover_path, t.file_path, t.lyrics_path, t.karaoke_path,
-                   t.artist_id, t.album_id, tt.tag_id 
-            FROM Track t
-            LEFT JOIN Track_Tag tt ON t.track_id = tt.track_id
-            WHERE t.file_path = ?
+SELECT t.track_id, t.title, t.year, t.duration_sec, t.cover_path, t.file_path, t.lyrics_path, t.karaoke_path,
+    a.name AS artist, al.title AS album, tg.name AS genre
+    FROM Track t
+    LEFT JOIN Artist a ON t.artist_id = a.artist_id
+    LEFT JOIN Album al ON t.album_id = al.album_id
+    LEFT JOIN Track_Tag tt ON t.track_id = tt.track_id
+    LEFT JOIN Tag tg ON tt.tag_id = tg.tag_id
+    WHERE t.file_path = ?
 
 -- [updateTrackInfo]
-UPDATE Track SET title = ?, year = ?, duration_sec = ?, cover_path = ? WHERE track_id = ?
+UPDATE Track SET title = ?, year = ?, duration_sec = ?, cover_path = ?, cover_hash = ? WHERE track_id = ?
 
 -- [updateTrackArtist]
 UPDATE Track SET artist_id = ? WHERE track_id = ?
@@ -34,12 +37,8 @@ DELETE FROM Track_Tag WHERE track_id = ?
 -- [updateTagInfoInsert]
 INSERT INTO Track_Tag (track_id, tag_id) VALUES (?, ?)
 
--- [getArtistNameByArtistId]
-SELECT name FROM Artist WHERE artist_id = ?
-
--- [getAlbumTitleByAlbumId]
-SELECT title FROM Album WHERE album_id = ?
-
--- [getTagNameByTagId]
-SELECT name FROM Tag WHERE tag_id = ?
+-- [deletePlaylistTracks]
+DELETE FROM PlaylistTrack WHERE playlist_id = (SELECT playlist_id FROM Playlist WHERE name = ?)
 
+-- [deletePlaylist]
+DELETE FROM Playlist WHERE name = ?
@@ -208,7 +208,8 @@ class PlaylistControllerTest {
 
         // Assert
         verify(mockPlaylist).addTrack(mockTrack);
-        verify(mockDbManagerInsert).addTrackToPlaylist("Test Playlist", "Test Track");
+        // L'écriture en base s'exécute en arrière-plan
+        verify(mockDbManagerInsert, timeout(1000)).addTrackToPlaylist("Test Playlist", "Test Track");
     }
 
     @Test
@@ -398,18 +399,22 @@ class PlaylistControllerTest {
     @Test
     void testReorderTracks() {
         // Arrange
-        playlistController.setPlaylist(mockPlaylist); // Call 1 happens here
+        Track firstTrack = mock(Track.class);
+        when(firstTrack.getTitle()).thenReturn("Track One");
+        when(mockTrack.getTitle()).thenReturn("Track Two");
+        when(mockPlaylist.getTitle()).thenReturn("Test Playlist");
+        when(mockPlaylist.getTracks()).thenReturn(List.of(firstTrack, mockTrack)); // order after the move
+        playlistController.setPlaylist(mockPlaylist);
 
         // Act
-        playlistController.reorderTracks(mockTrack, 0, 1); // Call 2 happens here
+        playlistController.reorderTracks(mockTrack, 0, 1);
 
         // Assert
         verify(mockPlaylist).reorderTrack(0, 1);
-        // --- ADJUST VERIFICATION ---
-        verify(mockViewController, times(2)).setPlayList(mockPlaylist); // Expect 2 calls total
-        // ---------------------------
-        // Verify DB interaction if persistence is added
-        // verify(mockDbManagerInsert).updateTrackOrderInPlaylist(...)
+        verify(mockViewController).moveTrackRow(0, 1); // only the moved row, no full redraw
+        verify(mockViewController, times(1)).setPlayList(mockPlaylist);
+        // Only the moved track is written, placed after its new previous neighbour
+        verify(mockDbManagerInsert, timeout(1000)).moveTrackInPlaylist("Test Playlist", "Track Two", "Track One", null);
     }
 
         @Test
@@ -0,0 +1,127 @@
+package ulb.dao;
+
+import org.junit.jupiter.api.*;
+import ulb.Config;
+import ulb.model.FileFingerprint;
+import ulb.model.Track;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionManagerTest {
+
+    private static final String TEST_DB_PATH = "test_pool.db";
+    private Connection connection;
+    private ConnectionManager connectionManager;
+    private DbManagerInsert inserter;
+    private DbManagerSearch searcher;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+
+        File file = new File(TEST_DB_PATH);
+        if (file.exists()) file.delete();
+
+        connection = DriverManager.getConnection("jdbc:sqlite:" + TEST_DB_PATH);
+        DbInitializer.applyStorageProfile(connection, Config.StorageProfile.BALANCED);
+        SQLLoader loader = new SQLLoader(Config.CREATE_TABLES_SQL_FILE);
+        connection.createStatement().executeUpdate(loader.getQuery("createAllTablesAndTriggers"));
+        new SchemaMigrator(connection).migrate();
+
+        Connection reader = DriverManager.getConnection("jdbc:sqlite:" + TEST_DB_PATH);
+        try (Statement stmt = reader.createStatement()) {
+            stmt.execute("PRAGMA query_only = ON");
+        }
+
+        IdCache idCache = new IdCache();
+        connectionManager = new ConnectionManager(List.of(reader), idCache);
+        inserter = new SerializedDbManagerInsert(connection, idCache, connectionManager);
+        searcher = new PooledDbManagerSearch(connection, idCache, connectionManager);
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        connectionManager.close();
+        if (connection != null) connection.close();
+        new File(TEST_DB_PATH).delete();
+        new File(TEST_DB_PATH + "-wal").delete();
+        new File(TEST_DB_PATH + "-shm").delete();
+    }
+
+    @Test
+    public void testWritesAreVisibleToPooledReaders() {
+        Track track = new Track(0, "Baby", "Aya Nakamura", "DNK", "2023", 190,
+            "Pop", "audio.mp3", "cover.jpg", "lyrics.txt", "karaoke.lrc");
+        assertTrue(inserter.insertTrack(track), "L'insertion via l'écrivain unique doit réussir.");
+
+        List<Track> result = searcher.searchTracksByTitle("Ba");
+        assertEquals(1, result.size(), "Le lecteur du pool doit voir l'écriture validée.");
+        assertEquals("Aya Nakamura", result.get(0).getArtist());
+    }
+
+    @Test
+    public void testReadsFromAnotherThreadNeverSeeAnOpenWriteTransaction() throws Exception {
+        long counterBefore = searcher.getChangeCounter();
+        CountDownLatch transactionOpen = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> transaction = connectionManager.submitWrite(() -> {
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("INSERT INTO Artist (name) VALUES ('Angèle')");
+            }
+            transactionOpen.countDown();
+            release.await();
+            connection.commit();
+            connection.setAutoCommit(true);
+            return null;
+        });
+        assertTrue(transactionOpen.await(5, TimeUnit.SECONDS));
+
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            // lectures du pool : immédiates, sans la ligne non validée
+            assertEquals(-1, other.submit(() -> searcher.getArtistId("Angèle")).get(5, TimeUnit.SECONDS));
+            assertEquals(counterBefore, other.submit(searcher::getChangeCounter).get(5, TimeUnit.SECONDS));
+
+            // lectures de l'écrivain : attendent la fin de la transaction
+            Future<Integer> artistId = other.submit(() -> inserter.getArtistId("Angèle"));
+            Future<Map<String, FileFingerprint>> fingerprints = other.submit(inserter::getFileFingerprints);
+            Thread.sleep(200);
+            assertFalse(artistId.isDone(), "Une lecture sur la connexion de l'écrivain doit attendre la transaction en cours.");
+
+            release.countDown();
+            transaction.get(5, TimeUnit.SECONDS);
+            assertTrue(artistId.get(5, TimeUnit.SECONDS) > 0, "La lecture doit voir la transaction validée.");
+            assertTrue(fingerprints.get(5, TimeUnit.SECONDS).isEmpty());
+            assertTrue(other.submit(searcher::getChangeCounter).get(5, TimeUnit.SECONDS) > counterBefore);
+        } finally {
+            release.countDown();
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNestedWriteRunsOnWriterThread() {
+        String writerThread = connectionManager.write(() ->
+            connectionManager.write(() -> Thread.currentThread().getName()));
+        assertEquals("db-writer", writerThread, "Une écriture imbriquée ne doit pas bloquer l'écrivain.");
+    }
+}
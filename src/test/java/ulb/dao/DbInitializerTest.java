@@ -92,4 +92,13 @@ public class DbInitializerTest {
         }
     }
 
+    @Test
+    public void testStorageProfileIsApplied() throws Exception {
+        Connection conn = dbInitializer.getConnection();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode;")) {
+            assertTrue(rs.next());
+            assertEquals(Config.getStorageProfile().getJournalMode().toLowerCase(), rs.getString(1).toLowerCase());
+        }
+    }
 }
@@ -2,11 +2,16 @@ package ulb.dao;
 
 import org.junit.jupiter.api.*;
 import ulb.Config;
+import ulb.model.FileFingerprint;
 import ulb.model.Track;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,6 +38,7 @@ public class DbManagerInsertTest {
         connection = DriverManager.getConnection("jdbc:sqlite:" + TEST_DB_PATH);
         SQLLoader loader = new SQLLoader(Config.CREATE_TABLES_SQL_FILE);
         connection.createStatement().executeUpdate(loader.getQuery("createAllTablesAndTriggers"));
+        new SchemaMigrator(connection).migrate();
 
         dbInsert = new DbManagerInsert(connection);
     }
@@ -111,4 +117,170 @@ public class DbManagerInsertTest {
         assertTrue(dbInsert.removeTrackFromPlaylist("My Playlist", "Nice For What"));
         assertFalse(dbInsert.removeTrackFromPlaylist("My Playlist", "Nice For What")); // déjà retiré
     }
+
+    @Test
+    public void testInsertedIdsAreCached() {
+        dbInsert.insertArtist("Drake");
+        Integer cached = dbInsert.getIdCache().get(IdCache.Entity.ARTIST, "Drake");
+        assertNotNull(cached, "L'ID de l'artiste inséré doit être mémorisé.");
+        assertEquals(cached.intValue(), dbInsert.getArtistId("Drake"));
+    }
+
+    @Test
+    public void testWarmUpLoadsExistingEntities() throws Exception {
+        connection.createStatement().executeUpdate("INSERT INTO Tag (name) VALUES ('Jazz')");
+        DbManagerInsert other = new DbManagerInsert(connection);
+        other.warmUpIdCache();
+        assertNotNull(other.getIdCache().get(IdCache.Entity.TAG, "Jazz"));
+        assertFalse(other.insertTag("Jazz"));
+    }
+
+    @Test
+    public void testInsertTracksReportsFailuresWithoutAbortingBatch() {
+        Track existing = new Track("Hotline Bling", "Drake", "Views", "2016", 267,
+            "Hip-Hop", "/tracks/hotline.mp3", null, null, null);
+        dbInsert.insertTrack(existing);
+
+        Track first = new Track("One Dance", "Drake", "Views", "2016", 173,
+            "Dancehall", "/tracks/one.mp3", null, null, null);
+        Track second = new Track("Passionfruit", "Drake", "More Life", "2017", 298,
+            "Hip-Hop", "/tracks/passion.mp3", null, null, null);
+        Track duplicate = new Track("Hotline Bling", "Drake", "Views", "2016", 267,
+            "Hip-Hop", "/tracks/hotline2.mp3", null, null, null);
+
+        DbManagerInsert.BatchResult result = dbInsert.insertTracks(List.of(first, duplicate, second));
+
+        assertEquals(List.of(first, second), result.getInserted());
+        assertTrue(result.getFailures().containsKey(duplicate));
+        assertNotEquals(-1, dbInsert.getTrackId("One Dance"));
+        assertNotEquals(-1, dbInsert.getAlbumId("More Life"));
+        assertNotEquals(-1, dbInsert.getTagId("Dancehall"));
+    }
+
+    @Test
+    public void testMoveTrackInPlaylistPersistsOrderAcrossRenumbering() {
+        dbInsert.insertUser("admin");
+        for (String title : new String[]{"A", "B", "C"}) {
+            assertTrue(dbInsert.insertTrack(new Track(title, "Drake", "Views", "2016", 200,
+                "Pop", title + ".mp3", "cover.jpg", "lyrics.txt", "karaoke.lrc")));
+        }
+        dbInsert.insertPlaylist("Ordre", "admin");
+        dbInsert.addTrackToPlaylist("Ordre", "A");
+        dbInsert.addTrackToPlaylist("Ordre", "B");
+        dbInsert.addTrackToPlaylist("Ordre", "C");
+        DbManagerSearch dbSearch = new DbManagerSearch(connection);
+
+        assertTrue(dbInsert.moveTrackInPlaylist("Ordre", "C", null, "A"), "Déplacement en tête de playlist.");
+        assertEquals(List.of("C", "A", "B"), titles(dbSearch.getTracksForPlaylist("Ordre")));
+
+        // Des déplacements répétés entre les deux mêmes voisins épuisent l'écart et imposent une renumérotation
+        for (int i = 0; i < 20; i++) {
+            String moved = i % 2 == 0 ? "B" : "A";
+            String other = i % 2 == 0 ? "A" : "B";
+            assertTrue(dbInsert.moveTrackInPlaylist("Ordre", moved, "C", other), "Déplacement n°" + i);
+            assertEquals(List.of("C", moved, other), titles(dbSearch.getTracksForPlaylist("Ordre")));
+        }
+
+        assertFalse(dbInsert.moveTrackInPlaylist("Ordre", "A", "Inconnu", null), "Un voisin inconnu doit être refusé.");
+    }
+
+    @Test
+    public void testInsertTrackResolvesRowsCreatedByAnotherWriter() throws Exception {
+        // Lignes créées hors de ce gestionnaire : son dictionnaire d'IDs ne les connaît pas
+        DbManagerInsert otherWriter = new DbManagerInsert(connection);
+        otherWriter.insertArtist("Drake");
+        otherWriter.insertAlbum("Views", "Drake");
+        otherWriter.insertTrack(new Track("Hotline Bling", "Drake", "Views", "2016", 267,
+            "Hip-Hop", "/tracks/hotline.mp3", null, null, null));
+
+        assertTrue(dbInsert.insertTrack(new Track("One Dance", "Drake", "Views", "2016", 173,
+            "Hip-Hop", "/tracks/one.mp3", null, null, null)));
+        assertFalse(dbInsert.insertTrack(new Track("Hotline Bling", "Drake", "Views", "2016", 267,
+            "Hip-Hop", "/tracks/hotline.mp3", null, null, null)), "Un doublon doit être ignoré sans erreur.");
+
+        try (var rs = connection.createStatement().executeQuery(
+                "SELECT (SELECT COUNT(*) FROM Artist), (SELECT COUNT(*) FROM Album), (SELECT COUNT(*) FROM Tag)")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1), "L'artiste existant doit être réutilisé.");
+            assertEquals(1, rs.getInt(2), "L'album existant doit être réutilisé.");
+            assertEquals(1, rs.getInt(3), "Le genre existant doit être réutilisé.");
+        }
+        assertEquals(otherWriter.getArtistId("Drake"), dbInsert.getArtistId("Drake"));
+    }
+
+    @Test
+    public void testChangeCounterAdvancesOnEveryWrite() {
+        dbInsert.insertUser("admin");
+        long before = dbInsert.getChangeCounter();
+        assertTrue(before >= 0, "Le compteur doit exister après migration.");
+        dbInsert.insertPlaylist("Compteur", "admin");
+        long afterPlaylist = dbInsert.getChangeCounter();
+        assertTrue(afterPlaylist > before, "Créer une playlist doit incrémenter le compteur.");
+        dbInsert.getTrackId("inconnu");
+        assertEquals(afterPlaylist, dbInsert.getChangeCounter(), "Une lecture ne doit pas modifier le compteur.");
+    }
+
+    @Test
+    public void testFileIndexAndDeletionOfMissingFiles() throws Exception {
+        dbInsert.insertUser("admin");
+        Track kept = new Track("Gods Plan", "Drake", "Scorpion", "2018", 199, "Hip-Hop",
+            "/tracks/gods.mp3", null, null, null);
+        Track removed = new Track("In My Feelings", "Drake", "Scorpion", "2018", 217, "Hip-Hop",
+            "/tracks/feelings.mp3", null, null, null);
+        dbInsert.insertTracks(List.of(kept, removed));
+        dbInsert.insertPlaylist("Scorpion", "admin");
+        dbInsert.addTrackToPlaylist("Scorpion", "In My Feelings");
+
+        assertTrue(dbInsert.saveFileFingerprints(List.of(
+            new FileFingerprint("/tracks/gods.mp3", 100, 1_000, null),
+            new FileFingerprint("/tracks/feelings.mp3", 200, 2_000, null),
+            new FileFingerprint("/tracks/unreadable.mp3", 300, 3_000, null))));
+        assertTrue(dbInsert.saveFileFingerprints(List.of(new FileFingerprint("/tracks/gods.mp3", 150, 1_500, "abc"))));
+
+        Map<String, FileFingerprint> index = dbInsert.getFileFingerprints();
+        assertEquals(3, index.size());
+        FileFingerprint gods = index.get("/tracks/gods.mp3");
+        assertEquals(150, gods.getSize(), "Un fichier rescanné remplace son empreinte.");
+        assertEquals("abc", gods.getContentHash());
+        assertTrue(gods.hasTrack());
+        assertFalse(index.get("/tracks/unreadable.mp3").hasTrack());
+
+        assertEquals(1, dbInsert.deleteTracksByFilePath(List.of("/tracks/feelings.mp3", "/tracks/unreadable.mp3")));
+        assertEquals(-1, dbInsert.getTrackId("In My Feelings"));
+        assertTrue(dbInsert.getTrackId("Gods Plan") > 0);
+        try (ResultSet rs = connection.createStatement().executeQuery("SELECT COUNT(*) FROM PlaylistTrack")) {
+            assertEquals(0, rs.getInt(1), "Le lien de playlist doit être supprimé.");
+        }
+        assertEquals(Set.of("/tracks/gods.mp3"), dbInsert.getFileFingerprints().keySet());
+    }
+
+    @Test
+    public void testAlbumTracksShareOneCoverRemovedWithTheLastTrack() throws Exception {
+        String cover = "/covers/" + "ab".repeat(32) + ".jpg"; // image du stockage adressé par contenu
+        Track first = new Track("Gods Plan", "Drake", "Scorpion", "2018", 199, "Hip-Hop",
+            "/tracks/gods.mp3", cover, null, null);
+        Track second = new Track("In My Feelings", "Drake", "Scorpion", "2018", 217, "Hip-Hop",
+            "/tracks/feelings.mp3", cover, null, null);
+        Track single = new Track("Hotline Bling", "Drake", "Views", "2016", 267, "Hip-Hop",
+            "/tracks/hotline.mp3", "/covers/hotline.jpg", null, null); // image hors du stockage
+        dbInsert.insertTracks(List.of(first, second));
+        assertTrue(dbInsert.insertTrack(single));
+
+        try (ResultSet rs = connection.createStatement().executeQuery("SELECT COUNT(*) FROM Cover")) {
+            assertEquals(1, rs.getInt(1), "Les morceaux d'un album doivent partager une seule ligne Cover.");
+        }
+        try (ResultSet rs = connection.createStatement().executeQuery(
+                "SELECT COUNT(*) FROM Track WHERE cover_hash = '" + "ab".repeat(32) + "'")) {
+            assertEquals(2, rs.getInt(1));
+        }
+
+        dbInsert.deleteTracksByFilePath(List.of("/tracks/gods.mp3"));
+        assertTrue(dbInsert.deleteUnreferencedCovers().isEmpty(), "Une image encore utilisée doit être gardée.");
+        dbInsert.deleteTracksByFilePath(List.of("/tracks/feelings.mp3"));
+        assertEquals(List.of(cover), dbInsert.deleteUnreferencedCovers());
+    }
+
+    private static List<String> titles(List<Track> tracks) {
+        return tracks.stream().map(Track::getTitle).toList();
+    }
 }
@@ -3,6 +3,7 @@ package ulb.dao;
 import org.junit.jupiter.api.*;
 import ulb.Config;
 import ulb.model.Track;
+import ulb.model.TrackLibrary;
 
 import java.io.File;
 import java.sql.Connection;
@@ -38,6 +39,8 @@ public class DbManagerSearchTest {
         SQLLoader loader = new SQLLoader(Config.CREATE_TABLES_SQL_FILE);
         String createSQL = loader.getQuery("createAllTablesAndTriggers");
         connection.createStatement().executeUpdate(createSQL);
+        connection.createStatement().executeUpdate(loader.getQuery("createSearchIndex"));
+        new SchemaMigrator(connection).migrate();
 
         inserter = new DbManagerInsert(connection);
         searcher = new DbManagerSearch(connection);
@@ -98,6 +101,110 @@ public class DbManagerSearchTest {
         assertEquals("Baby", result.get(0).getTitle());
     }
 
+    @Test
+    public void testGetAllTracksResolvesArtistAlbumAndGenre() {
+        var result = searcher.getAllTracks();
+        assertEquals(1, result.size(), "Chaque morceau ne doit apparaître qu'une seule fois.");
+        Track track = result.get(0);
+        assertEquals("Aya Nakamura", track.getArtist());
+        assertEquals("DNK", track.getAlbum());
+        assertEquals("Pop", track.getGenre());
+        assertEquals("2023", track.getYear());
+    }
+
+    @Test
+    public void testTrackWithTwoTagsIsReturnedOnce() {
+        addSecondTagToBaby();
+
+        assertEquals(1, searcher.searchTracksByTitle("Ba").size(), "Un morceau à deux tags ne doit apparaître qu'une fois.");
+        assertEquals(1, searcher.searchTracksByArtist("Aya Nakamura").size());
+        assertEquals(1, searcher.searchTracksByAlbum("DNK").size());
+        assertEquals(1, searcher.getAllTracks().size());
+        assertEquals(1, searcher.forEachTrack(track -> {}));
+    }
+
+    private void addSecondTagToBaby() {
+        inserter.insertTag("Dance");
+        assertTrue(inserter.getTrackId("Baby") > 0);
+        try (var stmt = connection.prepareStatement("INSERT INTO Track_Tag (track_id, tag_id) VALUES (?, ?)")) {
+            stmt.setInt(1, inserter.getTrackId("Baby"));
+            stmt.setInt(2, inserter.getTagId("Dance"));
+            stmt.executeUpdate();
+        } catch (java.sql.SQLException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    public void testForEachTrackStreamsEveryTrack() {
+        inserter.insertTrack(new Track(
+            0, "Djadja", "Aya Nakamura", "NAKAMURA", "2018", 170,
+            "Pop", "djadja.mp3", "cover.jpg", "lyrics.txt", "karaoke.lrc"
+        ));
+        List<String> titles = new ArrayList<>();
+        int count = searcher.forEachTrack(track -> titles.add(track.getTitle()));
+
+        assertEquals(2, count);
+        assertTrue(titles.containsAll(List.of("Baby", "Djadja")));
+    }
+
+    @Test
+    public void testKeysetPagesCoverLibraryInTitleOrder() {
+        for (String title : List.of("Djadja", "Copines", "Pookie", "Sucette")) {
+            inserter.insertTrack(new Track(
+                0, title, "Aya Nakamura", "NAKAMURA", "2018", 170,
+                "Pop", title + ".mp3", "cover.jpg", "lyrics.txt", "karaoke.lrc"
+            ));
+        }
+
+        List<String> titles = new ArrayList<>();
+        Track last = null;
+        List<Track> page;
+        do {
+            page = searcher.getTracksPage(last, 2);
+            page.forEach(track -> titles.add(track.getTitle()));
+            if (!page.isEmpty()) last = page.get(page.size() - 1);
+        } while (page.size() == 2);
+
+        assertEquals(List.of("Baby", "Copines", "Djadja", "Pookie", "Sucette"), titles);
+
+        var artistPage = searcher.searchTracksByArtistPage("Aya Nakamura", searcher.searchTracksByTitle("Djadja").get(0), 10);
+        assertEquals(List.of("Pookie", "Sucette"), artistPage.stream().map(Track::getTitle).toList());
+    }
+
+    @Test
+    public void testSearchByUnknownArtistReturnsEmpty() {
+        assertTrue(searcher.searchTracksByArtist("Inconnu").isEmpty());
+    }
+
+    @Test
+    public void testFullTextSearchMatchesAnyFieldByPrefix() {
+        inserter.insertTrack(new Track(
+            0, "Love Story", "Indila", "Mini World", "2014", 240,
+            "Pop", "story.mp3", "cover.jpg", "lyrics.txt", "karaoke.lrc"
+        ));
+
+        var byTitleWord = searcher.searchTracksFullText("stor");
+        assertEquals(1, byTitleWord.size(), "Un mot au milieu du titre doit être trouvé.");
+        assertEquals("Love Story", byTitleWord.get(0).getTitle());
+
+        var byArtistAndAlbum = searcher.searchTracksFullText("aya dnk");
+        assertEquals(1, byArtistAndAlbum.size(), "Les mots peuvent porter sur des champs différents.");
+        assertEquals("Baby", byArtistAndAlbum.get(0).getTitle());
+    }
+
+    @Test
+    public void testFullTextSearchReturnsTrackWithTwoTagsOnce() {
+        addSecondTagToBaby();
+        assertEquals(1, searcher.searchTracksFullText("baby").size(), "Un morceau à deux tags ne doit apparaître qu'une fois.");
+    }
+
+    @Test
+    public void testFullTextSearchIgnoresQuerySyntax() {
+        assertDoesNotThrow(() -> searcher.searchTracksFullText("\"Baby\" OR (NEAR"));
+        assertTrue(searcher.searchTracksFullText("  -*  ").isEmpty(), "Une saisie sans mot ne renvoie rien.");
+    }
+
     @Test
     public void testGetAllPlaylistsWithTracks() {
         Map<String, List<Track>> playlists = searcher.getAllPlaylistsWithTracks();
@@ -107,4 +214,42 @@ public class DbManagerSearchTest {
         assertTrue(tracks.size() > 0, "La playlist doit contenir au moins un morceau.");
         assertEquals("Baby", tracks.get(0).getTitle());
     }
+
+    @Test
+    public void testPlaylistsAreGroupedInOneReadInInsertionOrder() {
+        inserter.insertTrack(new Track(0, "Djadja", "Aya Nakamura", "DNK", "2018", 170,
+            "Pop", "djadja.mp3", "cover.jpg", "lyrics.txt", "karaoke.lrc"));
+        inserter.insertPlaylist("Vide", "admin");
+        inserter.insertPlaylist("Soirée", "admin");
+        inserter.addTrackToPlaylist("Soirée", "Djadja");
+        inserter.addTrackToPlaylist("Soirée", "Baby");
+
+        Map<String, List<Track>> playlists = searcher.getAllPlaylistsWithTracks();
+        assertEquals(List.of("Ma Playlist", "Vide", "Soirée"), new ArrayList<>(playlists.keySet()));
+        assertTrue(playlists.get("Vide").isEmpty(), "Une playlist vide doit être présente sans morceau.");
+        assertEquals(List.of("Djadja", "Baby"),
+            playlists.get("Soirée").stream().map(Track::getTitle).toList(), "L'ordre d'ajout doit être conservé.");
+
+        assertEquals(List.of("Ma Playlist", "Vide", "Soirée"), searcher.getAllPlaylistTitles());
+        assertEquals(List.of("Djadja", "Baby"),
+            searcher.getTracksForPlaylist("Soirée").stream().map(Track::getTitle).toList());
+    }
+
+    @Test
+    public void testReadsReturnCanonicalLibraryTracks() {
+        TrackLibrary library = new TrackLibrary();
+        library.loadTracks(searcher::forEachTrack);
+        searcher.setTrackLibrary(library);
+        Track canonical = library.getTracks().get(0);
+
+        assertSame(canonical, searcher.searchTracksByTitle("Ba").get(0), "Une recherche doit renvoyer l'instance de la bibliothèque.");
+        assertSame(canonical, searcher.getTracksForPlaylist("Ma Playlist").get(0));
+        assertSame(canonical, searcher.getAllPlaylistsWithTracks().get("Ma Playlist").get(0));
+
+        inserter.insertTrack(new Track(0, "Djadja", "Aya Nakamura", "DNK", "2018", 170,
+            "Pop", "djadja.mp3", "cover.jpg", "lyrics.txt", "karaoke.lrc"));
+        Track unknown = searcher.searchTracksByTitle("Djadja").get(0);
+        assertNotNull(unknown, "Un morceau absent de la bibliothèque doit être lu depuis la base.");
+        assertNull(library.get(unknown.getTrackId()));
+    }
 }
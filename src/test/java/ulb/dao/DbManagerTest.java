@@ -105,4 +105,26 @@ public class DbManagerTest {
     public void testCloseConnectionDoesNotThrow() {
         assertDoesNotThrow(() -> dbManager.closeConnection());
     }
+
+    @Test
+    public void testRepeatedLookupsReuseCachedStatement() {
+        dbManager.getTrackId("a");
+        dbManager.getTrackId("b");
+        dbManager.getTrackId("c");
+        StatementCache cache = dbManager.getStatementCache();
+        assertEquals(1, cache.getMisses(), "La requête ne doit être préparée qu'une seule fois.");
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testStatementCacheIsBounded() throws Exception {
+        StatementCache cache = new StatementCache(connection, 2);
+        cache.prepare("a", "SELECT 1");
+        cache.prepare("b", "SELECT 2");
+        cache.prepare("c", "SELECT 3");
+        assertEquals(2, cache.size(), "La requête la moins récemment utilisée doit être fermée.");
+        cache.close();
+        assertEquals(0, cache.size());
+    }
 }
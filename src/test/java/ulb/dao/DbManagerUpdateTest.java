@@ -1,13 +1,17 @@
 package ulb.dao;
 
 import org.junit.jupiter.api.*;
+import ulb.model.ChangeTracker;
 import ulb.model.Track;
+import ulb.model.TrackLibrary;
 import ulb.Config;
 import ulb.view.utils.AlertManager;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.util.List;
+import java.util.Set;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,6 +51,7 @@ public class DbManagerUpdateTest {
 
         SQLLoader loader = new SQLLoader(Config.CREATE_TABLES_SQL_FILE);
         connection.createStatement().executeUpdate(loader.getQuery("createAllTablesAndTriggers"));
+        new SchemaMigrator(connection).migrate();
 
         dbInsert = new DbManagerInsert(connection);
         dbUpdate = new DbManagerUpdate(connection, dbInsert);
@@ -145,4 +150,67 @@ public class DbManagerUpdateTest {
 
         assertTrue(dbUpdate.updateTrack(modified));
     }
+
+    @Test
+    public void testRenamedTrackIdStaysCoherent() {
+        Track original = new Track(0, "Avant", "Artist", "Album", "2019", 180, "Rock",
+                "rename.mp3", "cover.jpg", "", "");
+        dbInsert.insertTrack(original);
+        int id = dbInsert.getTrackId("Avant");
+
+        Track renamed = new Track(0, "Après", "Artist", "Album", "2019", 180, "Rock",
+                "rename.mp3", "cover.jpg", "", "");
+        assertTrue(dbUpdate.updateTrack(renamed));
+
+        assertEquals(-1, dbInsert.getTrackId("Avant"));
+        assertEquals(id, dbInsert.getTrackId("Après"));
+    }
+
+    @Test
+    public void testUpdateTracksSkipsFailingTrackWithoutAbortingBatch() {
+        Track first = new Track(0, "Un", "Artiste", "Album", "2020", 200, "Pop",
+                "un.mp3", "", "", "");
+        Track second = new Track(0, "Deux", "Artiste", "Album", "2020", 210, "Pop",
+                "deux.mp3", "", "", "");
+        dbInsert.insertTrack(first);
+        dbInsert.insertTrack(second);
+        dbInsert.getArtistId("Artiste"); // mémorisé avant la transaction
+
+        List<Track> batch = List.of(
+            new Track(0, "Un (remix)", "Artiste", "Album", "2021", 200, "Pop", "un.mp3", "", "", ""),
+            new Track(0, "Fantôme", "Personne", "Rien", "1999", 100, "Pop", "absent.mp3", "", "", ""),
+            new Track(0, "Deux (live)", "Artiste", "Album", "2021", 210, "Rock", "deux.mp3", "", "", "")
+        );
+
+        assertEquals(2, dbUpdate.updateTracks(batch), "Seul le morceau inexistant doit être ignoré.");
+        assertNotEquals(-1, dbInsert.getTrackId("Un (remix)"));
+        assertNotEquals(-1, dbInsert.getTrackId("Deux (live)"));
+        assertEquals(-1, dbInsert.getTrackId("Un"));
+        assertNotNull(dbInsert.getIdCache().get(IdCache.Entity.ARTIST, "Artiste"),
+            "L'annulation d'un morceau ne doit pas vider le dictionnaire d'IDs.");
+    }
+
+    @Test
+    public void testSyncTracksKeepsFailedTrackPending() {
+        dbInsert.insertTrack(new Track(0, "Un", "Artiste", "Album", "2020", 200, "Pop", "un.mp3", "", "", ""));
+        Track saved = new Track(dbInsert.getTrackId("Un"), "Un", "Artiste", "Album", "2020", 200, "Pop",
+                "un.mp3", "", "", "");
+        Track ghost = new Track(999, "Fantôme", "Personne", "Rien", "1999", 100, "Pop",
+                "absent.mp3", "", "", ""); // absent de la base : sa mise à jour échoue
+
+        TrackLibrary library = new TrackLibrary();
+        ChangeTracker changes = new ChangeTracker();
+        library.addObserver(changes);
+        library.addTrack(saved);
+        library.addTrack(ghost);
+        dbUpdate.setTrackLibrary(library);
+        dbUpdate.setChanges(changes);
+
+        saved.setTitle("Un (remix)");
+        ghost.setTitle("Fantôme (remix)");
+        dbUpdate.syncTracks();
+
+        assertNotEquals(-1, dbInsert.getTrackId("Un (remix)"));
+        assertEquals(Set.of(999), changes.getTracksChanged(), "Le morceau en échec doit rester à enregistrer.");
+    }
 }
@@ -0,0 +1,50 @@
+package ulb.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdCacheTest {
+
+    @Test
+    public void testEvictRecordedSinceOnlyForgetsEntriesAddedAfterTheMark() {
+        IdCache cache = new IdCache();
+        cache.put(IdCache.Entity.ARTIST, "Aya Nakamura", 1); // préchargé avant la transaction
+
+        cache.startRecording();
+        cache.put(IdCache.Entity.ALBUM, "DNK", 10); // morceau enregistré
+        int mark = cache.recordingMark();
+        cache.put(IdCache.Entity.ARTIST, "Angèle", 2); // morceau annulé
+        cache.put(IdCache.Entity.TAG, "Pop", 3);
+        cache.put(IdCache.Entity.ARTIST, "Aya Nakamura", 1); // déjà connu : non relevé
+
+        cache.evictRecordedSince(mark);
+
+        assertEquals(1, cache.get(IdCache.Entity.ARTIST, "Aya Nakamura"));
+        assertEquals(10, cache.get(IdCache.Entity.ALBUM, "DNK"));
+        assertNull(cache.get(IdCache.Entity.ARTIST, "Angèle"));
+        assertNull(cache.get(IdCache.Entity.TAG, "Pop"));
+
+        cache.evictRecordedSince(0); // annulation de toute la transaction
+        assertNull(cache.get(IdCache.Entity.ALBUM, "DNK"));
+        assertEquals(1, cache.get(IdCache.Entity.ARTIST, "Aya Nakamura"));
+        cache.stopRecording();
+    }
+
+    @Test
+    public void testEntriesAreNotRecordedOutsideATransaction() throws Exception {
+        IdCache cache = new IdCache();
+        cache.put(IdCache.Entity.ARTIST, "Angèle", 2);
+        assertEquals(0, cache.recordingMark());
+
+        cache.startRecording();
+        Thread reader = new Thread(() -> cache.put(IdCache.Entity.TAG, "Pop", 3)); // lecture d'un autre thread
+        reader.start();
+        reader.join();
+        cache.evictRecordedSince(0);
+        cache.stopRecording();
+
+        assertEquals(2, cache.get(IdCache.Entity.ARTIST, "Angèle"));
+        assertEquals(3, cache.get(IdCache.Entity.TAG, "Pop"), "Seules les entrées du thread d'écriture sont relevées.");
+    }
+}
@@ -0,0 +1,108 @@
+package ulb.dao;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryMetricsTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        connection.createStatement().executeUpdate("CREATE TABLE Item (id INTEGER PRIMARY KEY, name TEXT NOT NULL)");
+        QueryMetrics.setEnabled(true);
+        QueryMetrics.reset();
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        QueryMetrics.reset();
+        if (connection != null) connection.close();
+    }
+
+    @Test
+    public void testPercentilesAndMax() {
+        for (int i = 0; i < 98; i++) {
+            QueryMetrics.record("tag", 1_000_000, false); // 1 ms
+        }
+        QueryMetrics.record("tag", 50_000_000, false);    // 50 ms
+        QueryMetrics.record("tag", 200_000_000, true);    // 200 ms, en erreur
+
+        QueryMetrics.TagStats stats = QueryMetrics.get("tag");
+        assertEquals(100, stats.getCalls());
+        assertEquals(1, stats.getErrors());
+        assertEquals(1000, stats.getP50Micros(), 250, "p50 approché à la classe près.");
+        assertEquals(50_000, stats.getP99Micros(), 12_500, "p99 approché à la classe près.");
+        assertEquals(200_000, stats.getMaxMicros(), "Le maximum doit être exact.");
+    }
+
+    @Test
+    public void testStatementCacheRecordsExecutionsAndErrors() throws Exception {
+        StatementCache cache = new StatementCache(connection, 8);
+
+        PreparedStatement insert = cache.prepare("insertItem", "INSERT INTO Item (name) VALUES (?)");
+        insert.setString(1, "a");
+        insert.executeUpdate();
+        insert = cache.prepare("insertItem", "INSERT INTO Item (name) VALUES (?)");
+        insert.setNull(1, java.sql.Types.VARCHAR);
+        assertThrows(SQLException.class, insert::executeUpdate, "L'exception d'origine doit être propagée.");
+
+        try (ResultSet rs = cache.prepare("countItems", "SELECT COUNT(*) FROM Item").executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        }
+
+        assertEquals(2, QueryMetrics.get("insertItem").getCalls());
+        assertEquals(1, QueryMetrics.get("insertItem").getErrors());
+        assertEquals(1, QueryMetrics.get("countItems").getCalls());
+        assertEquals(2, QueryMetrics.snapshot().size());
+        cache.close();
+    }
+
+    @Test
+    public void testDisabledMetricsLeaveStatementsUnwrapped() throws Exception {
+        QueryMetrics.setEnabled(false);
+        StatementCache cache = new StatementCache(connection, 8);
+        PreparedStatement stmt = cache.prepare("countItems", "SELECT COUNT(*) FROM Item");
+        assertFalse(java.lang.reflect.Proxy.isProxyClass(stmt.getClass()), "Aucune enveloppe quand les mesures sont désactivées.");
+        stmt.executeQuery().close();
+        assertNull(QueryMetrics.get("countItems"));
+        cache.close();
+        QueryMetrics.setEnabled(true);
+    }
+
+    @Test
+    public void testManagersLeaveStatementsUnwrappedWhenMetricsAndSlowQueryLogAreOff() throws Exception {
+        QueryMetrics.setEnabled(false);
+        SlowQueryLog.setEnabled(false);
+        try {
+            DbManagerSearch search = new DbManagerSearch(connection);
+            DbManagerUpdate update = new DbManagerUpdate(connection, null);
+            PreparedStatement read = search.statementCache.prepare("countItems", "SELECT COUNT(*) FROM Item");
+            PreparedStatement write = update.statementCache.prepare("renameItems", "UPDATE Item SET name = name");
+            assertFalse(java.lang.reflect.Proxy.isProxyClass(read.getClass()), "Aucune enveloppe pour les recherches.");
+            assertFalse(java.lang.reflect.Proxy.isProxyClass(write.getClass()), "Aucune enveloppe pour les mises à jour.");
+            search.statementCache.close();
+            update.statementCache.close();
+        } finally {
+            SlowQueryLog.setEnabled(true);
+            QueryMetrics.setEnabled(true);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ulb.dao;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLCatalogTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        connection.createStatement().executeUpdate(SQLCatalog.getInstance().getQuery("createAllTablesAndTriggers"));
+        connection.createStatement().executeUpdate(SQLCatalog.getInstance().getQuery("createSearchIndex"));
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        if (connection != null) connection.close();
+    }
+
+    @Test
+    public void testCatalogIsSharedAndLoadsEveryFile() {
+        SQLCatalog catalog = SQLCatalog.getInstance();
+        assertSame(catalog, SQLCatalog.getInstance(), "Le catalogue doit être chargé une seule fois.");
+        assertTrue(catalog.contains("getAllTracks"));
+        assertTrue(catalog.contains("insertTrackReturningId"));
+        assertTrue(catalog.contains("migration_1"));
+    }
+
+    @Test
+    public void testUnknownTagFailsFast() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> SQLCatalog.getInstance().getQuery("nonExistentTag"));
+        assertTrue(e.getMessage().contains("nonExistentTag"), "Le tag manquant doit être nommé.");
+    }
+
+    @Test
+    public void testEveryStatementPreparesAgainstMigratedSchema() throws Exception {
+        new SchemaMigrator(connection).migrate();
+        assertDoesNotThrow(() -> SQLCatalog.getInstance().validate(connection));
+    }
+
+    @Test
+    public void testValidationReportsStatementsBrokenBySchema() {
+        // sans migrations, la colonne PlaylistTrack.position n'existe pas encore
+        SQLException e = assertThrows(SQLException.class, () -> SQLCatalog.getInstance().validate(connection));
+        assertTrue(e.getMessage().contains("[insertTrackIntoPlaylist]"), e.getMessage());
+    }
+}
@@ -0,0 +1,73 @@
+package ulb.dao;
+
+import org.junit.jupiter.api.*;
+import ulb.Config;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigratorTest {
+
+    private static final String TEST_DB_PATH = "test_migrations.db";
+    private Connection connection;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+
+        File file = new File(TEST_DB_PATH);
+        if (file.exists()) file.delete();
+
+        connection = DriverManager.getConnection("jdbc:sqlite:" + TEST_DB_PATH);
+        SQLLoader loader = new SQLLoader(Config.CREATE_TABLES_SQL_FILE);
+        connection.createStatement().executeUpdate(loader.getQuery("createAllTablesAndTriggers"));
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        if (connection != null) connection.close();
+        File file = new File(TEST_DB_PATH);
+        if (file.exists()) file.delete();
+    }
+
+    @Test
+    public void testMigrationsCreateForeignKeyIndexes() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(connection);
+        int version = migrator.migrate();
+
+        assertTrue(version >= 1, "Au moins une migration doit être appliquée.");
+        assertEquals(version, migrator.getSchemaVersion(), "La version doit être enregistrée dans user_version.");
+
+        Set<String> indexes = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type='index'")) {
+            while (rs.next()) {
+                indexes.add(rs.getString("name"));
+            }
+        }
+        for (String index : new String[]{"idx_track_artist", "idx_track_album", "idx_track_tag_tag", "idx_playlist_track_track"}) {
+            assertTrue(indexes.contains(index), "L'index " + index + " devrait exister.");
+        }
+    }
+
+    @Test
+    public void testMigrateIsIdempotent() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(connection);
+        int first = migrator.migrate();
+        int second = migrator.migrate();
+        assertEquals(first, second, "Une base à jour ne doit plus être migrée.");
+    }
+}
@@ -0,0 +1,111 @@
+package ulb.dao;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+
+    private final List<String> messages = new ArrayList<>();
+    private final Logger slowQueryLogger = Logger.getLogger(SlowQueryLog.class.getName());
+    private final Handler capture = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            messages.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private Connection connection;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        slowQueryLogger.addHandler(capture);
+        slowQueryLogger.setLevel(Level.ALL);
+
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        connection.createStatement().executeUpdate("CREATE TABLE Item (id INTEGER PRIMARY KEY, name TEXT NOT NULL)");
+        connection.createStatement().executeUpdate("INSERT INTO Item (name) VALUES ('a'), ('b')");
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        slowQueryLogger.removeHandler(capture);
+        if (connection != null) connection.close();
+    }
+
+    @Test
+    public void testSlowQueryIsLoggedOnceWithParametersAndPlan() throws Exception {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0); // toute exécution est lente
+        StatementCache cache = new StatementCache(connection, 8);
+        cache.setSlowQueryLog(slowQueryLog);
+
+        for (String name : new String[]{"a", "b"}) {
+            PreparedStatement stmt = cache.prepare("findItem", "SELECT id FROM Item WHERE name = ?");
+            stmt.setString(1, name);
+            stmt.executeQuery().close();
+        }
+
+        assertEquals(2, slowQueryLog.getOccurrences("findItem"));
+        assertEquals(1, messages.size(), "Un tag ne doit être détaillé qu'une seule fois.");
+        String message = messages.get(0);
+        assertTrue(message.contains("[findItem]"), message);
+        assertTrue(message.contains("[a]"), "Les paramètres liés doivent être journalisés : " + message);
+        assertTrue(message.contains("SCAN Item"), "Le plan d'exécution doit être journalisé : " + message);
+        cache.close();
+    }
+
+    @Test
+    public void testReadIsCheckedOnceTheResultSetIsConsumed() throws Exception {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0); // toute exécution est lente
+        StatementCache cache = new StatementCache(connection, 8);
+        cache.setSlowQueryLog(slowQueryLog);
+
+        ResultSet rs = cache.prepare("allItems", "SELECT name FROM Item").executeQuery();
+        assertEquals(0, slowQueryLog.getOccurrences("allItems"), "Le parcours du ResultSet fait partie de la lecture.");
+        int rows = 0;
+        while (rs.next()) {
+            rows++;
+        }
+        assertEquals(2, rows);
+        assertEquals(1, slowQueryLog.getOccurrences("allItems"), "La lecture doit être mesurée à la dernière ligne.");
+        rs.close();
+        assertEquals(1, slowQueryLog.getOccurrences("allItems"), "Une lecture ne doit être relevée qu'une fois.");
+
+        try (ResultSet first = cache.prepare("allItems", "SELECT name FROM Item").executeQuery()) {
+            assertTrue(first.next()); // parcours interrompu : mesure relevée à la fermeture
+        }
+        assertEquals(2, slowQueryLog.getOccurrences("allItems"));
+        cache.close();
+    }
+
+    @Test
+    public void testFastQueryIsNotLogged() throws Exception {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(60_000);
+        StatementCache cache = new StatementCache(connection, 8);
+        cache.setSlowQueryLog(slowQueryLog);
+
+        cache.prepare("countItems", "SELECT COUNT(*) FROM Item").executeQuery().close();
+
+        assertEquals(0, slowQueryLog.getOccurrences("countItems"));
+        assertTrue(messages.isEmpty());
+        cache.close();
+    }
+}
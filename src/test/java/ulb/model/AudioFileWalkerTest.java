@@ -0,0 +1,59 @@
+package ulb.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioFileWalkerTest {
+
+    @TempDir
+    Path firstRoot;
+
+    @TempDir
+    Path secondRoot;
+
+    @Test
+    public void testWalkFindsAudioFilesOfEveryFormatInNestedFoldersOfAllRoots() throws Exception {
+        Path album = Files.createDirectories(firstRoot.resolve("Artiste").resolve("Album"));
+        Files.writeString(firstRoot.resolve("racine.mp3"), "a");
+        Files.writeString(album.resolve("piste.flac"), "bb");
+        Files.writeString(album.resolve("piste.OGG"), "c");
+        Files.writeString(album.resolve("pochette.jpg"), "image");
+        Path other = Files.createDirectories(secondRoot.resolve("Compilation"));
+        Files.writeString(other.resolve("live.m4a"), "d");
+        Files.writeString(other.resolve("prise.wav"), "e");
+        Files.writeString(other.resolve("notes.txt"), "texte");
+
+        AudioFileWalker.Listing listing = new AudioFileWalker(2).walk(List.of(firstRoot, secondRoot));
+
+        Set<String> found = listing.getFiles().stream().map(FileFingerprint::getFilePath).collect(Collectors.toSet());
+        assertEquals(Set.of(
+            firstRoot.resolve("racine.mp3").toString(),
+            album.resolve("piste.flac").toString(),
+            album.resolve("piste.OGG").toString(),
+            other.resolve("live.m4a").toString(),
+            other.resolve("prise.wav").toString()), found);
+        assertTrue(listing.getFailedPaths().isEmpty());
+
+        FileFingerprint flac = listing.getFiles().stream()
+            .filter(f -> f.getFilePath().endsWith("piste.flac")).findFirst().orElseThrow();
+        assertEquals(2, flac.getSize(), "La taille doit être relevée pendant le parcours.");
+        assertEquals(Files.getLastModifiedTime(album.resolve("piste.flac")).toMillis(), flac.getModifiedMillis());
+    }
+
+    @Test
+    public void testListingOnlyCoversPathsUnderWalkedRoots() {
+        AudioFileWalker.Listing listing = new AudioFileWalker(1).walk(List.of(firstRoot));
+
+        assertTrue(listing.covers(firstRoot.resolve("Artiste").resolve("disparu.mp3").toString()));
+        assertFalse(listing.covers(secondRoot.resolve("ailleurs.mp3").toString()),
+            "Un fichier hors des racines parcourues ne doit pas être considéré comme supprimé.");
+    }
+}
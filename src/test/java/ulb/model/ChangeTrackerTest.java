@@ -115,4 +115,20 @@ public class ChangeTrackerTest {
         assertTrue(changeTracker.getTracksChanged().contains(1), "Track 1 should still be in the modified set.");
         assertTrue(changeTracker.getTracksChanged().contains(2), "Track 2 should still be in the modified set.");
     }
+
+    /**
+     * Vérifie que drainChanges() renvoie les tracks modifiés, vide le suivi et notifie les observateurs.
+     */
+    @Test
+    public void testDrainChangesReturnsAndClearsModifiedTracks() {
+        Set<Integer> notified = new java.util.HashSet<>();
+        changeTracker.addObserver(notified::add);
+
+        changeTracker.invalidateTrack(track1.getTrackId());
+        changeTracker.invalidateTrack(track2.getTrackId());
+
+        assertEquals(Set.of(1, 2), notified, "Each invalidation should be notified.");
+        assertEquals(Set.of(1, 2), changeTracker.drainChanges());
+        assertTrue(changeTracker.getTracksChanged().isEmpty(), "Drained tracks should no longer be tracked.");
+    }
 }
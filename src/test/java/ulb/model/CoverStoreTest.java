@@ -0,0 +1,60 @@
+package ulb.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoverStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testIdenticalArtworkIsStoredOnce() throws Exception {
+        CoverStore store = new CoverStore(directory.resolve("covers"));
+        byte[] artwork = {1, 2, 3, 4};
+
+        String first = store.store(artwork, "image/jpeg");
+        String second = store.store(artwork.clone(), "image/jpeg");
+        String other = store.store(new byte[]{5, 6}, "image/png");
+
+        assertEquals(first, second, "Une même pochette doit donner le même fichier.");
+        assertNotEquals(first, other);
+        assertTrue(other.endsWith(".png"));
+        assertArrayEquals(artwork, Files.readAllBytes(Path.of(first)));
+        try (var files = Files.list(directory.resolve("covers"))) {
+            assertEquals(2, files.count(), "Aucun fichier temporaire ne doit rester.");
+        }
+        assertEquals(first, new CoverStore(directory.resolve("covers")).store(artwork, "image/jpeg"),
+            "Une image déjà sur le disque doit être reprise telle quelle.");
+    }
+
+    @Test
+    public void testHashOfOnlyRecognizesStoredImages() throws Exception {
+        CoverStore store = new CoverStore(directory);
+        String path = store.store(new byte[]{7}, null);
+
+        assertNotNull(CoverStore.hashOf(path));
+        assertNull(CoverStore.hashOf(directory.resolve("Mon_titre.jpg").toString()));
+        assertNull(CoverStore.hashOf(null));
+        assertNull(CoverStore.hashOf("jar:file:/app/ulb.jar!/images/default_cover_image.jpg"));
+    }
+
+    @Test
+    public void testDeleteRemovesStoredImagesOnly() throws Exception {
+        CoverStore store = new CoverStore(directory);
+        String path = store.store(new byte[]{8, 9}, "image/jpeg");
+        Path foreign = Files.writeString(directory.resolve("autre.jpg"), "image");
+
+        assertEquals(1, store.delete(List.of(path, foreign.toString())));
+        assertFalse(Files.exists(Path.of(path)));
+        assertTrue(Files.exists(foreign), "Un fichier hors du stockage ne doit jamais être supprimé.");
+        assertEquals(path, store.store(new byte[]{8, 9}, "image/jpeg"));
+        assertTrue(Files.exists(Path.of(path)), "Une image supprimée doit être réécrite si elle réapparaît.");
+    }
+}
@@ -3,14 +3,16 @@ package ulb.model;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 //import org.mockito.Mockito;
-import ulb.dao.DbInitializer; // Import DbInitializer to get logger name
 import ulb.dao.DbManagerInsert;
 //import ulb.model.Track;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List; // Correct import for List
 import java.util.Optional;
@@ -22,7 +24,7 @@ import static org.mockito.Mockito.*;
 /**
  * Classe de tests unitaires pour DatabaseSeeder.
  * Ces tests utilisent Mockito pour simuler MetadataManager et DbManagerInsert.
- * On teste ici la méthode privée processTrack() via réflexion, puisqu'elle est appelée depuis seedDatabase() qui ne retourne rien.
+ * Chaque fichier passe par syncFiles(), qui le confie au LibraryScanner et renvoie le bilan du scan.
  */
 public class DatabaseSeederTest {
 
@@ -37,6 +39,9 @@ public class DatabaseSeederTest {
     private TestLogHandler testLogHandler;
     private Logger loggerToTest;
 
+    @TempDir
+    Path musicDir;
+
     /**
      * Initialisation avant chaque test :
      * - Création des mocks
@@ -71,18 +76,19 @@ public class DatabaseSeederTest {
      * - Un message de succès s'affiche
      */
     @Test
-    public void testProcessTrack_success() {
-        File mockFile = new File("test.mp3");
+    public void testProcessTrack_success() throws Exception {
+        File mockFile = createAudioFile("test.mp3");
 
         Track fakeTrack = new Track("Titre", "Artiste", "Album", "2024", 180, "Pop",
                 "/fichier.mp3", "/image.jpg", "/lyrics.txt", "/karaoke.lrc");
 
         when(mockMetadataManager.extractMetadata(mockFile)).thenReturn(Optional.of(fakeTrack));
-        when(mockDbInsert.insertTrack(fakeTrack)).thenReturn(true);
+        when(mockDbInsert.insertTracks(any())).thenReturn(batchResult(fakeTrack, true));
 
-        callPrivateProcessTrack(seeder, mockFile);
+        LibraryScanner.ScanResult result = seeder.syncFiles(List.of(mockFile));
 
-        verify(mockDbInsert).insertTrack(fakeTrack);
+        verify(mockDbInsert).insertTracks(List.of(fakeTrack));
+        assertEquals(1, result.getInserted());
     }
 
     /**
@@ -92,14 +98,15 @@ public class DatabaseSeederTest {
      * - Un message d'avertissement est affiché
      */
     @Test
-    public void testProcessTrack_metadataNull_shouldLogWarning() {
-        File mockFile = new File("fichier_invalide.mp3");
+    public void testProcessTrack_metadataNull_shouldLogWarning() throws Exception {
+        File mockFile = createAudioFile("fichier_invalide.mp3");
 
         when(mockMetadataManager.extractMetadata(mockFile)).thenReturn(Optional.empty());
 
-        callPrivateProcessTrack(seeder, mockFile);
+        LibraryScanner.ScanResult result = seeder.syncFiles(List.of(mockFile));
 
-        verify(mockDbInsert, never()).insertTrack(any());
+        verify(mockDbInsert, never()).insertTracks(any());
+        assertEquals(1, result.getUnreadable());
     }
 
     /**
@@ -108,31 +115,39 @@ public class DatabaseSeederTest {
      * - Un message d'avertissement est affiché
      */
     @Test
-    public void testProcessTrack_insertFails_shouldLogWarning() {
-        File mockFile = new File("test_fail.mp3");
+    public void testProcessTrack_insertFails_shouldLogWarning() throws Exception {
+        File mockFile = createAudioFile("test_fail.mp3");
 
         Track track = new Track("TitreFail", "Artiste", "Album", "2023", 200, "Rock",
                 "/fail.mp3", "/cover.jpg", "/ly.txt", "/kara.lrc");
 
         when(mockMetadataManager.extractMetadata(mockFile)).thenReturn(Optional.of(track));
-        when(mockDbInsert.insertTrack(track)).thenReturn(false);
+        when(mockDbInsert.insertTracks(any())).thenReturn(batchResult(track, false));
+
+        LibraryScanner.ScanResult result = seeder.syncFiles(List.of(mockFile));
 
-        callPrivateProcessTrack(seeder, mockFile);
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getRejected());
+    }
 
+    /**
+     * Crée un fichier audio (vide) dans le dossier temporaire : les métadonnées viennent du MetadataManager simulé.
+     */
+    private File createAudioFile(String name) throws Exception {
+        return Files.writeString(musicDir.resolve(name), "audio").toFile();
     }
 
     /**
-     * Méthode utilitaire pour accéder à la méthode privée processTrack(File) via réflexion.
-     * Cela permet de tester directement son comportement sans passer par seedDatabase().
+     * Résultat d'insertion simulé pour un seul morceau, inséré ou refusé.
      */
-    private void callPrivateProcessTrack(DatabaseSeeder seeder, File file) {
-        try {
-            var method = DatabaseSeeder.class.getDeclaredMethod("processTrack", File.class);
-            method.setAccessible(true); // autoriser l'accès à une méthode privée
-            method.invoke(seeder, file); // appel réel
-        } catch (Exception e) {
-            fail("Erreur lors de l'appel à processTrack : " + e.getMessage());
+    private static DbManagerInsert.BatchResult batchResult(Track track, boolean inserted) {
+        DbManagerInsert.BatchResult result = new DbManagerInsert.BatchResult();
+        if (inserted) {
+            result.getInserted().add(track);
+        } else {
+            result.getFailures().put(track, "déjà présent");
         }
+        return result;
     }
 
     // Helper class for capturing log messages
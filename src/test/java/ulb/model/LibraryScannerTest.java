@@ -0,0 +1,126 @@
+package ulb.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ulb.dao.DbManagerInsert;
+import ulb.dao.DbManagerUpdate;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class LibraryScannerTest {
+
+    private MetadataManager mockMetadataManager;
+    private DbManagerInsert mockDbInsert;
+    private final Set<String> extractionThreads = ConcurrentHashMap.newKeySet();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+
+        mockMetadataManager = mock(MetadataManager.class);
+        when(mockMetadataManager.extractMetadata(any(File.class))).thenAnswer(invocation -> {
+            File file = invocation.getArgument(0);
+            extractionThreads.add(Thread.currentThread().getName());
+            Thread.sleep(2); // lecture des tags simulée
+            if (file.getName().startsWith("broken")) {
+                return Optional.empty();
+            }
+            return Optional.of(new Track(file.getName(), "Artiste", "Album", "2024", 180, "Pop",
+                file.getPath(), null, null, null));
+        });
+
+        mockDbInsert = mock(DbManagerInsert.class);
+        when(mockDbInsert.insertTracks(any())).thenAnswer(invocation -> {
+            List<Track> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size()); // un seul thread écrit
+            DbManagerInsert.BatchResult result = new DbManagerInsert.BatchResult();
+            for (Track track : batch) {
+                if (track.getTitle().startsWith("duplicate")) {
+                    result.getFailures().put(track, "déjà présent");
+                } else {
+                    result.getInserted().add(track);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Test
+    public void testScanExtractsInParallelAndInsertsInBoundedBatches() {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            files.add(new File("track" + i + ".mp3"));
+        }
+        files.add(new File("broken.mp3"));
+        files.add(new File("duplicate.mp3"));
+
+        LibraryScanner scanner = new LibraryScanner(mockMetadataManager, mockDbInsert, 4, 8, 50);
+        LibraryScanner.ScanResult result = scanner.scan(files);
+
+        assertEquals(200, result.getInserted());
+        assertEquals(1, result.getRejected());
+        assertEquals(1, result.getUnreadable());
+        assertTrue(extractionThreads.size() > 1, "L'extraction doit être répartie sur plusieurs threads : " + extractionThreads);
+        assertFalse(extractionThreads.contains(Thread.currentThread().getName()), "L'extraction ne doit pas occuper le thread appelant.");
+        assertEquals(201, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 50), "Les lots ne doivent pas dépasser la taille configurée.");
+    }
+
+    @Test
+    public void testChangedFilesUpdateTheirTracksAndEveryReadFileIsIndexed(@TempDir Path musicDir) throws Exception {
+        File changed = Files.writeString(musicDir.resolve("changed.mp3"), "v2").toFile();
+        File added = Files.writeString(musicDir.resolve("added.mp3"), "v1").toFile();
+        File broken = Files.writeString(musicDir.resolve("broken.mp3"), "?").toFile();
+        Map<String, FileFingerprint> previous = Map.of(changed.getAbsolutePath(),
+            new FileFingerprint(changed.getAbsolutePath(), 1, 0, null, true));
+        DbManagerUpdate mockDbUpdate = mock(DbManagerUpdate.class);
+        when(mockDbUpdate.updateTracks(any())).thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+        List<FileFingerprint> saved = new ArrayList<>();
+        when(mockDbInsert.saveFileFingerprints(any())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return true;
+        });
+
+        LibraryScanner scanner = new LibraryScanner(mockMetadataManager, mockDbInsert, mockDbUpdate, 2, 8, 50);
+        LibraryScanner.ScanResult result = scanner.scan(List.of(changed, added, broken), previous);
+
+        assertEquals(1, result.getInserted());
+        assertEquals(List.of("changed.mp3"), result.getUpdatedTracks().stream().map(Track::getTitle).toList());
+        assertEquals(List.of(1), batchSizes, "Seul le nouveau fichier doit être inséré.");
+        assertEquals(Set.of(changed.getAbsolutePath(), added.getAbsolutePath()),
+            saved.stream().map(FileFingerprint::getFilePath).collect(Collectors.toSet()),
+            "Un fichier illisible ne doit pas être indexé, pour être relu au prochain scan.");
+        FileFingerprint changedFingerprint = saved.stream()
+            .filter(fingerprint -> fingerprint.getFilePath().equals(changed.getAbsolutePath())).findFirst().orElseThrow();
+        assertEquals(2, changedFingerprint.getSize());
+    }
+
+    @Test
+    public void testEmptyScanDoesNotTouchDatabase() {
+        LibraryScanner.ScanResult result = new LibraryScanner(mockMetadataManager, mockDbInsert, 4, 8, 50).scan(List.of());
+        assertEquals(0, result.getInserted());
+        verifyNoInteractions(mockDbInsert);
+    }
+}
@@ -32,6 +32,23 @@ class TrackLibraryTest {
         assertEquals(track, trackLibrary.get(1));
     }
 
+    @Test
+    void testRefreshTracksUpdatesViewsWithoutMarkingTracksForWriteBack() {
+        ChangeTracker changes = new ChangeTracker();
+        trackLibrary.addObserver(changes);
+        Track track = new Track(1, "title", "artist", "album", "2024", 120, "pop", "/music/a.mp3", null, null, null);
+        trackLibrary.addTrack(track);
+        List<Track> viewUpdates = new java.util.ArrayList<>();
+        track.addObserver(viewUpdates::add);
+
+        trackLibrary.refreshTracks(List.of(
+            new Track("new title", "artist", "album", "2024", 121, "pop", "/music/a.mp3", null, null, null)));
+
+        assertEquals("new title", track.getTitle());
+        assertEquals(List.of(track), viewUpdates, "The views must still be notified.");
+        assertTrue(changes.getTracksChanged().isEmpty(), "A rescanned track is already saved and must not be written back.");
+    }
+
     @Test
     void testGetTrack() {
         Track track = new Track(1,
@@ -65,9 +82,42 @@ class TrackLibraryTest {
     }
 
     // Test observer implementation
+    @Test
+    void testLoadTracksReplacesContentFromSource() {
+        trackLibrary.addTrack(new Track(99, "old", "artist", "album", "2020", 100, "pop", null, null, null, null));
+        List<Track> source = List.of(
+                new Track(1, "one", "artist", "album", "2024", 120, "pop", null, null, null, null),
+                new Track(2, "two", "artist", "album", "2024", 130, "rock", null, null, null, null)
+        );
+
+        trackLibrary.loadTracks(source::forEach);
+
+        assertEquals(2, trackLibrary.getTracks().size());
+        assertNull(trackLibrary.get(99), "Previous tracks should be cleared.");
+        assertEquals(source.get(1), testObserver.getAddedTrack(), "Observers should be notified for each loaded track.");
+    }
+
+    @Test
+    void testReconcileKeepsKnownInstancesAddsNewAndRemovesMissing() {
+        Track kept = new Track(1, "one", "artist", "album", "2024", 120, "pop", null, null, null, null);
+        Track removed = new Track(2, "two", "artist", "album", "2024", 130, "rock", null, null, null, null);
+        trackLibrary.addTrack(kept);
+        trackLibrary.addTrack(removed);
+        Track added = new Track(3, "three", "artist", "album", "2024", 140, "jazz", null, null, null, null);
+
+        trackLibrary.reconcile(List.of(kept, added));
+
+        assertSame(kept, trackLibrary.get(1), "Known tracks should keep their instance.");
+        assertNull(trackLibrary.get(2), "Tracks missing from the database should be removed.");
+        assertSame(added, trackLibrary.get(3));
+        assertEquals(added, testObserver.getAddedTrack());
+        assertEquals(removed, testObserver.getRemovedTrack());
+    }
+
     private static class TestObserver implements TrackLibrary.TrackLibraryObserver {
         private boolean trackAdded = false;
         private Track addedTrack;
+        private Track removedTrack;
 
         @Override
         public void onAddTrack(Track t) {
@@ -77,7 +127,7 @@ class TrackLibraryTest {
 
         @Override
         public void onRemoveTrack(Track t) {
-            // Not testing this for now, so we leave it empty
+            removedTrack = t;
         }
 
         public boolean isTrackAdded() {
@@ -87,6 +137,10 @@ class TrackLibraryTest {
         public Track getAddedTrack() {
             return addedTrack;
         }
+
+        public Track getRemovedTrack() {
+            return removedTrack;
+        }
     }
 
 }
@@ -0,0 +1,51 @@
+package ulb.services;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import ulb.Config;
+import ulb.model.ChangeTracker;
+import ulb.model.TrackLibrary;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppServicesTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    @BeforeEach
+    public void setup() throws Config.CouldNotSetUpDataFolder {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+        Config.setDataDirectoryPath(dataDirectory.toString());
+        Config.setUpFolders();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Config.setDataDirectoryPath(null);
+    }
+
+    @Test
+    public void testCloseWritesLibrarySnapshotAndClosesMainConnection() throws Exception {
+        AppServices.init();
+        AppServices.startTrackSync(new ChangeTracker(), new TrackLibrary());
+        Connection connection = AppServices.getDbInitializer().getConnection();
+
+        AppServices.close();
+
+        assertTrue(Files.exists(AppServices.getLibrarySnapshotPath()),
+            "L'instantané doit être écrit avant l'arrêt du thread d'écriture.");
+        assertTrue(LibrarySnapshot.read(AppServices.getLibrarySnapshotPath()).isPresent());
+        assertTrue(connection.isClosed(), "La connexion principale doit être fermée.");
+    }
+}
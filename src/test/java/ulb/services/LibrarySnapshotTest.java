@@ -0,0 +1,70 @@
+package ulb.services;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import ulb.model.Playlist;
+import ulb.model.Track;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LibrarySnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setup() {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws Exception {
+        Path file = directory.resolve("library.snapshot");
+        Track baby = new Track(1, "Baby", "Aya Nakamura", "DNK", "2023", 190, "Pop", "baby.mp3", null, "lyrics.txt", null);
+        Track djadja = new Track(2, "Djadja", "Aya Nakamura", "Nakamura", "2018", 170, null, "djadja.mp3", "cover.jpg", null, null);
+        Playlist soiree = new Playlist("Soirée");
+        soiree.addTrack(djadja);
+        soiree.addTrack(baby);
+        Playlist lazy = new Playlist("Différée", List::of);
+
+        LibrarySnapshot.write(file, 42, List.of(baby, djadja), List.of(soiree, lazy));
+        LibrarySnapshot snapshot = LibrarySnapshot.read(file).orElseThrow();
+
+        assertEquals(42, snapshot.getChangeCounter());
+        assertEquals(2, snapshot.getTracks().size());
+        Track restored = snapshot.getTracks().get(1);
+        assertEquals(2, restored.getTrackId());
+        assertEquals("Djadja", restored.getTitle());
+        assertEquals("Nakamura", restored.getAlbum());
+        assertNull(restored.getGenre(), "Un champ null doit rester null.");
+        assertEquals(170, restored.getDuration());
+
+        assertEquals("Soirée", snapshot.getPlaylists().get(0).getTitle());
+        assertEquals(List.of(2, 1), snapshot.getPlaylists().get(0).getTrackIds(), "L'ordre de la playlist doit être conservé.");
+        assertNull(snapshot.getPlaylists().get(1).getTrackIds(), "Une playlist non chargée doit rester différée.");
+    }
+
+    @Test
+    public void testMissingOrCorruptedSnapshotIsIgnored() throws Exception {
+        Path file = directory.resolve("library.snapshot");
+        assertEquals(Optional.empty(), LibrarySnapshot.read(file));
+
+        LibrarySnapshot.write(file, 7, List.of(new Track(1, "Baby", "Aya Nakamura", "DNK", "2023", 190, "Pop", "baby.mp3", null, null, null)), List.of());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertTrue(LibrarySnapshot.read(file).isEmpty(), "Un instantané corrompu doit être ignoré.");
+    }
+}
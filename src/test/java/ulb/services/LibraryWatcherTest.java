@@ -0,0 +1,123 @@
+package ulb.services;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import ulb.Config;
+import ulb.dao.DbManagerInsert;
+import ulb.dao.DbManagerUpdate;
+import ulb.dao.SQLLoader;
+import ulb.dao.SchemaMigrator;
+import ulb.model.DatabaseSeeder;
+import ulb.model.MetadataManager;
+import ulb.model.Track;
+import ulb.model.TrackLibrary;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class LibraryWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    private Connection connection;
+    private LibraryWatcher watcher;
+    private final TrackLibrary library = new TrackLibrary();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Logger rootLogger = Logger.getLogger("");
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        rootLogger.removeHandler(consoleHandler);
+        rootLogger.setLevel(Level.OFF);
+
+        connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("watcher.db"));
+        SQLLoader loader = new SQLLoader(Config.CREATE_TABLES_SQL_FILE);
+        connection.createStatement().executeUpdate(loader.getQuery("createAllTablesAndTriggers"));
+        new SchemaMigrator(connection).migrate();
+        DbManagerInsert dbInsert = new DbManagerInsert(connection);
+
+        MetadataManager metadataManager = mock(MetadataManager.class);
+        when(metadataManager.extractMetadata(any(File.class))).thenAnswer(invocation -> {
+            File file = invocation.getArgument(0);
+            String title = Files.readString(file.toPath()); // le « tag » titre est le contenu du fichier
+            return Optional.of(new Track(title, "Artiste", "Album", "2024", 180, "Pop",
+                file.getAbsolutePath(), null, null, null));
+        });
+        DatabaseSeeder seeder = new DatabaseSeeder(dbInsert, new DbManagerUpdate(connection, dbInsert), metadataManager);
+
+        library.addObserver(new TrackLibrary.TrackLibraryObserver() {
+            @Override
+            public void onAddTrack(Track t) {
+                events.add("+" + t.getTitle());
+            }
+
+            @Override
+            public void onRemoveTrack(Track t) {
+                events.add("-" + t.getTitle());
+            }
+        });
+        watcher = new LibraryWatcher(List.of(directory), seeder, library, 100, 50);
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        if (watcher != null) watcher.close();
+        if (connection != null) connection.close();
+    }
+
+    @Test
+    public void testFilesDroppedIntoFolderAreAddedUpdatedAndRemoved() throws Exception {
+        Path file = directory.resolve("nouveau.mp3");
+        Files.writeString(file, "Premier titre");
+        Files.writeString(directory.resolve("notes.txt"), "ignoré");
+        awaitCondition(() -> library.getTracks().size() == 1);
+        Track track = library.getTracks().get(0);
+        assertEquals("Premier titre", track.getTitle());
+        assertTrue(track.getTrackId() > 0, "Le morceau ajouté doit porter son ID en base.");
+
+        Files.writeString(file, "Titre corrigé et plus long");
+        awaitCondition(() -> track.getTitle().equals("Titre corrigé et plus long"));
+        assertSame(track, library.get(track.getTrackId()), "La modification doit mettre à jour l'instance de la bibliothèque.");
+
+        Files.delete(file);
+        awaitCondition(() -> library.getTracks().isEmpty());
+        assertEquals(List.of("+Premier titre", "-Titre corrigé et plus long"), events);
+    }
+
+    @Test
+    public void testFilesInNewSubfoldersAreAddedAndRemovedWithTheirFolder() throws Exception {
+        Path album = Files.createDirectories(directory.resolve("Artiste").resolve("Album"));
+        Files.writeString(album.resolve("piste.flac"), "Piste FLAC");
+        awaitCondition(() -> library.getTracks().size() == 1);
+        assertEquals("Piste FLAC", library.getTracks().get(0).getTitle());
+
+        Files.delete(album.resolve("piste.flac"));
+        Files.delete(album);
+        awaitCondition(() -> library.getTracks().isEmpty());
+        assertEquals(List.of("+Piste FLAC", "-Piste FLAC"), events);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 20_000; // certains WatchService interrogent le disque toutes les quelques secondes
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition non atteinte à temps.");
+            Thread.sleep(50);
+        }
+    }
+}